@@ -19,12 +19,22 @@ android {
         }
         val groqApiKey = properties.getProperty("GROQ_API_KEY") ?: ""
         buildConfigField("String", "GROQ_API_KEY", "\"$groqApiKey\"")
+        // Point the chat at a local OpenAI-compatible stand-in, e.g. http://10.0.2.2:8080/v1/
+        val groqBaseUrl = properties.getProperty("GROQ_BASE_URL") ?: "https://api.groq.com/openai/v1/"
+        buildConfigField("String", "GROQ_BASE_URL", "\"$groqBaseUrl\"")
     }
     buildFeatures {
         buildConfig = true
     }
     buildTypes {
+        debug {
+            buildConfigField("boolean", "TRACE_SECTIONS", "true")
+        }
         release {
+            // Trace sections cost a few hundred ns each; build with -PtraceRelease=true
+            // to capture them in a release build
+            val traceRelease = project.findProperty("traceRelease")?.toString() == "true"
+            buildConfigField("boolean", "TRACE_SECTIONS", traceRelease.toString())
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
@@ -32,24 +42,34 @@ android {
             )
         }
     }
+    sourceSets {
+        // Groq stand-in server shared by unit tests and on-device benchmarks
+        getByName("test").java.srcDir("src/sharedTest/java")
+        getByName("androidTest").java.srcDir("src/sharedTest/java")
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
 }
 dependencies {
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     implementation(libs.volley)
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    androidTestImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
     implementation("com.github.bumptech.glide:glide:5.0.5")
     implementation("androidx.room:room-runtime:2.6.1")
     annotationProcessor("androidx.room:room-compiler:2.6.1")
     implementation("androidx.lifecycle:lifecycle-viewmodel:2.8.7")
     implementation("androidx.lifecycle:lifecycle-livedata:2.8.7")
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
+    implementation("androidx.asynclayoutinflater:asynclayoutinflater:1.0.0")
+    implementation("androidx.work:work-runtime:2.9.1")
 }
\ No newline at end of file
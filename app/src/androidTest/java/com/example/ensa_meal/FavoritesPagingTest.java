@@ -0,0 +1,193 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.FavoriteDao;
+import com.example.ensa_meal.database.FavoriteEntity;
+import com.example.ensa_meal.database.FavoriteFacets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FavoritesQuery against the real favorites table: keyset pages walked the way
+ * FavoritesActivity walks them, over duplicate ratings, names and timestamps, and
+ * the query plans of the sorts.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FavoritesPagingTest {
+
+    private static final int FAVORITES = 137;
+    private static final int PAGE_SIZE = 10;
+    private static final String[] NAMES = {"Arrabiata", "beef stew", "Beef Stew", "Chicken Handi", "dal", "Dal", "Eton Mess"};
+
+    private AppDatabase database;
+    private FavoriteDao dao;
+    private final List<FavoriteEntity> rows = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).allowMainThreadQueries().build();
+        dao = database.favoriteDao();
+        for (int i = 0; i < FAVORITES; i++) {
+            FavoriteEntity favorite = new FavoriteEntity(String.format("m%03d", i), NAMES[i % NAMES.length],
+                    null, null, i % 3 == 0 ? "Tasty" : null, i % 5 + 1);
+            favorite.setAddedTimestamp(1_000_000L + i / 4); // Four favorites per timestamp
+            dao.addToFavorites(favorite);
+            rows.add(favorite);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void pagesVisitEveryRowOnceInOrder() {
+        for (FavoritesQuery.Sort sort : FavoritesQuery.Sort.values()) {
+            assertWalk(new FavoritesQuery.Builder().sort(sort).pageSize(PAGE_SIZE).build(), row -> true);
+            assertWalk(new FavoritesQuery.Builder().sort(sort).minRating(3).withComment(true)
+                    .pageSize(PAGE_SIZE).build(), row -> row.getUserRating() >= 3 && row.getUserComment() != null);
+            assertWalk(new FavoritesQuery.Builder().sort(sort).nameQuery("stew").pageSize(PAGE_SIZE).build(),
+                    row -> row.getNameKey().contains("stew"));
+        }
+    }
+
+    @Test
+    public void editingTheLastLoadedRowDoesNotMoveTheCursor() {
+        FavoritesQuery query = new FavoritesQuery.Builder().sort(FavoritesQuery.Sort.RATING).pageSize(PAGE_SIZE).build();
+        List<FavoriteEntity> expected = sorted(query, row -> true);
+
+        List<FavoriteEntity> first = page(query, null);
+        FavoritesQuery.After after = FavoritesActivity.afterRow(query, first.get(first.size() - 1));
+        // The edit dialog changes the loaded row in place: 5 stars down to 1
+        FavoriteEntity last = first.get(first.size() - 1);
+        assertEquals(5f, last.getUserRating(), 0f);
+        last.setUserRating(1);
+
+        List<FavoriteEntity> second = page(query, after);
+        assertEquals(ids(expected.subList(PAGE_SIZE, 2 * PAGE_SIZE)), ids(second));
+    }
+
+    @Test
+    public void facetsCountUnderTheNameQuery() {
+        FavoritesQuery query = new FavoritesQuery.Builder().nameQuery("dal").build();
+        FavoriteFacets facets = dao.getFacets(new SimpleSQLiteQuery(query.facetsSql(), query.facetsArgs()));
+        Predicate<FavoriteEntity> dal = row -> row.getNameKey().contains("dal");
+        assertEquals(count(dal), facets.total);
+        assertEquals(count(dal.and(row -> row.getUserComment() != null)), facets.withComment);
+        for (int stars = 3; stars <= 5; stars++) {
+            int min = stars;
+            assertEquals(count(dal.and(row -> row.getUserRating() >= min)), facets.ratedAtLeast(stars));
+        }
+    }
+
+    @Test
+    public void sortsWalkTheirIndex() {
+        for (FavoritesQuery.Sort sort : FavoritesQuery.Sort.values()) {
+            FavoritesQuery query = new FavoritesQuery.Builder().sort(sort).build();
+            FavoritesQuery.After after = FavoritesActivity.afterRow(query, rows.get(FAVORITES / 2));
+            for (FavoritesQuery.After pageAfter : new FavoritesQuery.After[]{null, after}) {
+                String plan = queryPlan(query.pageSql(pageAfter), query.pageArgs(pageAfter));
+                assertTrue(sort + ": " + plan, plan.contains("index_favorites_"));
+                assertFalse(sort + ": " + plan, plan.contains("TEMP B-TREE"));
+            }
+        }
+    }
+
+    private void assertWalk(FavoritesQuery query, Predicate<FavoriteEntity> filter) {
+        List<FavoriteEntity> walked = new ArrayList<>();
+        FavoritesQuery.After after = null;
+        while (true) {
+            List<FavoriteEntity> page = page(query, after);
+            walked.addAll(page);
+            if (page.size() < query.pageSize) {
+                break;
+            }
+            after = FavoritesActivity.afterRow(query, page.get(page.size() - 1));
+        }
+        assertEquals(query.sort.name(), ids(sorted(query, filter)), ids(walked));
+    }
+
+    private List<FavoriteEntity> page(FavoritesQuery query, FavoritesQuery.After after) {
+        return dao.getPage(new SimpleSQLiteQuery(query.pageSql(after), query.pageArgs(after)));
+    }
+
+    /**
+     * The rows the query should return, in order, computed without SQL
+     */
+    private List<FavoriteEntity> sorted(FavoritesQuery query, Predicate<FavoriteEntity> filter) {
+        Comparator<FavoriteEntity> order;
+        switch (query.sort) {
+            case RATING:
+                order = Comparator.comparingDouble(FavoriteEntity::getUserRating);
+                break;
+            case NAME:
+                order = Comparator.comparing(FavoriteEntity::getNameKey);
+                break;
+            default:
+                order = Comparator.comparingLong(FavoriteEntity::getAddedTimestamp);
+        }
+        order = order.thenComparing(FavoriteEntity::getMealId);
+        if (query.sort != FavoritesQuery.Sort.NAME) {
+            order = order.reversed();
+        }
+        List<FavoriteEntity> expected = new ArrayList<>();
+        for (FavoriteEntity row : rows) {
+            if (filter.test(row)) {
+                expected.add(row);
+            }
+        }
+        expected.sort(order);
+        return expected;
+    }
+
+    private int count(Predicate<FavoriteEntity> filter) {
+        int count = 0;
+        for (FavoriteEntity row : rows) {
+            if (filter.test(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private String queryPlan(String sql, Object[] args) {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = database.query(new SimpleSQLiteQuery("EXPLAIN QUERY PLAN " + sql, args))) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(detail)).append("; ");
+            }
+        }
+        return plan.toString();
+    }
+
+    private static List<String> ids(List<FavoriteEntity> favorites) {
+        List<String> ids = new ArrayList<>(favorites.size());
+        for (FavoriteEntity favorite : favorites) {
+            ids.add(favorite.getMealId());
+        }
+        return ids;
+    }
+}
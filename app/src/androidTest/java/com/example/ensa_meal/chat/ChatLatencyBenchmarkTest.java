@@ -0,0 +1,177 @@
+package com.example.ensa_meal.chat;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.util.Log;
+import android.widget.Button;
+import android.widget.EditText;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.ensa_meal.AIChatActivity;
+import com.example.ensa_meal.R;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * End-to-end chat latency over a long conversation, against the local FakeGroqServer.
+ *
+ * AIChatActivity is launched with its base URL pointed at the stand-in, then a
+ * series of questions is typed and sent. Per turn it records the time from tapping
+ * send to the first answer text on screen (TTFT), the rendered characters per
+ * second while streaming, and the Java heap after GC to catch growth.
+ *
+ * Results are logged under the "ChatLatencyBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ChatLatencyBenchmarkTest {
+
+    private static final String TAG = "ChatLatencyBenchmark";
+    private static final int TURNS = 40;
+    private static final long SERVER_TTFT_MS = 150;
+    private static final int TOKENS_PER_SECOND = 200;
+    private static final int TOKENS_PER_ANSWER = 120;
+    private static final long TURN_TIMEOUT_MS = 15_000;
+
+    private FakeGroqServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FakeGroqServer()
+                .setTimeToFirstTokenMs(SERVER_TTFT_MS)
+                .setTokensPerSecond(TOKENS_PER_SECOND)
+                .setTokensPerAnswer(TOKENS_PER_ANSWER)
+                .start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void longConversationLatencyThroughputAndMemory() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Intent intent = new Intent(context, AIChatActivity.class)
+                .putExtra(AIChatActivity.EXTRA_BASE_URL, server.baseUrl());
+
+        long[] ttft = new long[TURNS];
+        double[] charsPerSecond = new double[TURNS];
+        long heapStart;
+        long heapEnd;
+        String run = Long.toString(System.currentTimeMillis()); // Unique questions skip the response cache
+
+        try (ActivityScenario<AIChatActivity> scenario = ActivityScenario.launch(intent)) {
+            // Let the stored history page in before the first answer is appended
+            Thread.sleep(1000);
+            // Warm-up turn: first request pays for connection setup and class loading
+            ask(scenario, "Warm-up " + run);
+            heapStart = usedHeapAfterGc();
+
+            for (int turn = 0; turn < TURNS; turn++) {
+                Turn result = ask(scenario, "Question " + turn + " of run " + run + ": what should I cook?");
+                assertTrue("answer " + turn + " incomplete", result.text.endsWith(server.expectedAnswer()));
+                ttft[turn] = result.firstTextMs;
+                charsPerSecond[turn] = result.renderedChars * 1000.0 / Math.max(1, result.doneMs - result.firstTextMs);
+            }
+            heapEnd = usedHeapAfterGc();
+        }
+
+        long[] sortedTtft = ttft.clone();
+        Arrays.sort(sortedTtft);
+        double[] sortedRate = charsPerSecond.clone();
+        Arrays.sort(sortedRate);
+        long growthPerTurn = (heapEnd - heapStart) / TURNS;
+        Log.i(TAG, String.format(Locale.US,
+                "%d turns: TTFT p50 %d ms / p90 %d ms (server %d ms), render %.0f chars/s p50 / %.0f min, "
+                        + "heap %d KB -> %d KB (%d bytes/turn)",
+                TURNS, sortedTtft[TURNS / 2], sortedTtft[TURNS * 9 / 10], SERVER_TTFT_MS,
+                sortedRate[TURNS / 2], sortedRate[0], heapStart / 1024, heapEnd / 1024, growthPerTurn));
+
+        assertEquals(TURNS + 1, server.getRequestCount());
+        assertTrue("client overhead on TTFT too high", sortedTtft[TURNS / 2] < SERVER_TTFT_MS + 1000);
+        // Each turn keeps two short messages; anything near a full transcript per turn is a leak
+        assertTrue("heap grows " + growthPerTurn + " bytes/turn", growthPerTurn < 256 * 1024);
+    }
+
+    private Turn ask(ActivityScenario<AIChatActivity> scenario, String question) throws InterruptedException {
+        Turn turn = new Turn();
+        int[] labelLength = new int[1];
+        long[] start = new long[1];
+        scenario.onActivity(activity -> {
+            EditText input = activity.findViewById(R.id.question_input);
+            input.setText(question);
+            start[0] = SystemClock.elapsedRealtime();
+            activity.findViewById(R.id.send_button).performClick();
+            labelLength[0] = lastMessage(activity).length(); // Empty "Chef:" message
+        });
+
+        boolean[] done = new boolean[1];
+        int[] length = new int[1];
+        String[] text = new String[1];
+        while (true) {
+            scenario.onActivity(activity -> {
+                long now = SystemClock.elapsedRealtime();
+                CharSequence last = lastMessage(activity);
+                length[0] = last.length();
+                if (turn.firstTextMs < 0 && length[0] > labelLength[0]) {
+                    turn.firstTextMs = now - start[0];
+                }
+                Button send = activity.findViewById(R.id.send_button);
+                if (send.isEnabled()) {
+                    done[0] = true;
+                    turn.doneMs = now - start[0];
+                    text[0] = last.toString();
+                }
+            });
+            if (done[0]) {
+                break;
+            }
+            if (SystemClock.elapsedRealtime() - start[0] > TURN_TIMEOUT_MS) {
+                throw new AssertionError("no answer to \"" + question + "\" within " + TURN_TIMEOUT_MS + " ms");
+            }
+            Thread.sleep(2);
+        }
+        turn.text = text[0];
+        turn.renderedChars = length[0] - labelLength[0];
+        return turn;
+    }
+
+    private static CharSequence lastMessage(AIChatActivity activity) {
+        RecyclerView recyclerView = activity.findViewById(R.id.chat_recycler_view);
+        List<ChatMessage> messages = ((ChatAdapter) recyclerView.getAdapter()).getMessages();
+        return messages.get(messages.size() - 1).getText();
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            System.runFinalization();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class Turn {
+        long firstTextMs = -1;
+        long doneMs;
+        int renderedChars;
+        String text;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ensa_meal.chat;
+
+import android.content.Context;
+import android.text.Html;
+import android.util.Log;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Per-token render cost of a streamed answer as the conversation grows:
+ * the old full-transcript Html.fromHtml path vs. appending to the last ChatAdapter row.
+ *
+ * Results are logged under the "ChatRenderBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ChatRenderBenchmarkTest {
+
+    private static final String TAG = "ChatRenderBenchmark";
+    private static final int[] PRIOR_MESSAGES = {10, 100, 400};
+    private static final int TOKENS = 200;
+    private static final String MESSAGE = "Make Garlic Shrimp Pasta. 15 minutes, tastes restaurant-quality. "
+            + "Ingredients: shrimp, garlic, butter, lemon, parsley, spaghetti. Want the recipe?";
+    private static final int WIDTH = View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY);
+    private static final int HEIGHT = View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY);
+
+    @Test
+    public void incrementalAppendStaysFlatAsConversationGrows() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        double[] legacy = new double[PRIOR_MESSAGES.length];
+        double[] incremental = new double[PRIOR_MESSAGES.length];
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            for (int i = 0; i < PRIOR_MESSAGES.length; i++) {
+                legacy[i] = legacyPerTokenMicros(context, PRIOR_MESSAGES[i]);
+                incremental[i] = incrementalPerTokenMicros(context, PRIOR_MESSAGES[i]);
+                Log.i(TAG, PRIOR_MESSAGES[i] + " prior messages: legacy " + Math.round(legacy[i])
+                        + " us/token, incremental " + Math.round(incremental[i]) + " us/token");
+            }
+        });
+
+        int largest = PRIOR_MESSAGES.length - 1;
+        assertTrue("incremental path should beat full re-render on a long conversation",
+                incremental[largest] < legacy[largest]);
+    }
+
+    private double legacyPerTokenMicros(Context context, int priorMessages) {
+        TextView textView = new TextView(context);
+        StringBuilder history = new StringBuilder();
+        for (int i = 0; i < priorMessages; i++) {
+            history.append("<b>Chef:</b><br>").append(MESSAGE).append("<br><br>");
+        }
+        long start = System.nanoTime();
+        for (int t = 0; t < TOKENS; t++) {
+            history.append("token ");
+            textView.setText(Html.fromHtml(history.toString(), Html.FROM_HTML_MODE_COMPACT));
+            textView.measure(WIDTH, View.MeasureSpec.UNSPECIFIED);
+        }
+        return (System.nanoTime() - start) / 1000.0 / TOKENS;
+    }
+
+    private double incrementalPerTokenMicros(Context context, int priorMessages) {
+        RecyclerView recyclerView = new RecyclerView(context);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(context);
+        layoutManager.setStackFromEnd(true);
+        recyclerView.setLayoutManager(layoutManager);
+        ChatAdapter adapter = new ChatAdapter(context);
+        recyclerView.setAdapter(adapter);
+        for (int i = 0; i < priorMessages; i++) {
+            adapter.addMessage(new ChatMessage(ChatMessage.Role.ASSISTANT, MESSAGE));
+        }
+        adapter.addMessage(new ChatMessage(ChatMessage.Role.ASSISTANT, ""));
+        layout(recyclerView);
+
+        long start = System.nanoTime();
+        for (int t = 0; t < TOKENS; t++) {
+            adapter.appendToLast("token ");
+            layout(recyclerView);
+        }
+        return (System.nanoTime() - start) / 1000.0 / TOKENS;
+    }
+
+    private static void layout(RecyclerView recyclerView) {
+        recyclerView.measure(WIDTH, HEIGHT);
+        recyclerView.layout(0, 0, recyclerView.getMeasuredWidth(), recyclerView.getMeasuredHeight());
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ensa_meal.chat;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.widget.EditText;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.ensa_meal.AIChatActivity;
+import com.example.ensa_meal.R;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Recreating AIChatActivity (as a rotation does) while an answer streams: the
+ * answer keeps streaming into the same transcript and nothing is requested twice.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ChatRotationTest {
+
+    private static final long TIMEOUT_MS = 15_000;
+
+    private FakeGroqServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        // About two seconds of streaming, plenty of time to rotate in the middle
+        server = new FakeGroqServer()
+                .setTimeToFirstTokenMs(200)
+                .setTokensPerSecond(40)
+                .setTokensPerAnswer(80)
+                .start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void streamSurvivesRecreation() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Intent intent = new Intent(context, AIChatActivity.class)
+                .putExtra(AIChatActivity.EXTRA_BASE_URL, server.baseUrl());
+
+        try (ActivityScenario<AIChatActivity> scenario = ActivityScenario.launch(intent)) {
+            Thread.sleep(1000); // Stored history pages in first
+            scenario.onActivity(activity -> {
+                EditText input = activity.findViewById(R.id.question_input);
+                input.setText("Rotation check " + System.currentTimeMillis()); // Not in the response cache
+                activity.findViewById(R.id.send_button).performClick();
+            });
+            int[] before = new int[1];
+            waitFor(scenario, activity -> {
+                before[0] = messages(activity).size();
+                return lastText(activity).length() > "Chef:\n".length(); // Streaming has started
+            });
+
+            scenario.recreate();
+
+            waitFor(scenario, activity -> activity.findViewById(R.id.send_button).isEnabled());
+            scenario.onActivity(activity -> {
+                assertEquals(before[0], messages(activity).size());
+                assertTrue(lastText(activity).endsWith(server.expectedAnswer()));
+            });
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private interface Condition {
+        boolean holds(AIChatActivity activity);
+    }
+
+    private static void waitFor(ActivityScenario<AIChatActivity> scenario, Condition condition)
+            throws InterruptedException {
+        long start = SystemClock.elapsedRealtime();
+        boolean[] holds = new boolean[1];
+        while (true) {
+            scenario.onActivity(activity -> holds[0] = condition.holds(activity));
+            if (holds[0]) {
+                return;
+            }
+            if (SystemClock.elapsedRealtime() - start > TIMEOUT_MS) {
+                throw new AssertionError("timed out");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<ChatMessage> messages(AIChatActivity activity) {
+        RecyclerView recyclerView = activity.findViewById(R.id.chat_recycler_view);
+        return ((ChatAdapter) recyclerView.getAdapter()).getMessages();
+    }
+
+    private static String lastText(AIChatActivity activity) {
+        List<ChatMessage> messages = messages(activity);
+        return messages.get(messages.size() - 1).getText().toString();
+    }
+}
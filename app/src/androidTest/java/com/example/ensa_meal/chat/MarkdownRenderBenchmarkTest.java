@@ -0,0 +1,112 @@
+package com.example.ensa_meal.chat;
+
+import android.content.Context;
+import android.text.Editable;
+import android.text.Html;
+import android.text.Spanned;
+import android.text.style.BulletSpan;
+import android.text.style.LeadingMarginSpan;
+import android.util.Log;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Streaming a Markdown answer: the old path (newlines to &lt;br&gt;, Html.fromHtml of
+ * the whole answer on every delta) vs. ChatMessage's incremental Markdown renderer.
+ *
+ * Also checks the incremental path keeps the list structure the old path lost.
+ * Results are logged under the "MarkdownRenderBenchmark" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MarkdownRenderBenchmarkTest {
+
+    private static final String TAG = "MarkdownRenderBenchmark";
+    private static final int ITEMS = 12;
+    private static final int CHUNK = 4; // Groq deltas are a few characters each
+    private static final int WIDTH = View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY);
+
+    @Test
+    public void incrementalMarkdownBeatsHtmlReparse() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        String answer = answer();
+        double[] legacy = new double[1];
+        double[] incremental = new double[1];
+        ChatMessage[] rendered = new ChatMessage[1];
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            // Warm up both paths once
+            legacyPerChunkMicros(context, answer);
+            incrementalPerChunkMicros(context, answer, new ChatMessage[1]);
+
+            legacy[0] = legacyPerChunkMicros(context, answer);
+            incremental[0] = incrementalPerChunkMicros(context, answer, rendered);
+        });
+
+        Log.i(TAG, answer.length() + " chars in " + CHUNK + "-char deltas: Html.fromHtml "
+                + Math.round(legacy[0]) + " us/delta, incremental Markdown " + Math.round(incremental[0]) + " us/delta");
+
+        Spanned text = rendered[0].getText();
+        assertEquals(ITEMS, text.getSpans(0, text.length(), BulletSpan.class).length);
+        // Numbered steps keep a hanging indent
+        assertEquals(ITEMS, text.getSpans(0, text.length(), LeadingMarginSpan.Standard.class).length);
+        assertTrue("incremental rendering should beat reparsing the whole answer", incremental[0] < legacy[0]);
+    }
+
+    private static String answer() {
+        StringBuilder answer = new StringBuilder("## Chicken Tajine\n\nMake this, it's **easy** and *comforting*.\n\nIngredients:\n");
+        for (int i = 1; i <= ITEMS; i++) {
+            answer.append("- ").append(i * 50).append(" g of ingredient number ").append(i).append('\n');
+        }
+        answer.append("\nSteps:\n");
+        for (int i = 1; i <= ITEMS; i++) {
+            answer.append(i).append(". Do step ").append(i).append(" for about **").append(i).append(" minutes**\n");
+        }
+        return answer.append("\nTotal time: 1 hour").toString();
+    }
+
+    private double legacyPerChunkMicros(Context context, String answer) {
+        TextView textView = new TextView(context);
+        StringBuilder streamed = new StringBuilder();
+        int chunks = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < answer.length(); i += CHUNK) {
+            streamed.append(answer, i, Math.min(answer.length(), i + CHUNK));
+            String html = "<b>Chef:</b><br>" + streamed.toString().replace("\n", "<br>");
+            textView.setText(Html.fromHtml(html, Html.FROM_HTML_MODE_COMPACT));
+            textView.measure(WIDTH, View.MeasureSpec.UNSPECIFIED);
+            chunks++;
+        }
+        return (System.nanoTime() - start) / 1000.0 / chunks;
+    }
+
+    private double incrementalPerChunkMicros(Context context, String answer, ChatMessage[] out) {
+        TextView textView = new TextView(context);
+        ChatMessage message = new ChatMessage(ChatMessage.Role.ASSISTANT, "");
+        textView.setEditableFactory(new Editable.Factory() {
+            @Override
+            public Editable newEditable(CharSequence source) {
+                return (Editable) source;
+            }
+        });
+        textView.setText(message.getText(), TextView.BufferType.EDITABLE);
+        int chunks = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < answer.length(); i += CHUNK) {
+            message.append(answer.substring(i, Math.min(answer.length(), i + CHUNK)));
+            textView.measure(WIDTH, View.MeasureSpec.UNSPECIFIED);
+            chunks++;
+        }
+        message.finish();
+        out[0] = message;
+        return (System.nanoTime() - start) / 1000.0 / chunks;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.ensa_meal.chat;
+
+import android.text.SpannableStringBuilder;
+import android.text.style.BulletSpan;
+import android.text.style.StyleSpan;
+import android.text.style.TypefaceSpan;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * MarkdownSpanRenderer: spans of a construct that is still open cover the text
+ * streamed into it so far, not only once the construct closes.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MarkdownSpanRendererTest {
+
+    @Test
+    public void openSpansGrowWithTheStream() {
+        SpannableStringBuilder text = new SpannableStringBuilder();
+        MarkdownSpanRenderer renderer = new MarkdownSpanRenderer(text);
+
+        renderer.append("- **Gar");
+        assertEquals("Gar", text.toString());
+        assertRange(text, text.getSpans(0, text.length(), BulletSpan.class)[0], 0, 3);
+        assertRange(text, text.getSpans(0, text.length(), StyleSpan.class)[0], 0, 3);
+
+        renderer.append("lic** and `oi");
+        assertEquals("Garlic and oi", text.toString());
+        assertRange(text, text.getSpans(0, text.length(), BulletSpan.class)[0], 0, 13);
+        assertRange(text, text.getSpans(0, text.length(), StyleSpan.class)[0], 0, 6); // Closed
+        assertRange(text, text.getSpans(0, text.length(), TypefaceSpan.class)[0], 11, 13);
+
+        renderer.append("l`\n");
+        renderer.append("Next");
+        assertEquals("Garlic and oil\nNext", text.toString());
+        // Pinned at the line end: the next line's text stays outside
+        assertRange(text, text.getSpans(0, text.length(), BulletSpan.class)[0], 0, 15);
+        assertRange(text, text.getSpans(0, text.length(), TypefaceSpan.class)[0], 11, 14);
+    }
+
+    @Test
+    public void headingStylesItsTextWhileStreaming() {
+        SpannableStringBuilder text = new SpannableStringBuilder();
+        MarkdownSpanRenderer renderer = new MarkdownSpanRenderer(text);
+
+        renderer.append("## Chicken Ta");
+        assertEquals("Chicken Ta", text.toString());
+        StyleSpan[] bold = text.getSpans(0, text.length(), StyleSpan.class);
+        assertEquals(1, bold.length);
+        assertRange(text, bold[0], 0, 10);
+
+        renderer.finish();
+        assertRange(text, text.getSpans(0, text.length(), StyleSpan.class)[0], 0, 10);
+    }
+
+    private static void assertRange(SpannableStringBuilder text, Object span, int start, int end) {
+        assertEquals("start of " + span, start, text.getSpanStart(span));
+        assertEquals("end of " + span, end, text.getSpanEnd(span));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ensa_meal.metrics;
+
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Button;
+import android.widget.HorizontalScrollView;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+/**
+ * MetricsActivity - Debug screen showing the metrics registry, refreshed every second
+ *
+ * Debug builds only. Opened with a long press on the Favorites button, or
+ * {@code adb shell am start -n com.example.ensa_meal/.metrics.MetricsActivity}.
+ */
+public class MetricsActivity extends AppCompatActivity {
+
+    private static final long REFRESH_MS = 1000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable refresh = new Runnable() {
+        @Override
+        public void run() {
+            table.setText(Metrics.dumpToString());
+            handler.postDelayed(this, REFRESH_MS);
+        }
+    };
+    private TextView table;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setTitle("Metrics");
+
+        int padding = Math.round(12 * getResources().getDisplayMetrics().density);
+        LinearLayout root = new LinearLayout(this);
+        root.setOrientation(LinearLayout.VERTICAL);
+        root.setPadding(padding, padding, padding, padding);
+
+        Button reset = new Button(this);
+        reset.setText("Reset");
+        reset.setOnClickListener(v -> {
+            Metrics.reset();
+            table.setText(Metrics.dumpToString());
+        });
+        root.addView(reset);
+
+        // Wide monospace table: scrolls both ways
+        table = new TextView(this);
+        table.setTypeface(Typeface.MONOSPACE);
+        table.setTextSize(11);
+        HorizontalScrollView horizontal = new HorizontalScrollView(this);
+        horizontal.addView(table);
+        ScrollView vertical = new ScrollView(this);
+        vertical.addView(horizontal);
+        root.addView(vertical);
+
+        setContentView(root);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh.run();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        handler.removeCallbacks(refresh);
+    }
+}
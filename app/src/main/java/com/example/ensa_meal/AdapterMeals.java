@@ -14,6 +14,9 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.example.ensa_meal.metrics.ImageLoadMetrics;
+import com.example.ensa_meal.metrics.LatencyHistogram;
+import com.example.ensa_meal.metrics.Metrics;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -29,10 +32,13 @@ import java.util.Set;
  * - Load images using Glide library
  */
 public class AdapterMeals extends RecyclerView.Adapter<AdapterMeals.Holder> {
+    private static final LatencyHistogram BIND_TIME = Metrics.histogram("bind.meals");
+
     private final ArrayList<Plat> plats;
     private final Context context;
     private final OnItemClickListener clickListener;
     private Set<String> favoriteMealIds;
+    private RowPreInflater rowPreInflater;
 
     /**
      * Interface for handling click events
@@ -56,23 +62,38 @@ public class AdapterMeals extends RecyclerView.Adapter<AdapterMeals.Holder> {
         this.favoriteMealIds = favoriteMealIds;
     }
 
+    /**
+     * Use rows pre-inflated off the main thread instead of inflating in onCreateViewHolder
+     */
+    public void setRowPreInflater(RowPreInflater rowPreInflater) {
+        this.rowPreInflater = rowPreInflater;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        // Layout id as view type keeps rows distinct inside the SharedRowPool
+        return R.layout.model_plat;
+    }
+
     @NonNull
     @Override
     public AdapterMeals.Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-
-        LayoutInflater inflater=LayoutInflater.from(context);
-        View view=inflater.inflate(R.layout.model_plat,parent,false);
-
-
+        View view;
+        if (rowPreInflater != null) {
+            view = rowPreInflater.obtain(parent);
+        } else {
+            view = LayoutInflater.from(RowPreInflater.rowContext(context)).inflate(R.layout.model_plat, parent, false);
+        }
         return new Holder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull AdapterMeals.Holder holder, int position) {
+     long bindStart = System.nanoTime();
      Plat p=plats.get(position);
      holder.tId.setText(p.getId());
      holder.tName.setText(p.getName());
-     Glide.with(context).load(p.getImageURL()).into(holder.image);
+     Glide.with(context).load(p.getImageURL()).listener(ImageLoadMetrics.start()).into(holder.image);
 
         // Set favorite icon state
         if (favoriteMealIds.contains(p.getId())) {
@@ -100,6 +121,16 @@ public class AdapterMeals extends RecyclerView.Adapter<AdapterMeals.Holder> {
                 }
             }
         });
+        BIND_TIME.recordNanos(System.nanoTime() - bindStart);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull AdapterMeals.Holder holder) {
+        // Pooled rows are shared between screens, don't let them keep this screen alive
+        holder.itemView.setOnClickListener(null);
+        holder.favoriteIcon.setOnClickListener(null);
+        // Runs from onDestroy too (setAdapter(null)), when Glide refuses the destroyed Activity
+        Glide.with(context.getApplicationContext()).clear(holder.image);
     }
 
     @Override
@@ -116,7 +147,8 @@ public class AdapterMeals extends RecyclerView.Adapter<AdapterMeals.Holder> {
         notifyDataSetChanged();
     }
 
-    public class Holder extends RecyclerView.ViewHolder {
+    // Static: pooled holders must not keep the adapter, and its Activity, alive
+    public static class Holder extends RecyclerView.ViewHolder {
         ImageView image;
         TextView tId,tName;
         ImageView favoriteIcon; // Changed from ImageButton to ImageView
@@ -0,0 +1,45 @@
+package com.example.ensa_meal;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * AppExecutors - Shared executors for work that must stay off the main thread
+ *
+ * - diskIO: single thread for Room and file access, so writes stay ordered
+ * - mainThread: posts results back to the UI
+ */
+public final class AppExecutors {
+
+    private static final ExecutorService DISK_IO = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ensa-disk-io");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private static final Executor MAIN_THREAD = new Executor() {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            handler.post(command);
+        }
+    };
+
+    private AppExecutors() {
+    }
+
+    public static ExecutorService diskIO() {
+        return DISK_IO;
+    }
+
+    public static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+}
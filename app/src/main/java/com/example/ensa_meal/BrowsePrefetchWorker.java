@@ -0,0 +1,128 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.JsonObjectRequest;
+import com.android.volley.toolbox.RequestFuture;
+import com.android.volley.toolbox.Volley;
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.BrowseListEntity;
+import com.example.ensa_meal.metrics.Metrics;
+import com.example.ensa_meal.metrics.Tracing;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BrowsePrefetchWorker - Keeps the most likely browse lists on disk
+ *
+ * Twice a day, on an unmetered network and when the battery is not low:
+ * - the category directory, if it is stale
+ * - the meals of the top {@link #TOP_CATEGORIES} categories (the categories of
+ *   the user's favorites first), those that are stale
+ * Lists are fetched one at a time and stored like BrowseRepository stores them,
+ * so opening one of these categories never waits for the network.
+ */
+public class BrowsePrefetchWorker extends Worker {
+
+    private static final String TAG = "BrowsePrefetch";
+    private static final String WORK_NAME = "browse-prefetch";
+    static final int TOP_CATEGORIES = 4;
+    private static final long FETCH_TIMEOUT_S = 20;
+
+    public static final String OUTPUT_FETCHED = "fetched";
+    public static final String OUTPUT_FAILED = "failed";
+
+    public BrowsePrefetchWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedule the prefetch; keeps the existing schedule if there is one
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(BrowsePrefetchWorker.class, 12, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        long start = SystemClock.elapsedRealtimeNanos();
+        Tracing.begin("BrowsePrefetchWorker");
+        AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+        RequestQueue queue = Volley.newRequestQueue(getApplicationContext());
+        int fetched = 0;
+        int failed = 0;
+        try {
+            List<BrowseList> lists = new ArrayList<>();
+            lists.add(BrowseList.directory(BrowseList.CATEGORY));
+            for (int i = 0; i < 1 + TOP_CATEGORIES && i < lists.size() && !isStopped(); i++) {
+                BrowseList list = lists.get(i);
+                long now = System.currentTimeMillis();
+                BrowseListEntity row = database.browseDao().getList(list.key());
+                if (list.isStale(row != null ? row.getFetchedAt() : 0, now)) {
+                    try {
+                        RequestFuture<JSONObject> future = RequestFuture.newFuture();
+                        queue.add(new JsonObjectRequest(Request.Method.GET, list.url(), null, future, future));
+                        BrowseRepository.save(database, list, future.get(FETCH_TIMEOUT_S, TimeUnit.SECONDS), now);
+                        fetched++;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (Exception e) {
+                        failed++;
+                        Log.w(TAG, "Fetching " + list.key() + " failed: " + e);
+                    }
+                }
+                if (list.isDirectory()) {
+                    // Ranked once the directory is on disk (from this run or an earlier one)
+                    for (String name : database.browseDao().getTopCategories(TOP_CATEGORIES)) {
+                        lists.add(BrowseList.category(name));
+                    }
+                }
+            }
+        } finally {
+            queue.stop();
+            Tracing.end();
+        }
+
+        long durationNanos = SystemClock.elapsedRealtimeNanos() - start;
+        Metrics.histogram("browse.prefetch").recordNanos(durationNanos);
+        Metrics.counter("browse.prefetched").add(fetched);
+        Log.d(TAG, "Prefetched " + fetched + " lists, " + failed + " failed in "
+                + durationNanos / 1_000_000 + " ms");
+
+        if (failed > 0 && fetched == 0) {
+            return Result.retry();
+        }
+        return Result.success(new Data.Builder()
+                .putInt(OUTPUT_FETCHED, fetched)
+                .putInt(OUTPUT_FAILED, failed)
+                .build());
+    }
+}
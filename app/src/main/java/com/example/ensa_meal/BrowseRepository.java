@@ -0,0 +1,236 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.JsonObjectRequest;
+import com.android.volley.toolbox.Volley;
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.BrowseDao;
+import com.example.ensa_meal.database.BrowseEntryEntity;
+import com.example.ensa_meal.database.BrowseListEntity;
+import com.example.ensa_meal.database.BrowseMeal;
+import com.example.ensa_meal.metrics.Counter;
+import com.example.ensa_meal.metrics.LatencyHistogram;
+import com.example.ensa_meal.metrics.Metrics;
+import com.example.ensa_meal.metrics.Tracing;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BrowseRepository - Meals by category or area, served from disk
+ *
+ * - Directories (categories.php, list.php?a=list) and meal lists (filter.php)
+ *   are stored in browse_lists / browse_entries with the time they were fetched
+ * - A list is read from disk first, joined with the cached meal details; the
+ *   network is only asked when the copy is missing or stale (see BrowseList)
+ * - Concurrent loads of the same list share one request
+ *
+ * Public methods must be called on the main thread; callbacks arrive there too.
+ * BrowsePrefetchWorker keeps the top categories fresh in the background.
+ */
+public final class BrowseRepository {
+
+    private static final String TAG = "BrowseRepository";
+
+    private static final LatencyHistogram NETWORK_TIME = Metrics.histogram("browse.network");
+    private static final LatencyHistogram DISK_TIME = Metrics.histogram("browse.disk");
+    private static final Counter DISK_HITS = Metrics.counter("browse.disk_hits");
+    private static final Counter REQUESTS = Metrics.counter("browse.requests");
+    private static final Counter ERRORS = Metrics.counter("browse.errors");
+
+    private static BrowseRepository instance;
+
+    /**
+     * Receives a list on the main thread: first the disk copy (if there is one), then
+     * the network copy if the disk copy was missing or stale
+     */
+    public interface Callback {
+        void onListing(BrowseList list, Listing listing);
+
+        void onError(BrowseList list, String message);
+    }
+
+    /**
+     * One copy of a list
+     */
+    public static final class Listing {
+        public final List<Plat> meals; // Empty for a directory
+        public final List<String> names; // Directory entries, empty for a meal list
+        public final long fetchedAt; // 0 if the list was never fetched
+        public final boolean stale;
+        public final boolean fromNetwork;
+
+        Listing(List<Plat> meals, List<String> names, long fetchedAt, boolean stale, boolean fromNetwork) {
+            this.meals = Collections.unmodifiableList(meals);
+            this.names = Collections.unmodifiableList(names);
+            this.fetchedAt = fetchedAt;
+            this.stale = stale;
+            this.fromNetwork = fromNetwork;
+        }
+    }
+
+    private final Context appContext;
+    private final Map<String, List<Callback>> inFlight = new HashMap<>();
+    private RequestQueue requestQueue;
+
+    private BrowseRepository(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    public static synchronized BrowseRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new BrowseRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Load a directory or meal list: disk first, then the network if needed
+     */
+    public void browse(BrowseList list, Callback callback) {
+        AppExecutors.diskIO().execute(() -> {
+            long start = System.nanoTime();
+            Listing cached = read(AppDatabase.getInstance(appContext), list, System.currentTimeMillis(), false);
+            DISK_TIME.recordNanos(System.nanoTime() - start);
+            AppExecutors.mainThread().execute(() -> {
+                if (cached.fetchedAt > 0) {
+                    DISK_HITS.increment();
+                    callback.onListing(list, cached);
+                }
+                if (cached.stale) {
+                    fetch(list, callback);
+                }
+            });
+        });
+    }
+
+    private void fetch(BrowseList list, Callback callback) {
+        String key = list.key();
+        List<Callback> waiters = inFlight.get(key);
+        if (waiters != null) {
+            waiters.add(callback);
+            return;
+        }
+        List<Callback> started = new ArrayList<>();
+        started.add(callback);
+        inFlight.put(key, started);
+
+        if (requestQueue == null) {
+            requestQueue = Volley.newRequestQueue(appContext);
+        }
+        long startNanos = System.nanoTime();
+        int traceCookie = Tracing.beginAsync("browse.network");
+        requestQueue.add(new JsonObjectRequest(Request.Method.GET, list.url(), null,
+                response -> {
+                    NETWORK_TIME.recordNanos(System.nanoTime() - startNanos);
+                    Tracing.endAsync("browse.network", traceCookie);
+                    AppExecutors.diskIO().execute(() -> {
+                        AppDatabase database = AppDatabase.getInstance(appContext);
+                        long now = System.currentTimeMillis();
+                        try {
+                            save(database, list, response, now);
+                        } catch (JSONException e) {
+                            Log.e(TAG, "JSON parsing error: " + e.getMessage(), e);
+                            AppExecutors.mainThread().execute(() -> failed(key, list, "Error parsing data"));
+                            return;
+                        }
+                        Listing fresh = read(database, list, now, true);
+                        AppExecutors.mainThread().execute(() -> {
+                            List<Callback> done = inFlight.remove(key);
+                            if (done != null) {
+                                for (Callback waiter : done) {
+                                    waiter.onListing(list, fresh);
+                                }
+                            }
+                        });
+                    });
+                },
+                error -> {
+                    Tracing.endAsync("browse.network", traceCookie);
+                    Log.w(TAG, "Fetching " + key + " failed: " + error);
+                    failed(key, list, error.networkResponse != null
+                            ? "Error code: " + error.networkResponse.statusCode : "Network error occurred");
+                }));
+        REQUESTS.increment();
+    }
+
+    private void failed(String key, BrowseList list, String message) {
+        ERRORS.increment();
+        List<Callback> done = inFlight.remove(key);
+        if (done != null) {
+            for (Callback waiter : done) {
+                waiter.onError(list, message);
+            }
+        }
+    }
+
+    /**
+     * Store a directory or filter.php response, in one transaction. Disk thread.
+     */
+    static void save(AppDatabase database, BrowseList list, JSONObject response, long now) throws JSONException {
+        BrowseDao dao = database.browseDao();
+        String key = list.key();
+        if (list.isDirectory()) {
+            List<String> names = BrowseList.CATEGORY.equals(list.kind)
+                    ? MealParser.parseNames(response, "categories", "strCategory")
+                    : MealParser.parseNames(response, "meals", "strArea");
+            List<BrowseListEntity> rows = new ArrayList<>(names.size() + 1);
+            rows.add(new BrowseListEntity(key, list.kind, "", -1, 0));
+            for (int i = 0; i < names.size(); i++) {
+                BrowseList child = BrowseList.of(list.kind, names.get(i));
+                rows.add(new BrowseListEntity(child.key(), list.kind, child.name, i, 0));
+            }
+            database.runInTransaction(() -> {
+                dao.insertListsIfAbsent(rows);
+                for (BrowseListEntity row : rows) {
+                    dao.setPosition(row.getListKey(), row.getPosition());
+                }
+                dao.setFetchedAt(key, now);
+            });
+            return;
+        }
+        List<Plat> meals = MealParser.parseMeals(response);
+        List<BrowseEntryEntity> entries = new ArrayList<>(meals.size());
+        for (int i = 0; i < meals.size(); i++) {
+            Plat meal = meals.get(i);
+            entries.add(new BrowseEntryEntity(key, meal.getId(), meal.getName(), meal.getImageURL(), i));
+        }
+        database.runInTransaction(() -> {
+            dao.insertListsIfAbsent(Collections.singletonList(
+                    new BrowseListEntity(key, list.kind, list.name, Integer.MAX_VALUE, 0)));
+            dao.deleteEntries(key);
+            dao.insertEntries(entries);
+            dao.setFetchedAt(key, now);
+        });
+    }
+
+    /**
+     * The stored copy of a list. Disk thread.
+     */
+    static Listing read(AppDatabase database, BrowseList list, long now, boolean fromNetwork) {
+        BrowseDao dao = database.browseDao();
+        BrowseListEntity row = dao.getList(list.key());
+        long fetchedAt = row != null ? row.getFetchedAt() : 0;
+        boolean stale = list.isStale(fetchedAt, now);
+        if (list.isDirectory()) {
+            return new Listing(Collections.emptyList(), dao.getNames(list.kind), fetchedAt, stale, fromNetwork);
+        }
+        List<BrowseMeal> rows = dao.getMeals(list.key());
+        List<Plat> meals = new ArrayList<>(rows.size());
+        for (BrowseMeal meal : rows) {
+            meals.add(new Plat(meal.id, meal.name, meal.imageUrl,
+                    meal.instructions != null ? meal.instructions : "No instructions available"));
+        }
+        return new Listing(meals, Collections.emptyList(), fetchedAt, stale, fromNetwork);
+    }
+}
@@ -0,0 +1,444 @@
+package com.example.ensa_meal;
+
+import android.app.Application;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.ensa_meal.chat.ChatHistoryStore;
+import com.example.ensa_meal.chat.ChatMessage;
+import com.example.ensa_meal.chat.ChatRequestManager;
+import com.example.ensa_meal.chat.ChatTranscript;
+import com.example.ensa_meal.chat.ConversationWindow;
+import com.example.ensa_meal.chat.FavoritesPromptCache;
+import com.example.ensa_meal.chat.FramePacedTextSink;
+import com.example.ensa_meal.chat.GroqChatClient;
+import com.example.ensa_meal.chat.ResponseCache;
+import com.example.ensa_meal.database.ChatMessageEntity;
+import com.example.ensa_meal.database.ResponseCacheEntity;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ChatViewModel - The Chef conversation, kept across configuration changes
+ *
+ * Owns the transcript, the history paging state and the request manager, so an
+ * answer that is streaming when the screen rotates keeps streaming into the same
+ * message and the recreated activity simply shows it. Generations are only
+ * cancelled when the screen is finished for good ({@link #onCleared()}).
+ *
+ * Main thread only, except where noted.
+ */
+public class ChatViewModel extends AndroidViewModel {
+
+    private static final int HISTORY_TOKEN_BUDGET = 1500; // Verbatim recent turns per request
+    private static final int SUMMARY_TOKEN_BUDGET = 300;  // Condensed older turns per request
+    private static final int HISTORY_PAGE_SIZE = 20;
+    private static final int LOCAL_PICKS = 3;
+
+    private final ChatTranscript transcript = new ChatTranscript();
+    private final MutableLiveData<Boolean> sending = new MutableLiveData<>(false);
+    private final MutableLiveData<String> toast = new MutableLiveData<>();
+
+    private GroqChatClient chatClient;
+    private ChatRequestManager requestManager;
+    private ChatHistoryStore historyStore;
+    private FavoritesPromptCache promptCache;
+    private ResponseCache responseCache;
+    private RecommendationRepository recommendations;
+    private long oldestLoadedMessageId = Long.MAX_VALUE;
+    private boolean loadingOlderMessages;
+    private boolean allMessagesLoaded;
+    // Bumped by newConversation(); history pages and answers of older conversations are dropped.
+    // Written on the main thread, read on the disk thread too.
+    private volatile int historyGeneration;
+
+    public ChatViewModel(@NonNull Application application) {
+        super(application);
+    }
+
+    /**
+     * Set up the conversation; calls after the first one (recreated activities) do nothing
+     * @param baseUrl Groq, or a local stand-in
+     */
+    public void init(String baseUrl) {
+        if (chatClient != null) {
+            return;
+        }
+        chatClient = new GroqChatClient(ChatRequestManager.httpClient(), baseUrl, BuildConfig.GROQ_API_KEY);
+        requestManager = new ChatRequestManager(chatClient);
+        historyStore = new ChatHistoryStore(getApplication(),
+                new ConversationWindow(HISTORY_TOKEN_BUDGET, SUMMARY_TOKEN_BUDGET));
+        promptCache = FavoritesPromptCache.getInstance(getApplication());
+        responseCache = ResponseCache.getInstance(getApplication());
+        recommendations = RecommendationRepository.getInstance(getApplication());
+
+        addMessage(ChatMessage.Role.NOTICE, "Welcome! Ask me about any meal or recipe.");
+        loadOlderMessages();
+    }
+
+    public ChatTranscript getTranscript() {
+        return transcript;
+    }
+
+    /**
+     * True while an answer is on its way; the send button is disabled meanwhile
+     */
+    public LiveData<Boolean> isSending() {
+        return sending;
+    }
+
+    /**
+     * One-off message for a Toast, cleared by {@link #onMessageShown()}
+     */
+    public LiveData<String> getMessage() {
+        return toast;
+    }
+
+    public void onMessageShown() {
+        toast.setValue(null);
+    }
+
+    /**
+     * Load the next page of stored messages of the current conversation
+     */
+    public void loadOlderMessages() {
+        if (loadingOlderMessages || allMessagesLoaded) {
+            return;
+        }
+        loadingOlderMessages = true;
+        long beforeId = oldestLoadedMessageId;
+        int generation = historyGeneration;
+        AppExecutors.diskIO().execute(() -> {
+            List<ChatMessageEntity> page = historyStore.loadPage(beforeId, HISTORY_PAGE_SIZE);
+            AppExecutors.mainThread().execute(() -> {
+                if (generation != historyGeneration) {
+                    return; // A new conversation was started while this page loaded
+                }
+                loadingOlderMessages = false;
+                if (page.size() < HISTORY_PAGE_SIZE) {
+                    allMessagesLoaded = true;
+                }
+                if (page.isEmpty()) {
+                    return;
+                }
+                oldestLoadedMessageId = page.get(0).getId();
+                List<ChatMessage> messages = new ArrayList<>(page.size());
+                for (ChatMessageEntity entity : page) {
+                    messages.add(new ChatMessage(ChatHistoryStore.ROLE_USER.equals(entity.getRole())
+                            ? ChatMessage.Role.USER : ChatMessage.Role.ASSISTANT, entity.getContent()));
+                }
+                // Under the welcome notice, above anything sent while the page loaded
+                transcript.insert(1, messages);
+            });
+        });
+    }
+
+    /**
+     * One answer being produced: its text so far, and the conversation it belongs to
+     */
+    private final class Answer {
+        final int generation = historyGeneration;
+        final StringBuilder text = new StringBuilder(); // Appended on one thread at a time
+        final FramePacedTextSink sink = new FramePacedTextSink(delta -> {
+            if (!stale()) {
+                transcript.appendToLast(delta);
+            }
+        });
+
+        /**
+         * The conversation was replaced since the question was sent; any thread
+         */
+        boolean stale() {
+            return generation != historyGeneration;
+        }
+    }
+
+    /**
+     * Ask the Chef
+     * @return false if the question could not be sent (no API key)
+     */
+    public boolean send(String question) {
+        // A local stand-in needs no key
+        boolean needsKey = GroqChatClient.DEFAULT_BASE_URL.equals(chatClient.getBaseUrl());
+        if (needsKey && (BuildConfig.GROQ_API_KEY == null || BuildConfig.GROQ_API_KEY.isEmpty())) {
+            toast.setValue("Please add your Groq API key in local.properties");
+            addMessage(ChatMessage.Role.NOTICE, "Error: API key not configured. Add GROQ_API_KEY to local.properties");
+            return false;
+        }
+
+        sending.setValue(true);
+        addMessage(ChatMessage.Role.USER, question);
+
+        // Chef response streams into its own message
+        addMessage(ChatMessage.Role.ASSISTANT, "");
+        // Deltas are batched on the reader thread and reach the UI at most once per frame
+        Answer answer = new Answer();
+        answer.sink.markRequestStart();
+        int epoch = requestManager.epoch(); // newConversation() before the request is sent drops it
+
+        // Every exit below is checked against newConversation(), which bumps the generation
+        // before it switches the stored conversation on this same disk thread
+        AppExecutors.diskIO().execute(() -> {
+            if (answer.stale()) {
+                return;
+            }
+            // Persist the question, then send it with a budgeted window of the history
+            historyStore.append(ChatHistoryStore.ROLE_USER, question);
+            ConversationWindow.Result window = historyStore.buildWindow();
+
+            // "What should I cook?" is ranked on the device: answered right away offline,
+            // handed to the model to build on when online
+            List<MealRecommender.Recommendation> picks = MealRecommender.isRecommendationQuestion(question)
+                    ? recommendations.recommend(question, LOCAL_PICKS) : Collections.emptyList();
+            if (!picks.isEmpty() && !Connectivity.isOnline(getApplication())) {
+                if (!answer.stale()) {
+                    answerLocally(RecommendationRepository.toAnswer(picks), answer);
+                }
+                return;
+            }
+            String picksContext = null;
+            if (!picks.isEmpty()) {
+                picksContext = RecommendationRepository.toPromptContext(picks);
+                String quickPicks = RecommendationRepository.toQuickPicks(picks);
+                AppExecutors.mainThread().execute(() -> {
+                    if (answer.stale()) {
+                        return;
+                    }
+                    // Above the Chef message that is still streaming
+                    transcript.insert(transcript.size() - 1,
+                            Collections.singletonList(new ChatMessage(ChatMessage.Role.NOTICE, quickPicks)));
+                });
+            }
+
+            // Only the favorites relevant to this question; the prompt is reused until favorites change
+            String systemPrompt = promptCache.systemPrompt(question);
+            String cacheKey = ResponseCache.keyFor(question, window,
+                    picksContext == null ? systemPrompt : systemPrompt + "\n" + picksContext);
+            ResponseCacheEntity cached = responseCache.lookup(cacheKey);
+            if (answer.stale()) {
+                return;
+            }
+            if (cached != null) {
+                replayCachedAnswer(cached, answer);
+                return;
+            }
+            try {
+                streamAnswer(epoch, historyStore.conversationId(), buildRequestBody(systemPrompt, picksContext, window),
+                        answer, cacheKey);
+            } catch (JSONException e) {
+                AppExecutors.mainThread().execute(() -> {
+                    if (answer.stale()) {
+                        return;
+                    }
+                    sending.setValue(false);
+                    addMessage(ChatMessage.Role.NOTICE, "Error creating request");
+                });
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Drop the current conversation and start an empty one
+     */
+    public void newConversation() {
+        // First, so answers of the old conversation see it before the stored conversation changes
+        historyGeneration++;
+        // The old conversation's answer is no longer wanted
+        requestManager.cancelAll();
+        sending.setValue(false);
+        AppExecutors.diskIO().execute(() -> historyStore.startNewConversation());
+        transcript.clear();
+        loadingOlderMessages = false;
+        oldestLoadedMessageId = Long.MAX_VALUE;
+        allMessagesLoaded = true; // Nothing stored yet in the new conversation
+        addMessage(ChatMessage.Role.NOTICE, "New conversation. What are we cooking?");
+    }
+
+    /**
+     * Play a stored answer through the same frame-paced path as a live stream. Disk thread.
+     */
+    private void replayCachedAnswer(ResponseCacheEntity cached, Answer answer) {
+        long start = SystemClock.elapsedRealtime();
+        FramePacedTextSink sink = answer.sink;
+        sink.setTimeToFirstTokenMetric("chat.ttft.replay"); // Disk, not network, latency
+        String response = cached.getResponse();
+        answer.text.append(response);
+        int from = 0;
+        while (from < response.length()) {
+            int end = response.indexOf('\n', from);
+            end = end < 0 ? response.length() : end + 1;
+            sink.offer(response.substring(from, end));
+            from = end;
+        }
+        sink.finish(() -> {
+            if (answer.stale()) {
+                return;
+            }
+            transcript.finishLast(); // Render what the Markdown parser held back
+            sending.setValue(false);
+            storeAssistantResponse(response);
+            responseCache.onReplayed(cached, SystemClock.elapsedRealtime() - start);
+        });
+    }
+
+    /**
+     * Answer from the on-device recommender; it is stored like any other answer. Disk thread.
+     */
+    private void answerLocally(String response, Answer answer) {
+        answer.sink.setTimeToFirstTokenMetric("chat.ttft.local");
+        answer.text.append(response);
+        answer.sink.offer(response);
+        answer.sink.finish(() -> {
+            if (answer.stale()) {
+                return;
+            }
+            transcript.finishLast();
+            sending.setValue(false);
+            storeAssistantResponse(response);
+        });
+    }
+
+    /**
+     * Stream the answer through the request manager: one generation per conversation
+     * at a time, rate limits retried, nothing delivered once the screen is gone
+     */
+    private void streamAnswer(int epoch, long conversationId, JSONObject requestBody, Answer answer,
+                              String cacheKey) {
+        long requestStart = SystemClock.elapsedRealtime();
+        FramePacedTextSink sink = answer.sink;
+        requestManager.submit(epoch, conversationId, requestBody.toString(), new ChatRequestManager.Listener() {
+            @Override
+            public void onContent(CharSequence content) {
+                answer.text.append(content);
+
+                // Update UI with streamed content on the next frame
+                sink.offer(content);
+            }
+
+            @Override
+            public void onComplete(boolean done) {
+                long latencyMs = SystemClock.elapsedRealtime() - requestStart;
+
+                // Finalize the response once the last batch is on screen
+                sink.finish(() -> {
+                    if (answer.stale()) {
+                        return;
+                    }
+                    transcript.finishLast();
+                    sending.setValue(false);
+                    String response = answer.text.toString();
+                    storeAssistantResponse(response);
+                    if (done) {
+                        // Only answers that reached [DONE] are worth replaying
+                        AppExecutors.diskIO().execute(() -> responseCache.store(cacheKey, response, latencyMs));
+                    }
+                });
+            }
+
+            @Override
+            public void onRetryScheduled(long delayMs, int attempt) {
+                if (!answer.stale()) {
+                    toast.setValue("Chef is busy, retrying in " + Math.max(1, Math.round(delayMs / 1000.0)) + " s");
+                }
+            }
+
+            @Override
+            public void onHttpError(int code, long retryAfterMs) {
+                sink.finish(() -> {
+                    if (answer.stale()) {
+                        return;
+                    }
+                    transcript.finishLast();
+                    sending.setValue(false);
+                    if (code == 401) {
+                        addMessage(ChatMessage.Role.NOTICE, "Invalid API key. Check local.properties");
+                    } else {
+                        addMessage(ChatMessage.Role.NOTICE, "Something went wrong. Try again.");
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                boolean midStream = answer.text.length() > 0;
+                sink.finish(() -> {
+                    if (answer.stale()) {
+                        return;
+                    }
+                    transcript.finishLast();
+                    sending.setValue(false);
+                    addMessage(ChatMessage.Role.NOTICE, midStream
+                            ? "Error reading response" : "Could not connect. Check your internet.");
+                });
+            }
+        });
+    }
+
+    private JSONObject buildRequestBody(String systemPrompt, String picksContext, ConversationWindow.Result window)
+            throws JSONException {
+        JSONObject requestBody = new JSONObject();
+        requestBody.put("model", "llama-3.3-70b-versatile");
+        requestBody.put("stream", true); // Enable streaming
+
+        JSONArray messages = new JSONArray();
+
+        JSONObject systemMessage = new JSONObject();
+        systemMessage.put("role", "system");
+        systemMessage.put("content", systemPrompt);
+        messages.put(systemMessage);
+
+        if (picksContext != null) {
+            JSONObject picksMessage = new JSONObject();
+            picksMessage.put("role", "system");
+            picksMessage.put("content", picksContext);
+            messages.put(picksMessage);
+        }
+
+        if (window.summary != null && !window.summary.isEmpty()) {
+            JSONObject summaryMessage = new JSONObject();
+            summaryMessage.put("role", "system");
+            summaryMessage.put("content", "Earlier in this conversation:\n" + window.summary);
+            messages.put(summaryMessage);
+        }
+
+        for (ConversationWindow.Turn turn : window.verbatim) {
+            JSONObject message = new JSONObject();
+            message.put("role", turn.role);
+            message.put("content", turn.content);
+            messages.put(message);
+        }
+
+        requestBody.put("messages", messages);
+        requestBody.put("temperature", 0.4);
+        requestBody.put("max_tokens", 600);
+
+        return requestBody;
+    }
+
+    private void addMessage(ChatMessage.Role role, String text) {
+        transcript.add(new ChatMessage(role, text));
+    }
+
+    private void storeAssistantResponse(String response) {
+        AppExecutors.diskIO().execute(() -> historyStore.append(ChatHistoryStore.ROLE_ASSISTANT, response));
+    }
+
+    @Override
+    protected void onCleared() {
+        if (requestManager != null) {
+            requestManager.shutdown();
+        }
+    }
+}
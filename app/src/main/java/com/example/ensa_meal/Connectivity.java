@@ -0,0 +1,27 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+/**
+ * Connectivity - Is there a network that reaches the internet right now?
+ */
+public final class Connectivity {
+
+    private Connectivity() {
+    }
+
+    public static boolean isOnline(Context context) {
+        ConnectivityManager manager = context.getSystemService(ConnectivityManager.class);
+        if (manager == null) {
+            return true; // Unknown: let the request decide
+        }
+        Network network = manager.getActiveNetwork();
+        NetworkCapabilities capabilities = network != null ? manager.getNetworkCapabilities(network) : null;
+        return capabilities != null
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.ensa_meal;
 
 import android.app.AlertDialog;
-import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -18,10 +17,14 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.sqlite.db.SimpleSQLiteQuery;
 
 import com.example.ensa_meal.database.AppDatabase;
 import com.example.ensa_meal.database.FavoriteDao;
 import com.example.ensa_meal.database.FavoriteEntity;
+import com.example.ensa_meal.database.FavoriteFacets;
+import com.example.ensa_meal.metrics.Metrics;
+import com.example.ensa_meal.metrics.Tracing;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,20 +38,33 @@ import java.util.List;
  * - UPDATE: Edit comments on favorites
  * - DELETE: Remove from favorites (swipe or click)
  * - SEARCH: Filter favorites by name
+ * - SORT / FILTER: By date, rating or name; minimum rating and with comments only
+ *
+ * Favorites are read a page at a time (FavoritesQuery), on the disk thread, as the
+ * list scrolls; the filter menu shows how many favorites each filter keeps.
  */
 public class FavoritesActivity extends AppCompatActivity implements FavoritesAdapter.OnFavoriteActionListener {
 
     private static final String TAG = "FavoritesActivity";
+    private static final int PRE_INFLATED_ROWS = 6; // Roughly one screen of item_favorite rows
+    private static final int LOAD_MORE_THRESHOLD = 10; // Rows left below the screen before the next page
 
     private RecyclerView recyclerViewFavorites;
     private FavoritesAdapter favoritesAdapter;
     private ArrayList<FavoriteEntity> favoritesList;
-    private ArrayList<FavoriteEntity> fullList;
     private TextView emptyView;
+    private RowPreInflater rowPreInflater;
 
     private AppDatabase database;
     private FavoriteDao favoriteDao;
 
+    private FavoritesQuery query = new FavoritesQuery.Builder().build();
+    private int generation; // Bumped whenever the query changes; older pages are dropped
+    private boolean loadingPage;
+    private boolean lastPageLoaded;
+    private FavoritesQuery.After nextPageAfter; // Taken from each page as it loads; rows are edited in place later
+    private FavoriteFacets facets;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -74,32 +90,119 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
         // Setup swipe to delete
         setupSwipeToDelete();
 
-        // Load favorites
-        loadFavorites();
+        // Favorites are loaded by onResume, which always follows
     }
 
     private void setupRecyclerView() {
         favoritesList = new ArrayList<>();
-        fullList = new ArrayList<>();
         favoritesAdapter = new FavoritesAdapter(favoritesList, this, this);
+        rowPreInflater = new RowPreInflater(this, R.layout.item_favorite);
+        favoritesAdapter.setRowPreInflater(rowPreInflater);
+        recyclerViewFavorites.setRecycledViewPool(SharedRowPool.get());
+
+        // Rows left in the shared pool by a previous visit are reused first
+        int pooled = SharedRowPool.get().getRecycledViewCount(R.layout.item_favorite);
+        rowPreInflater.preInflate(recyclerViewFavorites, PRE_INFLATED_ROWS - pooled);
+
         recyclerViewFavorites.setAdapter(favoritesAdapter);
         recyclerViewFavorites.setLayoutManager(new LinearLayoutManager(this));
         recyclerViewFavorites.setHasFixedSize(true);
+
+        // Next page once the end of the loaded rows is in sight
+        recyclerViewFavorites.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (dy > 0 && layoutManager != null
+                        && layoutManager.findLastVisibleItemPosition() >= favoritesList.size() - LOAD_MORE_THRESHOLD) {
+                    loadNextPage();
+                }
+            }
+        });
     }
 
     /**
-     * READ - Load all favorites from database
+     * READ - Load the first page of favorites for the current query
      */
     private void loadFavorites() {
-        List<FavoriteEntity> entities = favoriteDao.getAllFavorites();
+        generation++;
+        loadingPage = false;
+        lastPageLoaded = false;
+        nextPageAfter = null;
         favoritesList.clear();
-        fullList.clear();
-        favoritesList.addAll(entities);
-        fullList.addAll(entities);
-
+        rowPreInflater.measureNextLayout(recyclerViewFavorites, "Favorites");
         favoritesAdapter.notifyDataSetChanged();
+        loadNextPage();
+        loadFacets();
+    }
+
+    /**
+     * READ - Load the page after the last loaded row, on the disk thread
+     */
+    private void loadNextPage() {
+        if (loadingPage || lastPageLoaded) {
+            return;
+        }
+        loadingPage = true;
+        int loadGeneration = generation;
+        FavoritesQuery pageQuery = query;
+        FavoritesQuery.After after = nextPageAfter;
+        AppExecutors.diskIO().execute(() -> {
+            Tracing.begin("loadFavoritesPage");
+            List<FavoriteEntity> page = Metrics.histogram("db.favorites.page").time(() -> favoriteDao.getPage(
+                    new SimpleSQLiteQuery(pageQuery.pageSql(after), pageQuery.pageArgs(after))));
+            Tracing.end();
+            AppExecutors.mainThread().execute(() -> {
+                if (loadGeneration != generation || isDestroyed()) {
+                    return; // The query changed while this page was loading
+                }
+                loadingPage = false;
+                lastPageLoaded = page.size() < pageQuery.pageSize;
+                if (!page.isEmpty()) {
+                    nextPageAfter = afterRow(pageQuery, page.get(page.size() - 1));
+                }
+                int start = favoritesList.size();
+                favoritesList.addAll(page);
+                favoritesAdapter.notifyItemRangeInserted(start, page.size());
+                updateEmptyView();
+                Log.d(TAG, "Loaded " + page.size() + " favorites (" + favoritesList.size() + " shown)");
+            });
+        });
+    }
+
+    /**
+     * Where a page ending on this row ends, for the query's sort
+     */
+    static FavoritesQuery.After afterRow(FavoritesQuery query, FavoriteEntity last) {
+        switch (query.sort) {
+            case RATING:
+                return new FavoritesQuery.After(last.getUserRating(), last.getMealId());
+            case NAME:
+                return new FavoritesQuery.After(last.getNameKey(), last.getMealId());
+            default:
+                return new FavoritesQuery.After(last.getAddedTimestamp(), last.getMealId());
+        }
+    }
+
+    /**
+     * READ - Count the favorites each filter keeps, for the filter menu
+     */
+    private void loadFacets() {
+        int loadGeneration = generation;
+        FavoritesQuery facetsQuery = query;
+        AppExecutors.diskIO().execute(() -> {
+            FavoriteFacets counted = Metrics.histogram("db.favorites.facets").time(() -> favoriteDao.getFacets(
+                    new SimpleSQLiteQuery(facetsQuery.facetsSql(), facetsQuery.facetsArgs())));
+            AppExecutors.mainThread().execute(() -> {
+                if (loadGeneration == generation && !isDestroyed()) {
+                    facets = counted;
+                    invalidateOptionsMenu();
+                }
+            });
+        });
+    }
 
-        // Show/hide empty view
+    private void updateEmptyView() {
         if (favoritesList.isEmpty()) {
             emptyView.setVisibility(View.VISIBLE);
             recyclerViewFavorites.setVisibility(View.GONE);
@@ -107,8 +210,11 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
             emptyView.setVisibility(View.GONE);
             recyclerViewFavorites.setVisibility(View.VISIBLE);
         }
+    }
 
-        Log.d(TAG, "Loaded " + favoritesList.size() + " favorites");
+    private void setQuery(FavoritesQuery newQuery) {
+        query = newQuery;
+        loadFavorites();
     }
 
     /**
@@ -138,13 +244,21 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
             float rating = editRating.getRating();
 
             // Update comment and rating in database
-            favoriteDao.updateComment(favorite.getMealId(), comment);
-            favoriteDao.updateRating(favorite.getMealId(), rating);
-
-            // Update local object
-            favorite.setUserComment(comment);
-            favorite.setUserRating(rating);
-            favoritesAdapter.notifyItemChanged(position);
+            String mealId = favorite.getMealId();
+            AppExecutors.diskIO().execute(() -> database.runInTransaction(() -> {
+                favoriteDao.updateComment(mealId, comment);
+                favoriteDao.updateRating(mealId, rating);
+            }));
+
+            // The page reload and facet counts are read after the write (same disk thread)
+            if (movesInQuery(favorite, comment, rating)) {
+                loadFavorites();
+            } else {
+                favorite.setUserComment(comment);
+                favorite.setUserRating(rating);
+                favoritesAdapter.notifyItemChanged(position);
+                loadFacets();
+            }
 
             Toast.makeText(this, "Favorite updated", Toast.LENGTH_SHORT).show();
             Log.d(TAG, "Updated favorite: " + favorite.getMealName());
@@ -154,6 +268,17 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
         builder.show();
     }
 
+    /**
+     * Whether an edit moves the favorite within the current query, or in or out of it:
+     * the loaded pages no longer match the database and are reloaded
+     */
+    private boolean movesInQuery(FavoriteEntity favorite, String comment, float rating) {
+        boolean ratingChanged = rating != favorite.getUserRating();
+        boolean hadComment = favorite.getUserComment() != null && !favorite.getUserComment().isEmpty();
+        return ratingChanged && (query.sort == FavoritesQuery.Sort.RATING || query.minRating > 0)
+                || query.withComment && hadComment != !comment.isEmpty();
+    }
+
     /**
      * Navigate to meal details
      */
@@ -161,15 +286,11 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
     public void onViewDetails(int position) {
         FavoriteEntity favorite = favoritesList.get(position);
 
-        // Create Plat object from favorite
-        Plat plat = new Plat(favorite.getMealId(), favorite.getMealName(),
-                favorite.getMealImageUrl(), favorite.getMealDescription());
+        // Make the favorite resolvable by ID without a database round trip
+        MealCache.getInstance(this).put(new Plat(favorite.getMealId(), favorite.getMealName(),
+                favorite.getMealImageUrl(), favorite.getMealDescription()));
 
-        Intent intent = new Intent(this, Instructions.class);
-        Bundle bundle = new Bundle();
-        bundle.putSerializable("MEAL", plat);
-        intent.putExtras(bundle);
-        startActivity(intent);
+        startActivity(Instructions.newIntent(this, favorite.getMealId()));
     }
 
     /**
@@ -215,12 +336,12 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
         FavoriteEntity favorite = favoritesList.get(position);
 
         // Delete from database
-        favoriteDao.removeFromFavorites(favorite);
+        AppExecutors.diskIO().execute(() -> favoriteDao.removeFromFavorites(favorite));
 
-        // Remove from lists
+        // Remove from list
         favoritesList.remove(position);
-        fullList.remove(favorite);
         favoritesAdapter.notifyItemRemoved(position);
+        loadFacets();
 
         Toast.makeText(this, "Removed: " + favorite.getMealName(), Toast.LENGTH_SHORT).show();
         Log.d(TAG, "Removed favorite: " + favorite.getMealName());
@@ -233,22 +354,13 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
     }
 
     /**
-     * SEARCH - Filter favorites
+     * SEARCH - Filter favorites by name, in the database
      */
-    private void filterFavorites(String query) {
-        if (query == null || query.isEmpty()) {
-            favoritesList.clear();
-            favoritesList.addAll(fullList);
-        } else {
-            favoritesList.clear();
-            for (FavoriteEntity favorite : fullList) {
-                if (favorite.getMealName().toLowerCase().contains(query.toLowerCase())) {
-                    favoritesList.add(favorite);
-                }
-            }
+    private void filterFavorites(String text) {
+        String nameQuery = text != null ? text.trim() : "";
+        if (!nameQuery.equals(query.nameQuery)) {
+            setQuery(query.toBuilder().nameQuery(nameQuery).build());
         }
-        favoritesAdapter.notifyDataSetChanged();
-        Log.d(TAG, "Filtered favorites: " + favoritesList.size() + " results");
     }
 
     @Override
@@ -276,6 +388,26 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
         return true;
     }
 
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        // Checked sort and filters, and how many favorites each filter keeps
+        menu.findItem(query.sort == FavoritesQuery.Sort.RATING ? R.id.action_sort_rating
+                : query.sort == FavoritesQuery.Sort.NAME ? R.id.action_sort_name : R.id.action_sort_date)
+                .setChecked(true);
+        int stars = (int) query.minRating;
+        menu.findItem(stars >= 5 ? R.id.action_min_rating_5 : stars >= 4 ? R.id.action_min_rating_4
+                : stars >= 3 ? R.id.action_min_rating_3 : R.id.action_min_rating_any).setChecked(true);
+        menu.findItem(R.id.action_with_comment).setChecked(query.withComment);
+        if (facets != null) {
+            menu.findItem(R.id.action_min_rating_any).setTitle("Any rating (" + facets.total + ")");
+            menu.findItem(R.id.action_min_rating_3).setTitle("3+ stars (" + facets.ratedAtLeast(3) + ")");
+            menu.findItem(R.id.action_min_rating_4).setTitle("4+ stars (" + facets.ratedAtLeast(4) + ")");
+            menu.findItem(R.id.action_min_rating_5).setTitle("5 stars (" + facets.ratedAtLeast(5) + ")");
+            menu.findItem(R.id.action_with_comment).setTitle("With comments (" + facets.withComment + ")");
+        }
+        return super.onPrepareOptionsMenu(menu);
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         int id = item.getItemId();
@@ -283,13 +415,38 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
         if (id == android.R.id.home) {
             finish();
             return true;
+        } else if (id == R.id.action_sort_date) {
+            setQuery(query.toBuilder().sort(FavoritesQuery.Sort.DATE).build());
+            return true;
+        } else if (id == R.id.action_sort_rating) {
+            setQuery(query.toBuilder().sort(FavoritesQuery.Sort.RATING).build());
+            return true;
+        } else if (id == R.id.action_sort_name) {
+            setQuery(query.toBuilder().sort(FavoritesQuery.Sort.NAME).build());
+            return true;
+        } else if (id == R.id.action_min_rating_any) {
+            setQuery(query.toBuilder().minRating(0).build());
+            return true;
+        } else if (id == R.id.action_min_rating_3) {
+            setQuery(query.toBuilder().minRating(3).build());
+            return true;
+        } else if (id == R.id.action_min_rating_4) {
+            setQuery(query.toBuilder().minRating(4).build());
+            return true;
+        } else if (id == R.id.action_min_rating_5) {
+            setQuery(query.toBuilder().minRating(5).build());
+            return true;
+        } else if (id == R.id.action_with_comment) {
+            setQuery(query.toBuilder().withComment(!query.withComment).build());
+            return true;
         } else if (id == R.id.action_clear_favorites) {
             // Clear all favorites with confirmation
             new AlertDialog.Builder(this)
                     .setTitle("Clear All Favorites")
                     .setMessage("Remove all meals from favorites?")
                     .setPositiveButton("Yes", (dialog, which) -> {
-                        favoriteDao.clearAllFavorites();
+                        // The reload is queued behind the delete on the disk thread
+                        AppExecutors.diskIO().execute(favoriteDao::clearAllFavorites);
                         loadFavorites();
                         Toast.makeText(this, "All favorites cleared", Toast.LENGTH_SHORT).show();
                     })
@@ -307,4 +464,12 @@ public class FavoritesActivity extends AppCompatActivity implements FavoritesAda
         // Reload favorites when returning to this activity
         loadFavorites();
     }
+
+    @Override
+    protected void onDestroy() {
+        // Hand attached rows back to the shared pool for the next visit
+        recyclerViewFavorites.setAdapter(null);
+        rowPreInflater.clear();
+        super.onDestroy();
+    }
 }
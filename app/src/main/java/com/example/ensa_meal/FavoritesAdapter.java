@@ -14,6 +14,9 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.ensa_meal.database.FavoriteEntity;
+import com.example.ensa_meal.metrics.ImageLoadMetrics;
+import com.example.ensa_meal.metrics.LatencyHistogram;
+import com.example.ensa_meal.metrics.Metrics;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -26,9 +29,12 @@ import java.util.Locale;
  */
 public class FavoritesAdapter extends RecyclerView.Adapter<FavoritesAdapter.FavoriteViewHolder> {
 
+    private static final LatencyHistogram BIND_TIME = Metrics.histogram("bind.favorites");
+
     private final ArrayList<FavoriteEntity> favorites;
     private final Context context;
     private final OnFavoriteActionListener listener;
+    private RowPreInflater rowPreInflater;
 
     /**
      * Interface for favorite actions
@@ -46,15 +52,34 @@ public class FavoritesAdapter extends RecyclerView.Adapter<FavoritesAdapter.Favo
         this.listener = listener;
     }
 
+    /**
+     * Use rows pre-inflated off the main thread instead of inflating in onCreateViewHolder
+     */
+    public void setRowPreInflater(RowPreInflater rowPreInflater) {
+        this.rowPreInflater = rowPreInflater;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        // Layout id as view type keeps rows distinct inside the SharedRowPool
+        return R.layout.item_favorite;
+    }
+
     @NonNull
     @Override
     public FavoriteViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(context).inflate(R.layout.item_favorite, parent, false);
+        View view;
+        if (rowPreInflater != null) {
+            view = rowPreInflater.obtain(parent);
+        } else {
+            view = LayoutInflater.from(RowPreInflater.rowContext(context)).inflate(R.layout.item_favorite, parent, false);
+        }
         return new FavoriteViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull FavoriteViewHolder holder, int position) {
+        long bindStart = System.nanoTime();
         FavoriteEntity favorite = favorites.get(position);
 
         // Set meal name
@@ -73,7 +98,7 @@ public class FavoritesAdapter extends RecyclerView.Adapter<FavoritesAdapter.Favo
         holder.ratingBar.setRating(favorite.getUserRating());
 
         // Set timestamp
-        String timeAgo = getTimeAgo(favorite.getAddedTimestamp());
+        String timeAgo = TimeAgo.format(favorite.getAddedTimestamp(), System.currentTimeMillis());
         holder.timestamp.setText(timeAgo);
 
         // Load image
@@ -81,6 +106,7 @@ public class FavoritesAdapter extends RecyclerView.Adapter<FavoritesAdapter.Favo
                 .load(favorite.getMealImageUrl())
                 .placeholder(R.drawable.ic_launcher_foreground)
                 .error(R.drawable.ic_launcher_foreground)
+                .listener(ImageLoadMetrics.start())
                 .into(holder.mealImage);
 
         // Click to view details
@@ -103,34 +129,22 @@ public class FavoritesAdapter extends RecyclerView.Adapter<FavoritesAdapter.Favo
                 listener.onDeleteFavorite(holder.getAdapterPosition());
             }
         });
+        BIND_TIME.recordNanos(System.nanoTime() - bindStart);
     }
 
     @Override
-    public int getItemCount() {
-        return favorites.size();
+    public void onViewRecycled(@NonNull FavoriteViewHolder holder) {
+        // Pooled rows are shared between screens, don't let them keep this screen alive
+        holder.itemView.setOnClickListener(null);
+        holder.btnEditFavorite.setOnClickListener(null);
+        holder.btnDeleteFavorite.setOnClickListener(null);
+        // Runs from onDestroy too (setAdapter(null)), when Glide refuses the destroyed Activity
+        Glide.with(context.getApplicationContext()).clear(holder.mealImage);
     }
 
-    /**
-     * Calculate time ago from timestamp
-     */
-    private String getTimeAgo(long timestamp) {
-        long now = System.currentTimeMillis();
-        long diff = now - timestamp;
-
-        long seconds = diff / 1000;
-        long minutes = seconds / 60;
-        long hours = minutes / 60;
-        long days = hours / 24;
-
-        if (days > 0) {
-            return days + " day" + (days > 1 ? "s" : "") + " ago";
-        } else if (hours > 0) {
-            return hours + " hour" + (hours > 1 ? "s" : "") + " ago";
-        } else if (minutes > 0) {
-            return minutes + " min" + (minutes > 1 ? "s" : "") + " ago";
-        } else {
-            return "Just now";
-        }
+    @Override
+    public int getItemCount() {
+        return favorites.size();
     }
 
     static class FavoriteViewHolder extends RecyclerView.ViewHolder {
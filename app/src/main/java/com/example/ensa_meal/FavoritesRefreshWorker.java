@@ -0,0 +1,189 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.JsonObjectRequest;
+import com.android.volley.toolbox.RequestFuture;
+import com.android.volley.toolbox.Volley;
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.FavoriteEntity;
+import com.example.ensa_meal.metrics.Metrics;
+import com.example.ensa_meal.metrics.Tracing;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FavoritesRefreshWorker - Keeps favorites in sync with TheMealDB
+ *
+ * A favorite copies the meal's name, image URL and instructions when it is
+ * saved; this daily job looks every favorite up again so renamed meals and moved
+ * images get fixed.
+ * - runs only on a network connection and when the battery is not low
+ * - lookups go out {@link #BATCH_SIZE} at a time, the next batch starts when
+ *   the previous one is done
+ * - only favorites whose meal actually changed are written, all in one
+ *   transaction, and only the copied columns (the user's rating and comment are
+ *   never touched)
+ * - every run records refresh.* metrics and returns its counts as output data
+ */
+public class FavoritesRefreshWorker extends Worker {
+
+    private static final String TAG = "FavoritesRefresh";
+    private static final String WORK_NAME = "favorites-refresh";
+    private static final String LOOKUP_URL = "https://www.themealdb.com/api/json/v1/1/lookup.php?i=";
+    static final int BATCH_SIZE = 4;
+    private static final long LOOKUP_TIMEOUT_S = 20;
+
+    public static final String OUTPUT_CHECKED = "checked";
+    public static final String OUTPUT_CHANGED = "changed";
+    public static final String OUTPUT_FAILED = "failed";
+    public static final String OUTPUT_DURATION_MS = "duration_ms";
+
+    public FavoritesRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedule the daily refresh; keeps the existing schedule if there is one
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(FavoritesRefreshWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        long start = SystemClock.elapsedRealtimeNanos();
+        Tracing.begin("FavoritesRefreshWorker");
+        AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+        List<FavoriteEntity> favorites = Metrics.histogram("db.favorites.all")
+                .time(database.favoriteDao()::getAllFavorites);
+
+        RequestQueue queue = Volley.newRequestQueue(getApplicationContext());
+        List<FavoriteEntity> changed = new ArrayList<>();
+        int checked = 0;
+        int failed = 0;
+        try {
+            for (int first = 0; first < favorites.size() && !isStopped() && !Thread.currentThread().isInterrupted();
+                 first += BATCH_SIZE) {
+                List<FavoriteEntity> batch = favorites.subList(first, Math.min(favorites.size(), first + BATCH_SIZE));
+                List<RequestFuture<JSONObject>> futures = new ArrayList<>(batch.size());
+                for (FavoriteEntity favorite : batch) {
+                    RequestFuture<JSONObject> future = RequestFuture.newFuture();
+                    queue.add(new JsonObjectRequest(Request.Method.GET, LOOKUP_URL + favorite.getMealId(),
+                            null, future, future));
+                    futures.add(future);
+                }
+                long batchStart = SystemClock.elapsedRealtimeNanos();
+                for (int i = 0; i < batch.size(); i++) {
+                    FavoriteEntity favorite = batch.get(i);
+                    try {
+                        List<Plat> meals = MealParser.parseMeals(futures.get(i).get(LOOKUP_TIMEOUT_S, TimeUnit.SECONDS));
+                        checked++;
+                        if (!meals.isEmpty() && refresh(favorite, meals.get(0))) {
+                            changed.add(favorite);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt(); // Stopped: write what was checked so far
+                        break;
+                    } catch (Exception e) {
+                        failed++;
+                        Log.w(TAG, "Lookup failed for " + favorite.getMealId() + ": " + e);
+                    }
+                }
+                Metrics.histogram("refresh.batch").recordNanos(SystemClock.elapsedRealtimeNanos() - batchStart);
+            }
+        } finally {
+            queue.stop();
+        }
+
+        if (!changed.isEmpty()) {
+            long writeStart = SystemClock.elapsedRealtimeNanos();
+            database.runInTransaction(() -> {
+                for (FavoriteEntity favorite : changed) {
+                    database.favoriteDao().updateMealInfo(favorite.getMealId(), favorite.getMealName(),
+                            favorite.getMealImageUrl(), favorite.getMealDescription());
+                }
+            });
+            Metrics.histogram("refresh.write").recordNanos(SystemClock.elapsedRealtimeNanos() - writeStart);
+        }
+        Tracing.end();
+
+        long durationNanos = SystemClock.elapsedRealtimeNanos() - start;
+        Metrics.histogram("refresh.run").recordNanos(durationNanos);
+        Metrics.counter("refresh.checked").add(checked);
+        Metrics.counter("refresh.changed").add(changed.size());
+        Metrics.counter("refresh.failed").add(failed);
+        Log.d(TAG, "Checked " + checked + "/" + favorites.size() + " favorites, " + changed.size()
+                + " changed, " + failed + " failed in " + durationNanos / 1_000_000 + " ms");
+
+        if (failed > 0 && checked == 0) {
+            return Result.retry(); // Nothing got through: try again later with backoff
+        }
+        return Result.success(new Data.Builder()
+                .putInt(OUTPUT_CHECKED, checked)
+                .putInt(OUTPUT_CHANGED, changed.size())
+                .putInt(OUTPUT_FAILED, failed)
+                .putLong(OUTPUT_DURATION_MS, durationNanos / 1_000_000)
+                .build());
+    }
+
+    /**
+     * Copy the meal's current name, image and instructions into the favorite
+     * @return Whether anything differed
+     */
+    static boolean refresh(FavoriteEntity favorite, Plat current) {
+        boolean changed = false;
+        if (isSet(current.getName()) && !Objects.equals(favorite.getMealName(), current.getName())) {
+            favorite.setMealName(current.getName());
+            changed = true;
+        }
+        if (isSet(current.getImageURL()) && !Objects.equals(favorite.getMealImageUrl(), current.getImageURL())) {
+            favorite.setMealImageUrl(current.getImageURL());
+            changed = true;
+        }
+        if (isSet(current.getInstructions())
+                && !Objects.equals(favorite.getMealDescription(), current.getInstructions())) {
+            favorite.setMealDescription(current.getInstructions());
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Blank fields and MealParser's placeholders never overwrite saved data
+     */
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty() && !"Unknown".equals(value)
+                && !"No instructions available".equals(value);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.ensa_meal.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FuzzySearchRepository - Typo-tolerant search over local meal and favorite names
+ *
+ * Keeps one {@link FuzzyIndex} in step with {@link MealCatalogRepository}: when
+ * the catalog was rebuilt, only the names that were added, renamed or dropped
+ * since the last search touch the index.
+ *
+ * {@link #search} reads the database through the catalog: call it on
+ * AppExecutors.diskIO().
+ */
+public final class FuzzySearchRepository {
+
+    private static final String TAG = "FuzzySearch";
+
+    private static FuzzySearchRepository instance;
+
+    private final MealCatalogRepository catalogRepository;
+    private final FuzzyIndex index = new FuzzyIndex();
+    private MealCatalog indexedCatalog; // Catalog the index matches
+
+    private FuzzySearchRepository(Context context) {
+        catalogRepository = MealCatalogRepository.getInstance(context);
+        Metrics.gauge("fuzzy.size").setSupplier(this::size);
+    }
+
+    public static synchronized FuzzySearchRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new FuzzySearchRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Local meals whose names are close to the query, best first
+     */
+    public synchronized List<Plat> search(String query, int limit) {
+        MealCatalog catalog = catalogRepository.get();
+        if (catalog != indexedCatalog) {
+            sync(catalog);
+        }
+        List<FuzzyIndex.Match> matches = Metrics.histogram("search.fuzzy.index")
+                .time(() -> index.search(query, limit));
+        List<Plat> meals = new ArrayList<>(matches.size());
+        for (FuzzyIndex.Match match : matches) {
+            int row = catalog.indexOf(match.id);
+            if (row >= 0) {
+                meals.add(catalog.toPlat(row));
+            }
+        }
+        return meals;
+    }
+
+    private synchronized int size() {
+        return index.size();
+    }
+
+    private void sync(MealCatalog catalog) {
+        long start = System.nanoTime();
+        int changed = 0;
+        for (int row = 0; row < catalog.size(); row++) {
+            if (index.put(catalog.id(row), catalog.name(row))) {
+                changed++;
+            }
+        }
+        int removed = index.retain(id -> catalog.indexOf(id) >= 0);
+        indexedCatalog = catalog;
+        long nanos = System.nanoTime() - start;
+        Metrics.histogram("fuzzy.sync").recordNanos(nanos);
+        Log.d(TAG, "Synced " + catalog.size() + " names (" + changed + " changed, " + removed + " removed) in "
+                + nanos / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.MealDetailEntity;
+import com.example.ensa_meal.database.MealIngredientEntity;
+import com.example.ensa_meal.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * IngredientSearchRepository - "chicken + lemon + garlic" answered from local data
+ *
+ * Meal details are saved together with their postings (ingredient word -> meal)
+ * in the meal_ingredients table; {@link #search} loads them into an
+ * {@link IngredientIndex} once and keeps it until the table changes (Room
+ * invalidation observer). No network calls.
+ *
+ * {@link #save} and {@link #search} touch the database: call them on
+ * AppExecutors.diskIO().
+ */
+public final class IngredientSearchRepository {
+
+    private static final String TAG = "IngredientSearch";
+
+    private static IngredientSearchRepository instance;
+
+    private final AppDatabase database;
+    private final MealCatalogRepository catalogRepository;
+    private IngredientIndex index;
+    private volatile int version; // Bumped by the observer
+    private int builtVersion = -1;
+
+    private IngredientSearchRepository(Context context) {
+        database = AppDatabase.getInstance(context);
+        catalogRepository = MealCatalogRepository.getInstance(context);
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("meal_ingredients") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                version++;
+            }
+        });
+    }
+
+    public static synchronized IngredientSearchRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new IngredientSearchRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Cache meal details and re-index their ingredients, in one transaction
+     */
+    public static void save(AppDatabase database, List<MealDetailEntity> details) {
+        List<String> ids = new ArrayList<>(details.size());
+        List<MealIngredientEntity> postings = new ArrayList<>();
+        for (MealDetailEntity detail : details) {
+            ids.add(detail.getId());
+            postings.addAll(MealIngredientEntity.postings(detail.getId(), detail.getIngredients()));
+        }
+        database.runInTransaction(() -> {
+            database.mealDetailDao().insertAll(details);
+            database.ingredientDao().deleteForMeals(ids);
+            database.ingredientDao().insertAll(postings);
+        });
+    }
+
+    /**
+     * Local meals using the query's ingredients, best first
+     * @param terms From {@link IngredientIndex#parseQuery}
+     */
+    public synchronized List<Plat> search(List<List<String>> terms, int limit) {
+        int current = version;
+        if (index == null || builtVersion != current) {
+            long start = System.currentTimeMillis();
+            List<MealIngredientEntity> postings = Metrics.histogram("db.meal_ingredients.all")
+                    .time(database.ingredientDao()::getAll);
+            IngredientIndex.Builder builder = new IngredientIndex.Builder();
+            for (MealIngredientEntity posting : postings) {
+                try {
+                    builder.add(posting.getToken(), Integer.parseInt(posting.getMealId()));
+                } catch (NumberFormatException e) {
+                    // TheMealDB IDs are numeric; anything else cannot be a search result
+                }
+            }
+            index = builder.build();
+            builtVersion = current;
+            Log.d(TAG, "Indexed " + postings.size() + " postings (" + index.size() + " words) in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+
+        MealCatalog catalog = catalogRepository.get();
+        List<IngredientIndex.Match> matches = index.search(terms, limit, mealId -> {
+            int row = catalog.indexOf(mealId);
+            return row >= 0 ? catalog.ingredientCount(row) : Integer.MAX_VALUE;
+        });
+        List<Plat> meals = new ArrayList<>(matches.size());
+        for (IngredientIndex.Match match : matches) {
+            int row = catalog.indexOf(match.mealId);
+            if (row >= 0) {
+                meals.add(catalog.toPlat(row));
+            }
+        }
+        return meals;
+    }
+}
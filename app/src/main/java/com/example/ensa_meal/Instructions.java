@@ -2,8 +2,8 @@ package com.example.ensa_meal;
 
 import android.annotation.SuppressLint;
 import android.app.AlertDialog;
+import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.Menu;
@@ -28,7 +28,7 @@ import com.example.ensa_meal.database.FavoriteEntity;
 
 /**
  * Instructions Activity - Display detailed meal category information
- * Handles both old and new Android API versions for Serializable data retrieval
+ * Receives only a meal ID and resolves the meal through {@link MealCache}
  *
  * Features:
  * - View meal details
@@ -36,8 +36,11 @@ import com.example.ensa_meal.database.FavoriteEntity;
  * - Remove from Favorites if already added
  */
 public class Instructions extends AppCompatActivity {
+    public static final String EXTRA_MEAL_ID = "MEAL_ID";
+
     private ImageView imageView;
-    private TextView IDmeal, Name, Inst;
+    private TextView IDmeal, Name, Inst, CategoryArea, Ingredients;
+    private View categoryAreaCard, ingredientsCard;
     private Plat currentPlat;
 
     // Favorites database
@@ -61,46 +64,109 @@ public class Instructions extends AppCompatActivity {
         IDmeal = findViewById(R.id.IdInst);
         Name = findViewById(R.id.NameInstr);
         Inst = findViewById(R.id.Instr_Inst);
+        CategoryArea = findViewById(R.id.CategoryAreaInst);
+        Ingredients = findViewById(R.id.IngredientsInst);
+        categoryAreaCard = findViewById(R.id.categoryAreaCard);
+        ingredientsCard = findViewById(R.id.ingredientsCard);
 
-        // Retrieve meal data from intent
-        Intent intent = getIntent();
-        Bundle bundle = intent.getExtras();
+        // Only the meal ID travels in the Intent, the meal itself comes from MealCache
+        String mealId = getIntent().getStringExtra(EXTRA_MEAL_ID);
+        if (mealId == null) {
+            Toast.makeText(this, "Error: No data received", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
 
-        if (bundle != null) {
-            // Use API-level appropriate method to retrieve Serializable
-            Plat plat;
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-                // Android 13+ (API 33+) - Use type-safe method
-                plat = bundle.getSerializable("MEAL", Plat.class);
-            } else {
-                // Android 12 and below - Use legacy method
-                plat = (Plat) bundle.getSerializable("MEAL");
+        // Basic meal first (usually from memory), then the full detail (usually prefetched)
+        MealCache.getInstance(this).get(mealId, plat -> {
+            if (isDestroyed()) {
+                return;
             }
-
             // Display meal data with null safety
             if (plat != null) {
-                currentPlat = plat; // Store for favorites
+                showMeal(plat);
+            }
+            MealDetailRepository.getInstance(this).get(mealId, detail -> {
+                if (isDestroyed()) {
+                    return;
+                }
+                if (detail != null) {
+                    showMeal(detail.toPlat());
+                    showDetail(detail);
+                } else if (currentPlat == null) {
+                    Toast.makeText(this, "Error: Meal data not found", Toast.LENGTH_SHORT).show();
+                    finish(); // Close activity if no data
+                }
+            });
+        });
 
-                // Check if already in favorites
-                isFavorite = favoriteDao.isFavorite(plat.getId());
+        // Check if already in favorites
+        AppExecutors.diskIO().execute(() -> {
+            boolean favorite = favoriteDao.isFavorite(mealId);
+            AppExecutors.mainThread().execute(() -> {
+                isFavorite = favorite;
+                invalidateOptionsMenu();
+            });
+        });
+    }
 
-                IDmeal.setText(plat.getId() != null ? plat.getId() : "N/A");
-                Name.setText(plat.getName() != null ? plat.getName() : "Unknown");
-                Inst.setText(plat.getInstructions() != null ? plat.getInstructions() : "No description available");
+    /**
+     * Build the Intent that opens the detail screen for a meal
+     * @param mealId ID of a meal known to {@link MealCache}
+     */
+    public static Intent newIntent(Context context, String mealId) {
+        Intent intent = new Intent(context, Instructions.class);
+        intent.putExtra(EXTRA_MEAL_ID, mealId);
+        return intent;
+    }
 
-                // Load image with Glide
-                Glide.with(this)
-                    .load(plat.getImageURL())
-                    .placeholder(R.drawable.ic_launcher_foreground)
-                    .error(R.drawable.ic_launcher_foreground)
-                    .into(imageView);
-            } else {
-                Toast.makeText(this, "Error: Meal data not found", Toast.LENGTH_SHORT).show();
-                finish(); // Close activity if no data
+    private void showMeal(Plat plat) {
+        currentPlat = plat; // Store for favorites
+
+        IDmeal.setText(plat.getId() != null ? plat.getId() : "N/A");
+        Name.setText(plat.getName() != null ? plat.getName() : "Unknown");
+        Inst.setText(plat.getInstructions() != null ? plat.getInstructions() : "No description available");
+
+        // Load image with Glide
+        Glide.with(this)
+            .load(plat.getImageURL())
+            .placeholder(R.drawable.ic_launcher_foreground)
+            .error(R.drawable.ic_launcher_foreground)
+            .into(imageView);
+    }
+
+    /**
+     * Show the fields only the full detail has: category, area and ingredients
+     */
+    private void showDetail(MealDetail detail) {
+        StringBuilder categoryArea = new StringBuilder();
+        if (!detail.getCategory().isEmpty()) {
+            categoryArea.append(detail.getCategory());
+        }
+        if (!detail.getArea().isEmpty()) {
+            if (categoryArea.length() > 0) {
+                categoryArea.append(" · ");
             }
-        } else {
-            Toast.makeText(this, "Error: No data received", Toast.LENGTH_SHORT).show();
-            finish();
+            categoryArea.append(detail.getArea());
+        }
+        if (categoryArea.length() > 0) {
+            CategoryArea.setText(categoryArea);
+            categoryAreaCard.setVisibility(View.VISIBLE);
+        }
+
+        if (!detail.getIngredients().isEmpty()) {
+            StringBuilder ingredients = new StringBuilder();
+            for (MealDetail.Ingredient ingredient : detail.getIngredients()) {
+                if (ingredients.length() > 0) {
+                    ingredients.append('\n');
+                }
+                ingredients.append("• ").append(ingredient.getName());
+                if (!ingredient.getMeasure().isEmpty()) {
+                    ingredients.append(" — ").append(ingredient.getMeasure());
+                }
+            }
+            Ingredients.setText(ingredients);
+            ingredientsCard.setVisibility(View.VISIBLE);
         }
     }
 
@@ -126,6 +192,9 @@ public class Instructions extends AppCompatActivity {
         int id = item.getItemId();
 
         if (id == R.id.action_add_favorite) {
+            if (currentPlat == null) {
+                return true; // Meal still loading
+            }
             if (isFavorite) {
                 // Remove from favorites (DELETE)
                 removeFromFavorites();
@@ -167,7 +236,7 @@ public class Instructions extends AppCompatActivity {
             );
 
             // Add to favorites database
-            favoriteDao.addToFavorites(favorite);
+            AppExecutors.diskIO().execute(() -> favoriteDao.addToFavorites(favorite));
 
             isFavorite = true;
             invalidateOptionsMenu(); // Refresh menu icon
@@ -187,7 +256,8 @@ public class Instructions extends AppCompatActivity {
                 .setTitle("Remove from Favorites")
                 .setMessage("Remove this meal from your favorites?")
                 .setPositiveButton("Yes", (dialog, which) -> {
-                    favoriteDao.removeFromFavoritesById(currentPlat.getId());
+                    String mealId = currentPlat.getId();
+                    AppExecutors.diskIO().execute(() -> favoriteDao.removeFromFavoritesById(mealId));
                     isFavorite = false;
                     invalidateOptionsMenu(); // Refresh menu icon
                     Toast.makeText(this, "Removed from Favorites", Toast.LENGTH_SHORT).show();
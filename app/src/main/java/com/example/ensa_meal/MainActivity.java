@@ -1,60 +1,55 @@
 package com.example.ensa_meal;
 
+import android.app.AlertDialog;
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ProgressBar;
 import android.widget.SearchView;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.android.volley.Request;
-import com.android.volley.RequestQueue;
-import com.android.volley.Response;
-import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
-import com.example.ensa_meal.database.AppDatabase;
-import com.example.ensa_meal.database.FavoriteDao;
-import com.example.ensa_meal.database.FavoriteEntity;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.example.ensa_meal.metrics.Tracing;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 public class MainActivity extends AppCompatActivity implements AdapterMeals.OnItemClickListener {
 
     private static final String TAG = "MainActivity";
-    private static final String API_URL = "https://www.themealdb.com/api/json/v1/1/search.php?s=";
+    private static final int PRE_INFLATED_ROWS = 4; // Roughly one screen of model_plat rows
 
     private AdapterMeals adapterMeals;
     private RecyclerView recyclerView;
     private ArrayList<Plat> arrayList;
     private ProgressBar progressBar;
-    private RequestQueue requestQueue;
-    private FavoriteDao favoriteDao;
     private SearchView searchView;
     private Button favoritesButton;
     private Button aiButton;
-    private Set<String> favoriteMealIds; // To store IDs of favorite meals
+    private Button browseButton;
+    private TextView browseStatus;
+    private RowPreInflater rowPreInflater;
+    private VisibleRowPrefetcher detailPrefetcher;
+    private StartupTracer startupTracer;
+    private MainViewModel viewModel; // Survives rotation with the results and the request in flight
+    private String shownQuery; // Query of the rows in arrayList
+    private boolean browseRequested; // Browse was tapped before the directories were loaded
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // Initialize database
-        AppDatabase database = AppDatabase.getInstance(this);
-        favoriteDao = database.favoriteDao();
+        startupTracer = new StartupTracer(this);
+        startupTracer.start();
+        viewModel = new ViewModelProvider(this).get(MainViewModel.class);
 
         // Initialize views
         initializeViews();
@@ -65,11 +60,16 @@ public class MainActivity extends AppCompatActivity implements AdapterMeals.OnIt
         // Setup Listeners
         setupListeners();
 
-        // Load initial favorite IDs
-        loadFavoriteMealIds();
+        observeViewModel();
+
+        // Show the last results right away, Room and the network come after.
+        // Favorite IDs are loaded off the main thread from onResume.
+        viewModel.start();
 
-        // Initial search (e.g., for "chicken")
-        searchMeals("chicken");
+        if (savedInstanceState == null) {
+            FavoritesRefreshWorker.schedule(this);
+            BrowsePrefetchWorker.schedule(this);
+        }
     }
 
     /**
@@ -81,6 +81,8 @@ public class MainActivity extends AppCompatActivity implements AdapterMeals.OnIt
         searchView = findViewById(R.id.search_view);
         favoritesButton = findViewById(R.id.favorites_button);
         aiButton = findViewById(R.id.ai_button);
+        browseButton = findViewById(R.id.browse_button);
+        browseStatus = findViewById(R.id.browse_status);
     }
 
     /**
@@ -88,11 +90,30 @@ public class MainActivity extends AppCompatActivity implements AdapterMeals.OnIt
      */
     private void setupRecyclerView() {
         arrayList = new ArrayList<>();
-        favoriteMealIds = new HashSet<>(); // Initialize here, will be populated by loadFavoriteMealIds
-        adapterMeals = new AdapterMeals(arrayList, this, this, favoriteMealIds);
+        adapterMeals = new AdapterMeals(arrayList, this, this, new HashSet<>());
+        rowPreInflater = new RowPreInflater(this, R.layout.model_plat);
+        adapterMeals.setRowPreInflater(rowPreInflater);
+        recyclerView.setRecycledViewPool(SharedRowPool.get());
         recyclerView.setAdapter(adapterMeals);
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.setHasFixedSize(true); // Performance optimization
+
+        // Fetch full details for rows the user lingers on, so opening one is instant
+        detailPrefetcher = new VisibleRowPrefetcher(MealDetailRepository.getInstance(this),
+                position -> position < arrayList.size() ? arrayList.get(position).getId() : null);
+        detailPrefetcher.attach(recyclerView);
+    }
+
+    /**
+     * Inflate the first screen of rows off the main thread while a request is in flight.
+     * Only needed while the list is empty and the shared pool has nothing to offer.
+     */
+    private void preInflateRows() {
+        if (recyclerView.getChildCount() > 0) {
+            return;
+        }
+        int pooled = SharedRowPool.get().getRecycledViewCount(R.layout.model_plat);
+        rowPreInflater.preInflate(recyclerView, PRE_INFLATED_ROWS - pooled);
     }
 
     /**
@@ -103,172 +124,143 @@ public class MainActivity extends AppCompatActivity implements AdapterMeals.OnIt
             Intent intent = new Intent(MainActivity.this, FavoritesActivity.class);
             startActivity(intent);
         });
+        if (BuildConfig.DEBUG) {
+            // Metrics screen, only part of debug builds
+            favoritesButton.setOnLongClickListener(v -> {
+                startActivity(new Intent().setClassName(this, "com.example.ensa_meal.metrics.MetricsActivity"));
+                return true;
+            });
+        }
 
         aiButton.setOnClickListener(v -> {
             Intent intent = new Intent(MainActivity.this, AIChatActivity.class);
             startActivity(intent);
         });
 
+        browseButton.setOnClickListener(v -> {
+            List<BrowseList> lists = viewModel.getBrowseLists().getValue();
+            if (lists != null) {
+                showBrowseDialog(lists);
+            } else {
+                browseRequested = true;
+                viewModel.loadBrowseLists();
+            }
+        });
+
         searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
             @Override
             public boolean onQueryTextSubmit(String query) {
-                searchMeals(query);
+                viewModel.search(query);
                 return false;
             }
 
             @Override
             public boolean onQueryTextChange(String newText) {
-                searchMeals(newText);
+                viewModel.search(newText);
                 return false;
             }
         });
     }
 
     /**
-     * Load favorite meal IDs from the database
+     * Render whatever the ViewModel holds; after a rotation this is the previous
+     * activity's state, with no new request
      */
-    private void loadFavoriteMealIds() {
-        favoriteMealIds.clear();
-        favoriteMealIds.addAll(favoriteDao.getFavoriteMealIds());
-        if (adapterMeals != null) {
-            adapterMeals.setFavoriteMealIds(favoriteMealIds);
-        }
+    private void observeViewModel() {
+        viewModel.getResults().observe(this, this::showResults);
+        viewModel.isLoading().observe(this, this::showLoading);
+        viewModel.getFavoriteIds().observe(this, ids -> adapterMeals.setFavoriteMealIds(ids));
+        viewModel.getBrowseStatus().observe(this, status -> {
+            browseStatus.setText(status);
+            browseStatus.setVisibility(status != null ? View.VISIBLE : View.GONE);
+        });
+        viewModel.getBrowseLists().observe(this, lists -> {
+            if (lists != null && browseRequested) {
+                browseRequested = false;
+                showBrowseDialog(lists);
+            }
+        });
+        viewModel.getMessage().observe(this, message -> {
+            if (message != null) {
+                Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+                viewModel.onMessageShown();
+            }
+        });
+        // The snapshot's query is refreshed from the network once the first frame is on screen
+        viewModel.getPendingRefresh().observe(this, query -> {
+            if (query != null) {
+                startupTracer.runAfterFirstFrame(viewModel::refresh);
+            }
+        });
     }
 
     /**
-     * Search for meals from TheMealDB API using Volley
+     * Show the meals of a search (or of the snapshot)
      */
-    private void searchMeals(String query) {
-        if (query == null || query.isEmpty()) {
-            return;
-        }
-        // Show loading state
-        showLoading(true);
-
-        // Initialize request queue
-        if (requestQueue == null) {
-            requestQueue = Volley.newRequestQueue(this);
-        }
-
-        // Create JSON request
-        JsonObjectRequest request = new JsonObjectRequest(
-            Request.Method.GET,
-            API_URL + query,
-            null,
-            new Response.Listener<JSONObject>() {
-                @Override
-                public void onResponse(JSONObject response) {
-                    // Hide loading state
-                    showLoading(false);
-                    handleApiResponse(response);
-                }
-            },
-            new Response.ErrorListener() {
-                @Override
-                public void onErrorResponse(VolleyError error) {
-                    // Hide loading state
-                    showLoading(false);
-                    handleApiError(error);
-                }
+    private void showResults(MainViewModel.Results results) {
+        Tracing.begin("showResults");
+        SearchResultMerger.Change change = results.change;
+        // A merge into the list on screen only touches its own rows; anything else is a new list
+        boolean merge = change != null && results.query.equals(shownQuery) && arrayList.size() == change.previousSize;
+        shownQuery = results.query;
+        arrayList.clear();
+        arrayList.addAll(results.meals);
+        if (merge) {
+            for (int position : change.changedPositions) {
+                adapterMeals.notifyItemChanged(position);
             }
-        );
-
-        // Add request to queue with timeout configuration
-        request.setTag(TAG);
-        requestQueue.add(request);
+            if (change.insertedCount > 0) {
+                adapterMeals.notifyItemRangeInserted(change.previousSize, change.insertedCount);
+            }
+        } else {
+            if (!"snapshot".equals(results.source)) {
+                rowPreInflater.measureNextLayout(recyclerView, "Search results");
+            }
+            Tracing.begin("notifyDataSetChanged");
+            adapterMeals.notifyDataSetChanged();
+            Tracing.end();
+        }
+        detailPrefetcher.onDataChanged();
+        startupTracer.onFirstContent(recyclerView, results.source);
+        Tracing.end();
     }
 
     /**
-     * Handle successful API response
-     * @param response JSON response from API
+     * Pick a category or area to browse
      */
-    private void handleApiResponse(JSONObject response) {
-        try {
-            arrayList.clear();
-            if (response.has("meals") && !response.isNull("meals")) {
-                JSONArray mealsArray = response.getJSONArray("meals");
-
-                // Parse and create Plat objects
-                for (int i = 0; i < mealsArray.length(); i++) {
-                    JSONObject meal = mealsArray.getJSONObject(i);
-
-                    // Extract data with null safety
-                    String id = meal.optString("idMeal", "0");
-                    String name = meal.optString("strMeal", "Unknown");
-                    String imageUrl = meal.optString("strMealThumb", "");
-                    String description = meal.optString("strInstructions", "No instructions available");
-
-                    // Create Plat and add to list
-                    Plat plat = new Plat(id, name, imageUrl, description);
-                    arrayList.add(plat);
-                }
-                Log.d(TAG, "Successfully loaded " + arrayList.size() + " meals");
-
-            } else {
-                Log.d(TAG, "Response doesn't contain 'meals' array or it is null");
-                Toast.makeText(this, "No meals found", Toast.LENGTH_SHORT).show();
-            }
-            adapterMeals.notifyDataSetChanged();
-        } catch (JSONException e) {
-            Log.e(TAG, "JSON parsing error: " + e.getMessage(), e);
-            Toast.makeText(this, "Error parsing data: " + e.getMessage(), Toast.LENGTH_LONG).show();
+    private void showBrowseDialog(List<BrowseList> lists) {
+        String[] labels = new String[lists.size()];
+        for (int i = 0; i < labels.length; i++) {
+            BrowseList list = lists.get(i);
+            labels[i] = BrowseList.AREA.equals(list.kind) ? list.name + " cuisine" : list.name;
         }
+        new AlertDialog.Builder(this)
+                .setTitle("Browse")
+                .setItems(labels, (dialog, which) -> {
+                    searchView.setQuery("", false); // An empty query is ignored by the ViewModel
+                    viewModel.browse(lists.get(which));
+                })
+                .show();
     }
 
     @Override
     public void onItemClick(int position) {
         Plat plat = arrayList.get(position);
-        Intent intent = new Intent(this, Instructions.class);
-        Bundle bundle = new Bundle();
-        bundle.putSerializable("MEAL", plat);
-        intent.putExtras(bundle);
-        startActivity(intent);
+        startActivity(Instructions.newIntent(this, plat.getId()));
     }
 
     @Override
     public void onToggleFavoriteClick(int position) {
         Plat plat = arrayList.get(position);
-        String mealId = plat.getId();
-
-        if (favoriteDao.isFavorite(mealId)) {
-            // Meal is already a favorite, remove it
-            favoriteDao.removeFromFavoritesById(mealId);
-            favoriteMealIds.remove(mealId);
-            Toast.makeText(this, plat.getName() + " removed from favorites", Toast.LENGTH_SHORT).show();
-        } else {
-            // Meal is not a favorite, add it
-            FavoriteEntity favorite = new FavoriteEntity(
-                    mealId,
-                    plat.getName(),
-                    plat.getImageURL(),
-                    plat.getInstructions(),
-                    "", // Default comment
-                    0   // Default rating
-            );
-            favoriteDao.addToFavorites(favorite);
-            favoriteMealIds.add(mealId);
-            Toast.makeText(this, plat.getName() + " added to favorites", Toast.LENGTH_SHORT).show();
+        if (!viewModel.canToggleFavorites()) {
+            Toast.makeText(this, "Loading favorites, try again in a moment", Toast.LENGTH_SHORT).show();
+            return;
         }
-        adapterMeals.setFavoriteMealIds(favoriteMealIds); // Update adapter with new favorite status
-    }
-
-    /**
-     * Handle API error response
-     * @param error Volley error object
-     */
-    private void handleApiError(VolleyError error) {
-        String errorMessage = "Network error occurred";
-
-        if (error.networkResponse != null) {
-            int statusCode = error.networkResponse.statusCode;
-            errorMessage = "Error code: " + statusCode;
-            Log.e(TAG, "Network error - Status Code: " + statusCode);
-        } else if (error.getMessage() != null) {
-            errorMessage = error.getMessage();
-            Log.e(TAG, "Volley error: " + errorMessage);
+        if (viewModel.toggleFavorite(plat)) {
+            Toast.makeText(this, plat.getName() + " added to favorites", Toast.LENGTH_SHORT).show();
+        } else {
+            Toast.makeText(this, plat.getName() + " removed from favorites", Toast.LENGTH_SHORT).show();
         }
-
-        Toast.makeText(this, errorMessage, Toast.LENGTH_LONG).show();
     }
 
     /**
@@ -276,25 +268,44 @@ public class MainActivity extends AppCompatActivity implements AdapterMeals.OnIt
      * @param show true to show, false to hide
      */
     private void showLoading(boolean show) {
+        if (show) {
+            preInflateRows();
+        }
+        // A thin bar above the list: local and snapshot rows stay usable while the network loads
         if (progressBar != null) {
             progressBar.setVisibility(show ? View.VISIBLE : View.GONE);
-            recyclerView.setVisibility(show ? View.GONE : View.VISIBLE);
         }
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        // Reload favorite IDs and update adapter when returning to this activity
-        loadFavoriteMealIds();
+        // Reload favorite IDs when they were changed elsewhere (e.g. FavoritesActivity)
+        viewModel.refreshFavoriteIds();
+        // Prefetching stopped with the activity, pick the visible rows up again
+        detailPrefetcher.onDataChanged();
     }
 
     @Override
     protected void onStop() {
         super.onStop();
-        // Cancel all pending requests when activity stops
-        if (requestQueue != null) {
-            requestQueue.cancelAll(TAG);
+        // The search itself belongs to the ViewModel and outlives a rotation
+        detailPrefetcher.reset();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level >= TRIM_MEMORY_BACKGROUND) {
+            SharedRowPool.clear();
         }
     }
+
+    @Override
+    protected void onDestroy() {
+        // Hand attached rows back to the shared pool for the next screen
+        recyclerView.setAdapter(null);
+        rowPreInflater.clear();
+        super.onDestroy();
+    }
 }
\ No newline at end of file
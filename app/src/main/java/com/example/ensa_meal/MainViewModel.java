@@ -0,0 +1,486 @@
+package com.example.ensa_meal;
+
+import android.app.Application;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.FavoriteEntity;
+import com.example.ensa_meal.metrics.Metrics;
+import com.example.ensa_meal.metrics.Tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MainViewModel - State of the meal list, kept across configuration changes
+ *
+ * - Results, the loading flag and favorite IDs are LiveData: a recreated activity
+ *   gets the latest values without any network or database work
+ * - A search for the query already shown or in flight is not sent again
+ * - A search shows matching local meals (cache, details, favorites) first; the
+ *   network results are merged in when they arrive, without moving the rows
+ *   already shown. search.ttfr and search.ttc time the first results and the
+ *   complete ones.
+ * - A query listing ingredients ("chicken + lemon", "beef, onion") is answered
+ *   from the local ingredient index only
+ * - When no local name contains the query, close names are shown instead
+ *   (FuzzySearchRepository), so a typo still finds saved meals
+ * - Browsing a category or area shows the copy on disk first and says how old
+ *   it is; BrowseRepository only goes to the network when that copy is stale
+ * - Favorite IDs are only reloaded after the favorites table changed
+ */
+public class MainViewModel extends AndroidViewModel implements MealSearchRepository.Callback {
+
+    private static final String DEFAULT_QUERY = "chicken";
+    private static final int MAX_LOCAL_RESULTS = 30;
+    private static final int MAX_INGREDIENT_RESULTS = 50;
+    private static final int FUZZY_MIN_QUERY_LENGTH = 3;
+
+    /**
+     * Meals shown for a query
+     */
+    public static final class Results {
+        public final String query;
+        public final List<Plat> meals;
+        public final String source; // "snapshot", "local", "network", "ingredients", "browse" or "fuzzy"
+        @Nullable
+        public final SearchResultMerger.Change change; // From the previous Results of the query, null if new
+
+        Results(String query, List<Plat> meals, String source, @Nullable SearchResultMerger.Change change) {
+            this.query = query;
+            this.meals = Collections.unmodifiableList(meals);
+            this.source = source;
+            this.change = change;
+        }
+    }
+
+    /**
+     * One search: its merged results and timings. Main thread only.
+     */
+    private static final class Session {
+        final String query;
+        final SearchResultMerger merger = new SearchResultMerger();
+        final long startNanos = SystemClock.elapsedRealtimeNanos();
+        boolean firstResultShown;
+        boolean fuzzy; // Showing close names because none matched the query
+
+        Session(String query) {
+            this.query = query;
+        }
+    }
+
+    private final MealSearchRepository repository;
+    private final MealCatalogRepository catalogRepository;
+    private final IngredientSearchRepository ingredientRepository;
+    private final BrowseRepository browseRepository;
+    private final FuzzySearchRepository fuzzyRepository;
+    private final MutableLiveData<Results> results = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private final MutableLiveData<String> message = new MutableLiveData<>();
+    private final MutableLiveData<Set<String>> favoriteIds = new MutableLiveData<>(Collections.emptySet());
+    private final MutableLiveData<String> pendingRefresh = new MutableLiveData<>();
+    private final MutableLiveData<String> browseStatus = new MutableLiveData<>();
+    private final MutableLiveData<List<BrowseList>> browseLists = new MutableLiveData<>();
+    private final Map<String, List<String>> browseNames = new HashMap<>(); // Directory kind -> names
+
+    private boolean started;
+    private boolean browseListsLoading;
+    private String currentQuery; // Last query searched, null until the first search
+    private Session session; // Last search, null until the first search
+    private volatile boolean favoritesStale = true;
+    private boolean favoriteIdsLoaded; // favoriteIds holds the database's IDs, not the empty placeholder
+    private InvalidationTracker.Observer favoritesObserver; // Disk thread only
+
+    public MainViewModel(@NonNull Application application) {
+        super(application);
+        repository = MealSearchRepository.getInstance(application);
+        catalogRepository = MealCatalogRepository.getInstance(application);
+        ingredientRepository = IngredientSearchRepository.getInstance(application);
+        browseRepository = BrowseRepository.getInstance(application);
+        fuzzyRepository = FuzzySearchRepository.getInstance(application);
+    }
+
+    public LiveData<Results> getResults() {
+        return results;
+    }
+
+    public LiveData<Boolean> isLoading() {
+        return loading;
+    }
+
+    /**
+     * One-off message for the user, cleared by {@link #onMessageShown()}
+     */
+    public LiveData<String> getMessage() {
+        return message;
+    }
+
+    public LiveData<Set<String>> getFavoriteIds() {
+        return favoriteIds;
+    }
+
+    /**
+     * What is being browsed and how old its copy is, null while searching
+     */
+    public LiveData<String> getBrowseStatus() {
+        return browseStatus;
+    }
+
+    /**
+     * Every category, then every area; null until {@link #loadBrowseLists()} found some
+     */
+    public LiveData<List<BrowseList>> getBrowseLists() {
+        return browseLists;
+    }
+
+    /**
+     * Query to refresh from the network once the first frame is drawn, null when none
+     */
+    public LiveData<String> getPendingRefresh() {
+        return pendingRefresh;
+    }
+
+    /**
+     * Show the persisted last search; only the first call does anything
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        repository.loadSnapshot((query, plats) -> {
+            // A search typed in the meantime wins over the snapshot
+            if (currentQuery != null) {
+                return;
+            }
+            if (plats != null && !plats.isEmpty()) {
+                results.setValue(new Results(query, plats, "snapshot", null));
+            }
+            pendingRefresh.setValue(query != null ? query : DEFAULT_QUERY);
+        });
+    }
+
+    /**
+     * Refresh the snapshot's query, unless the user searched already
+     */
+    public void refresh() {
+        String query = pendingRefresh.getValue();
+        pendingRefresh.setValue(null);
+        if (query != null && currentQuery == null) {
+            search(query);
+        }
+    }
+
+    public void search(String query) {
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+        if (query.equals(currentQuery)) {
+            // Already in flight or on screen (e.g. the SearchView restoring its text)
+            Results shown = results.getValue();
+            if (Boolean.TRUE.equals(loading.getValue()) || (shown != null && query.equals(shown.query))) {
+                return;
+            }
+        }
+        if (currentQuery != null && Boolean.TRUE.equals(loading.getValue())) {
+            // The previous query's results would be thrown away
+            repository.cancel(currentQuery, this);
+        }
+        Tracing.begin("searchMeals");
+        currentQuery = query;
+        Session search = new Session(query);
+        session = search;
+        browseStatus.setValue(null);
+        List<List<String>> terms = IngredientIndex.parseQuery(query);
+        if (terms != null) {
+            loading.setValue(false);
+            searchIngredients(search, terms);
+        } else {
+            loading.setValue(true);
+            repository.search(query, this);
+            searchLocal(search);
+        }
+        Tracing.end();
+    }
+
+    /**
+     * Saved meals using the query's ingredients ("chicken + lemon"); no network call
+     */
+    private void searchIngredients(Session search, List<List<String>> terms) {
+        AppExecutors.diskIO().execute(() -> {
+            List<Plat> meals = Metrics.histogram("search.ingredients")
+                    .time(() -> ingredientRepository.search(terms, MAX_INGREDIENT_RESULTS));
+            AppExecutors.mainThread().execute(() -> {
+                if (search != session) {
+                    return;
+                }
+                show(search, meals, true, "ingredients");
+                Metrics.histogram("search.ttc").recordNanos(SystemClock.elapsedRealtimeNanos() - search.startNanos);
+                if (meals.isEmpty()) {
+                    message.setValue("No saved meals with those ingredients");
+                }
+            });
+        });
+    }
+
+    /**
+     * Local meals matching the query, from the catalog; shown as soon as they are found
+     */
+    private void searchLocal(Session search) {
+        AppExecutors.diskIO().execute(() -> {
+            long start = SystemClock.elapsedRealtimeNanos();
+            MealCatalog catalog = catalogRepository.get();
+            int[] rows = new int[MAX_LOCAL_RESULTS];
+            int count = catalog.searchNames(search.query, rows);
+            List<Plat> local = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                local.add(catalog.toPlat(rows[i]));
+            }
+            Metrics.histogram("search.local").recordNanos(SystemClock.elapsedRealtimeNanos() - start);
+            boolean fuzzy = count == 0 && search.query.trim().length() >= FUZZY_MIN_QUERY_LENGTH;
+            if (fuzzy) {
+                // No name contains the query: maybe a typo ("chiken")
+                long fuzzyStart = SystemClock.elapsedRealtimeNanos();
+                local = fuzzyRepository.search(search.query, MAX_LOCAL_RESULTS);
+                Metrics.histogram("search.fuzzy").recordNanos(SystemClock.elapsedRealtimeNanos() - fuzzyStart);
+            }
+            List<Plat> found = local;
+            AppExecutors.mainThread().execute(() -> {
+                if (search != session || (fuzzy && search.merger.size() > 0)) {
+                    return; // Gone, or the network already found real matches
+                }
+                search.fuzzy = fuzzy && !found.isEmpty();
+                show(search, found, false, fuzzy ? "fuzzy" : "local");
+            });
+        });
+    }
+
+    /**
+     * Show the meals of a category or area: the disk copy, then the network copy if it was stale
+     */
+    public void browse(BrowseList list) {
+        String key = list.key();
+        if (key.equals(currentQuery)) {
+            Results shown = results.getValue();
+            if (Boolean.TRUE.equals(loading.getValue()) || (shown != null && key.equals(shown.query))) {
+                return;
+            }
+        }
+        if (currentQuery != null && Boolean.TRUE.equals(loading.getValue())) {
+            repository.cancel(currentQuery, this);
+        }
+        currentQuery = key;
+        Session search = new Session(key);
+        session = search;
+        loading.setValue(true);
+        browseStatus.setValue(list.name);
+        browseRepository.browse(list, new BrowseRepository.Callback() {
+            @Override
+            public void onListing(BrowseList browsed, BrowseRepository.Listing listing) {
+                if (search != session) {
+                    return;
+                }
+                show(search, listing.meals, true, listing.fromNetwork ? "network" : "browse");
+                String age = TimeAgo.format(listing.fetchedAt, System.currentTimeMillis());
+                browseStatus.setValue(browsed.name + " \u00b7 updated " + age.toLowerCase(Locale.ROOT));
+                if (listing.fromNetwork || !listing.stale) {
+                    loading.setValue(false);
+                    Metrics.histogram("browse.ttc").recordNanos(SystemClock.elapsedRealtimeNanos() - search.startNanos);
+                    if (search.merger.size() == 0) {
+                        message.setValue("No meals found");
+                    }
+                }
+            }
+
+            @Override
+            public void onError(BrowseList browsed, String errorMessage) {
+                if (search != session) {
+                    return;
+                }
+                loading.setValue(false);
+                message.setValue(search.merger.size() == 0 ? errorMessage
+                        : "Could not refresh " + browsed.name + ", showing the saved list");
+            }
+        });
+    }
+
+    /**
+     * Load the category and area directories for {@link #getBrowseLists()}
+     */
+    public void loadBrowseLists() {
+        if (browseListsLoading || browseLists.getValue() != null) {
+            return;
+        }
+        browseListsLoading = true;
+        for (String kind : new String[]{BrowseList.CATEGORY, BrowseList.AREA}) {
+            browseRepository.browse(BrowseList.directory(kind), new BrowseRepository.Callback() {
+                @Override
+                public void onListing(BrowseList directory, BrowseRepository.Listing listing) {
+                    browseNames.put(directory.kind, listing.names);
+                    List<BrowseList> lists = new ArrayList<>();
+                    for (String name : browseNames.getOrDefault(BrowseList.CATEGORY, Collections.emptyList())) {
+                        lists.add(BrowseList.category(name));
+                    }
+                    for (String name : browseNames.getOrDefault(BrowseList.AREA, Collections.emptyList())) {
+                        lists.add(BrowseList.area(name));
+                    }
+                    browseListsLoading = false;
+                    if (!lists.isEmpty()) {
+                        browseLists.setValue(Collections.unmodifiableList(lists));
+                    }
+                }
+
+                @Override
+                public void onError(BrowseList directory, String errorMessage) {
+                    browseListsLoading = false;
+                    if (browseLists.getValue() == null) {
+                        message.setValue(errorMessage);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onResult(String query, ArrayList<Plat> meals) {
+        Session search = session;
+        if (search == null || !query.equals(search.query)) {
+            return;
+        }
+        loading.setValue(false);
+        show(search, meals, true, "network");
+        Metrics.histogram("search.ttc").recordNanos(SystemClock.elapsedRealtimeNanos() - search.startNanos);
+        if (search.merger.size() == 0) {
+            message.setValue("No meals found");
+        } else if (search.fuzzy && meals.isEmpty()) {
+            message.setValue("No exact matches, showing similar names");
+        }
+    }
+
+    @Override
+    public void onError(String query, String errorMessage) {
+        if (session == null || !query.equals(session.query)) {
+            return;
+        }
+        loading.setValue(false);
+        message.setValue(errorMessage);
+    }
+
+    /**
+     * Merge one source into the search's results and publish them
+     * @param replace Whether the source's data is fresher than what is listed
+     */
+    private void show(Session search, List<Plat> meals, boolean replace, String source) {
+        boolean first = search.merger.size() == 0;
+        SearchResultMerger.Change change = search.merger.merge(meals, replace);
+        if (change.isEmpty() && !(first && replace)) {
+            return; // Nothing new; an empty network answer still clears the previous query's rows
+        }
+        if (search.merger.size() > 0 && !search.firstResultShown) {
+            search.firstResultShown = true;
+            Metrics.histogram("search.ttfr").recordNanos(SystemClock.elapsedRealtimeNanos() - search.startNanos);
+        }
+        // The first results of a search replace the list instead of changing it
+        Results shown = results.getValue();
+        if (first || shown == null || !search.query.equals(shown.query)) {
+            change = null;
+        }
+        results.setValue(new Results(search.query, search.merger.results(), source, change));
+    }
+
+    public void onMessageShown() {
+        message.setValue(null);
+    }
+
+    /**
+     * Load favorite IDs if the favorites changed since the last load
+     */
+    public void refreshFavoriteIds() {
+        if (!favoritesStale) {
+            return;
+        }
+        favoritesStale = false;
+        AppExecutors.diskIO().execute(() -> {
+            AppDatabase database = AppDatabase.getInstance(getApplication());
+            if (favoritesObserver == null) {
+                favoritesObserver = new InvalidationTracker.Observer("favorites") {
+                    @Override
+                    public void onInvalidated(@NonNull Set<String> tables) {
+                        favoritesStale = true;
+                    }
+                };
+                database.getInvalidationTracker().addObserver(favoritesObserver);
+            }
+            Set<String> ids = new HashSet<>(Metrics.histogram("db.favorites.ids")
+                    .time(database.favoriteDao()::getFavoriteMealIds));
+            AppExecutors.mainThread().execute(() -> {
+                favoriteIdsLoaded = true;
+                favoriteIds.setValue(ids);
+            });
+        });
+    }
+
+    /**
+     * Whether {@link #toggleFavorite} can tell a favorite from a new one yet
+     */
+    public boolean canToggleFavorites() {
+        return favoriteIdsLoaded;
+    }
+
+    /**
+     * Add the meal to the favorites, or remove it. Only once {@link #canToggleFavorites()}.
+     * @return true if it is a favorite now
+     */
+    public boolean toggleFavorite(Plat plat) {
+        String mealId = plat.getId();
+        Set<String> ids = new HashSet<>(favoriteIds.getValue());
+        boolean added;
+        if (ids.remove(mealId)) {
+            AppExecutors.diskIO().execute(() ->
+                    AppDatabase.getInstance(getApplication()).favoriteDao().removeFromFavoritesById(mealId));
+            added = false;
+        } else {
+            FavoriteEntity favorite = new FavoriteEntity(
+                    mealId,
+                    plat.getName(),
+                    plat.getImageURL(),
+                    plat.getInstructions(),
+                    "", // Default comment
+                    0   // Default rating
+            );
+            // Never replaces a favorite saved meanwhile (e.g. from the detail screen) with an empty one
+            AppExecutors.diskIO().execute(() ->
+                    AppDatabase.getInstance(getApplication()).favoriteDao().addToFavoritesIfAbsent(favorite));
+            ids.add(mealId);
+            added = true;
+        }
+        favoriteIds.setValue(ids);
+        return added;
+    }
+
+    @Override
+    protected void onCleared() {
+        if (currentQuery != null) {
+            repository.cancel(currentQuery, this);
+        }
+        // Same thread that registered the observer, so it is seen if it was registered
+        AppExecutors.diskIO().execute(() -> {
+            if (favoritesObserver != null) {
+                AppDatabase.getInstance(getApplication()).getInvalidationTracker().removeObserver(favoritesObserver);
+            }
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.FavoriteEntity;
+import com.example.ensa_meal.database.MealEntity;
+import com.example.ensa_meal.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * MealCache - Process-wide meal lookup by ID
+ *
+ * Screens hand each other only a meal ID; the receiving screen resolves it here:
+ * 1. in-memory LRU of meals seen in this process (search results, favorites)
+ * 2. meal_categories table, where search results are persisted
+ * 3. favorites table
+ */
+public final class MealCache {
+
+    private static final int MAX_MEALS_IN_MEMORY = 200;
+
+    private static MealCache instance;
+
+    private final Context appContext;
+    private final LruCache<String, Plat> memory = new LruCache<>(MAX_MEALS_IN_MEMORY);
+
+    private MealCache(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    public static synchronized MealCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new MealCache(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Remember a meal in memory only
+     */
+    public void put(Plat plat) {
+        memory.put(plat.getId(), plat);
+    }
+
+    /**
+     * Remember search results in memory and persist them for later lookups
+     */
+    public void putAll(List<Plat> plats) {
+        List<MealEntity> entities = new ArrayList<>(plats.size());
+        for (Plat plat : plats) {
+            put(plat);
+            entities.add(new MealEntity(plat.getId(), plat.getName(), plat.getImageURL(), plat.getInstructions()));
+        }
+        AppExecutors.diskIO().execute(() ->
+                AppDatabase.getInstance(appContext).mealDao().insertAll(entities));
+    }
+
+    /**
+     * Memory-only lookup, safe on the main thread
+     */
+    @Nullable
+    public Plat getIfCached(String mealId) {
+        return memory.get(mealId);
+    }
+
+    /**
+     * Resolve a meal from memory or the database
+     * @param callback Receives the meal (or null if unknown) on the main thread
+     */
+    public void get(String mealId, Consumer<Plat> callback) {
+        Plat cached = memory.get(mealId);
+        if (cached != null) {
+            callback.accept(cached);
+            return;
+        }
+        AppExecutors.diskIO().execute(() -> {
+            Plat plat = loadFromDatabase(mealId);
+            if (plat != null) {
+                put(plat);
+            }
+            AppExecutors.mainThread().execute(() -> callback.accept(plat));
+        });
+    }
+
+    @Nullable
+    private Plat loadFromDatabase(String mealId) {
+        AppDatabase database = AppDatabase.getInstance(appContext);
+        MealEntity meal = Metrics.histogram("db.meals.get").time(() -> database.mealDao().getMealById(mealId));
+        if (meal != null) {
+            return new Plat(meal.getId(), meal.getName(), meal.getImageURL(), meal.getDescription());
+        }
+        FavoriteEntity favorite = database.favoriteDao().getFavoriteById(mealId);
+        if (favorite != null) {
+            return new Plat(favorite.getMealId(), favorite.getMealName(),
+                    favorite.getMealImageUrl(), favorite.getMealDescription());
+        }
+        return null;
+    }
+}
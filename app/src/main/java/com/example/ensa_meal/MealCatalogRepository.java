@@ -0,0 +1,80 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.MealFeatures;
+import com.example.ensa_meal.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MealCatalogRepository - Every meal known locally, as one {@link MealCatalog}
+ *
+ * Built from meal_details, meal_categories and favorites without the
+ * instructions column, which the catalog reads back one meal at a time. Kept
+ * until one of the tables changes (Room invalidation observer).
+ *
+ * {@link #get} reads the database when the data changed: call it on
+ * AppExecutors.diskIO().
+ */
+public final class MealCatalogRepository {
+
+    private static final String TAG = "MealCatalogRepository";
+
+    private static MealCatalogRepository instance;
+
+    private final AppDatabase database;
+    private volatile MealCatalog catalog;
+    private volatile int version; // Bumped by the observer
+    private int builtVersion = -1;
+
+    private MealCatalogRepository(Context context) {
+        database = AppDatabase.getInstance(context);
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("meal_details", "meal_categories", "favorites") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                version++;
+            }
+        });
+        Metrics.gauge("catalog.size").setSupplier(() -> catalog != null ? catalog.size() : 0);
+        Metrics.gauge("catalog.heap_kb").setSupplier(() -> catalog != null ? catalog.sizeInBytes() / 1024 : 0);
+    }
+
+    public static synchronized MealCatalogRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new MealCatalogRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * The current catalog, rebuilt first if a table changed since the last build
+     */
+    public synchronized MealCatalog get() {
+        int current = version;
+        if (catalog == null || builtVersion != current) {
+            long start = System.currentTimeMillis();
+            List<MealFeatures> rows = Metrics.histogram("db.catalog.rows")
+                    .time(database.mealDetailDao()::getCatalogRows);
+            MealCatalog.Builder builder = new MealCatalog.Builder();
+            for (MealFeatures meal : rows) {
+                List<String> ingredients = meal.ingredients == null || meal.ingredients.isEmpty()
+                        ? Collections.emptyList() : Arrays.asList(meal.ingredients.split("\n"));
+                builder.add(meal.id, meal.name, meal.imageUrl, meal.category, meal.area, ingredients);
+            }
+            catalog = builder.build(database.mealDetailDao()::getInstructions);
+            builtVersion = current;
+            Log.d(TAG, "Built catalog of " + catalog.size() + " meals (" + catalog.sizeInBytes() / 1024
+                    + " KB) in " + (System.currentTimeMillis() - start) + " ms");
+        }
+        return catalog;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.JsonObjectRequest;
+import com.android.volley.toolbox.Volley;
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.MealDetailDao;
+import com.example.ensa_meal.database.MealDetailEntity;
+import com.example.ensa_meal.metrics.Metrics;
+import com.example.ensa_meal.metrics.Tracing;
+
+import org.json.JSONException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * MealDetailRepository - Full meal details (ingredients, category, area)
+ *
+ * Lookup order: memory LRU, meal_details table, then TheMealDB lookup.php.
+ * Details are saved with their ingredient postings (see IngredientSearchRepository).
+ * Concurrent requests for the same meal share one load.
+ *
+ * Prefetch policy:
+ * - at most {@link #MAX_CONCURRENT_PREFETCHES} prefetch loads run at once
+ * - at most {@link #MAX_PENDING_PREFETCHES} wait in line, the oldest is dropped first
+ * - a prefetch can be cancelled while queued or in flight, unless a screen is waiting for it
+ * - a foreground {@link #get} jumps the queue
+ *
+ * All methods must be called on the main thread.
+ */
+public final class MealDetailRepository {
+
+    private static final String TAG = "MealDetailRepository";
+    private static final String LOOKUP_URL = "https://www.themealdb.com/api/json/v1/1/lookup.php?i=";
+    private static final int MAX_DETAILS_IN_MEMORY = 100;
+    static final int MAX_CONCURRENT_PREFETCHES = 2;
+    static final int MAX_PENDING_PREFETCHES = 8;
+
+    private static MealDetailRepository instance;
+
+    private final Context appContext;
+    private final LruCache<String, MealDetail> memory = new LruCache<>(MAX_DETAILS_IN_MEMORY);
+    private final Map<String, Load> loads = new HashMap<>();
+    private final ArrayDeque<String> pendingPrefetches = new ArrayDeque<>();
+    private int runningPrefetches;
+    private RequestQueue requestQueue;
+
+    /**
+     * One load in progress for a meal ID
+     */
+    private static class Load {
+        final List<Consumer<MealDetail>> waiters = new ArrayList<>();
+        boolean prefetch;
+        boolean cancelled;
+        Request<?> request;
+        int traceCookie; // Async trace span of the lookup request
+    }
+
+    private MealDetailRepository(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    public static synchronized MealDetailRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new MealDetailRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Memory-only lookup
+     */
+    @Nullable
+    public MealDetail getIfCached(String mealId) {
+        return memory.get(mealId);
+    }
+
+    /**
+     * Get a meal's full details
+     * @param callback Receives the detail, or null if it could not be loaded
+     */
+    public void get(String mealId, Consumer<MealDetail> callback) {
+        MealDetail cached = memory.get(mealId);
+        if (cached != null) {
+            callback.accept(cached);
+            return;
+        }
+        Load load = loads.get(mealId);
+        if (load == null) {
+            load = new Load();
+            load.waiters.add(callback);
+            startLoad(mealId, load);
+            return;
+        }
+        load.waiters.add(callback);
+        if (load.prefetch) {
+            // Someone is waiting now, the load no longer counts against the prefetch budget
+            load.prefetch = false;
+            runningPrefetches--;
+            pumpPrefetches();
+        }
+    }
+
+    /**
+     * Details that arrived as part of another response (e.g. search.php returns full records)
+     */
+    public void putAll(List<MealDetail> details) {
+        List<MealDetailEntity> entities = new ArrayList<>(details.size());
+        for (MealDetail detail : details) {
+            memory.put(detail.getId(), detail);
+            entities.add(MealDetailEntity.from(detail));
+        }
+        AppExecutors.diskIO().execute(() -> IngredientSearchRepository.save(database(), entities));
+    }
+
+    /**
+     * Queue a background load for a meal that is likely to be opened
+     */
+    public void prefetch(String mealId) {
+        if (memory.get(mealId) != null || loads.containsKey(mealId) || pendingPrefetches.contains(mealId)) {
+            return;
+        }
+        pendingPrefetches.addLast(mealId);
+        if (pendingPrefetches.size() > MAX_PENDING_PREFETCHES) {
+            pendingPrefetches.removeFirst();
+        }
+        pumpPrefetches();
+    }
+
+    /**
+     * Drop a prefetch that is no longer useful (e.g. its row scrolled away)
+     */
+    public void cancelPrefetch(String mealId) {
+        if (pendingPrefetches.remove(mealId)) {
+            return;
+        }
+        Load load = loads.get(mealId);
+        if (load != null && load.prefetch && load.waiters.isEmpty()) {
+            cancel(mealId, load);
+        }
+    }
+
+    /**
+     * Drop every queued and running prefetch nobody is waiting for (e.g. new search, screen stopped)
+     */
+    public void cancelAllPrefetches() {
+        pendingPrefetches.clear();
+        for (Map.Entry<String, Load> entry : new ArrayList<>(loads.entrySet())) {
+            Load load = entry.getValue();
+            if (load.prefetch && load.waiters.isEmpty()) {
+                cancel(entry.getKey(), load);
+            }
+        }
+    }
+
+    private void cancel(String mealId, Load load) {
+        load.cancelled = true;
+        if (load.request != null) {
+            load.request.cancel(); // No callback follows
+            Tracing.endAsync("detail.lookup", load.traceCookie);
+        }
+        loads.remove(mealId);
+        runningPrefetches--;
+        pumpPrefetches();
+    }
+
+    private void pumpPrefetches() {
+        while (runningPrefetches < MAX_CONCURRENT_PREFETCHES && !pendingPrefetches.isEmpty()) {
+            String mealId = pendingPrefetches.removeFirst();
+            Load load = new Load();
+            load.prefetch = true;
+            runningPrefetches++;
+            startLoad(mealId, load);
+        }
+    }
+
+    private void startLoad(String mealId, Load load) {
+        loads.put(mealId, load);
+        pendingPrefetches.remove(mealId);
+        AppExecutors.diskIO().execute(() -> {
+            MealDetailEntity entity = Metrics.histogram("db.meal_details.get").time(() -> dao().getById(mealId));
+            AppExecutors.mainThread().execute(() -> {
+                if (load.cancelled) {
+                    return;
+                }
+                if (entity != null) {
+                    finish(mealId, load, entity.toDetail());
+                } else {
+                    fetch(mealId, load);
+                }
+            });
+        });
+    }
+
+    private void fetch(String mealId, Load load) {
+        if (requestQueue == null) {
+            requestQueue = Volley.newRequestQueue(appContext);
+        }
+        load.traceCookie = Tracing.beginAsync("detail.lookup");
+        JsonObjectRequest request = new JsonObjectRequest(
+                Request.Method.GET,
+                LOOKUP_URL + mealId,
+                null,
+                response -> {
+                    Tracing.endAsync("detail.lookup", load.traceCookie);
+                    MealDetail detail = null;
+                    try {
+                        List<MealDetail> details = MealParser.parseDetails(response, System.currentTimeMillis());
+                        if (!details.isEmpty()) {
+                            detail = details.get(0);
+                            List<MealDetailEntity> entities = Collections.singletonList(MealDetailEntity.from(detail));
+                            AppExecutors.diskIO().execute(() -> IngredientSearchRepository.save(database(), entities));
+                        }
+                    } catch (JSONException e) {
+                        Log.e(TAG, "Lookup parse error for " + mealId + ": " + e.getMessage());
+                    }
+                    finish(mealId, load, detail);
+                },
+                error -> {
+                    Tracing.endAsync("detail.lookup", load.traceCookie);
+                    Log.w(TAG, "Lookup failed for " + mealId + ": " + error);
+                    finish(mealId, load, null);
+                }
+        );
+        load.request = request;
+        requestQueue.add(request);
+    }
+
+    private void finish(String mealId, Load load, @Nullable MealDetail detail) {
+        if (load.cancelled) {
+            return;
+        }
+        loads.remove(mealId);
+        if (load.prefetch) {
+            runningPrefetches--;
+        }
+        if (detail != null) {
+            memory.put(mealId, detail);
+        }
+        for (Consumer<MealDetail> waiter : load.waiters) {
+            waiter.accept(detail);
+        }
+        pumpPrefetches();
+    }
+
+    private AppDatabase database() {
+        return AppDatabase.getInstance(appContext);
+    }
+
+    private MealDetailDao dao() {
+        return database().mealDetailDao();
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.JsonObjectRequest;
+import com.android.volley.toolbox.Volley;
+import com.example.ensa_meal.metrics.Counter;
+import com.example.ensa_meal.metrics.LatencyHistogram;
+import com.example.ensa_meal.metrics.Metrics;
+import com.example.ensa_meal.metrics.Tracing;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * MealSearchRepository - Meal search shared by every screen
+ *
+ * - search.php results are parsed once and fed to MealCache, MealDetailRepository
+ *   and the search snapshot
+ * - Concurrent searches for the same query share one request
+ * - A request nobody waits for any more is cancelled
+ *
+ * All methods must be called on the main thread.
+ */
+public final class MealSearchRepository {
+
+    private static final String TAG = "MealSearchRepository";
+    private static final String API_URL = "https://www.themealdb.com/api/json/v1/1/search.php?s=";
+
+    private static final LatencyHistogram NETWORK_TIME = Metrics.histogram("search.network");
+    private static final LatencyHistogram PARSE_TIME = Metrics.histogram("search.parse");
+    private static final Counter REQUESTS = Metrics.counter("search.requests");
+    private static final Counter JOINED = Metrics.counter("search.joined");
+    private static final Counter CANCELLED = Metrics.counter("search.cancelled");
+    private static final Counter ERRORS = Metrics.counter("search.errors");
+
+    private static MealSearchRepository instance;
+
+    /**
+     * Receives the outcome of a search on the main thread
+     */
+    public interface Callback {
+        void onResult(String query, ArrayList<Plat> meals);
+
+        void onError(String query, String message);
+    }
+
+    /**
+     * One request in flight for a query
+     */
+    private static class Search {
+        final List<Callback> waiters = new ArrayList<>();
+        final long startNanos = System.nanoTime();
+        final int traceCookie = Tracing.beginAsync("search.network");
+        Request<?> request;
+    }
+
+    private final Context appContext;
+    private final SearchSnapshotStore snapshotStore;
+    private final Map<String, Search> searches = new HashMap<>();
+    private RequestQueue requestQueue;
+
+    private MealSearchRepository(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.snapshotStore = new SearchSnapshotStore(appContext);
+    }
+
+    public static synchronized MealSearchRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new MealSearchRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Read the persisted last search off the main thread
+     * @param callback Receives the query (or null) and its meals (or null) on the main thread
+     */
+    public void loadSnapshot(BiConsumer<String, ArrayList<Plat>> callback) {
+        AppExecutors.diskIO().execute(() -> {
+            SearchSnapshotStore.Snapshot snapshot = snapshotStore.read();
+            ArrayList<Plat> plats = null;
+            if (snapshot != null) {
+                try {
+                    plats = MealParser.parseMeals(snapshot.response);
+                } catch (JSONException e) {
+                    Log.w(TAG, "Snapshot parse error: " + e.getMessage());
+                }
+            }
+            String query = snapshot != null ? snapshot.query : null;
+            ArrayList<Plat> snapshotPlats = plats;
+            AppExecutors.mainThread().execute(() -> {
+                if (snapshotPlats != null) {
+                    // Already persisted when they were first fetched
+                    for (Plat plat : snapshotPlats) {
+                        MealCache.getInstance(appContext).put(plat);
+                    }
+                }
+                callback.accept(query, snapshotPlats);
+            });
+        });
+    }
+
+    /**
+     * Search TheMealDB, joining the request already in flight for the same query
+     */
+    public void search(String query, Callback callback) {
+        Search search = searches.get(query);
+        if (search != null) {
+            Log.d(TAG, "Joining the request in flight for \"" + query + "\"");
+            search.waiters.add(callback);
+            JOINED.increment();
+            return;
+        }
+        search = new Search();
+        search.waiters.add(callback);
+        searches.put(query, search);
+
+        if (requestQueue == null) {
+            requestQueue = Volley.newRequestQueue(appContext);
+        }
+        Search started = search;
+        JsonObjectRequest request = new JsonObjectRequest(
+                Request.Method.GET,
+                API_URL + query,
+                null,
+                response -> onResponse(query, started, response),
+                error -> onError(query, started, describe(error))
+        );
+        search.request = request;
+        requestQueue.add(request);
+        REQUESTS.increment();
+        Tracing.counter("search.inflight", searches.size());
+    }
+
+    /**
+     * The callback no longer wants the result; the request is cancelled if nobody else does
+     */
+    public void cancel(String query, Callback callback) {
+        Search search = searches.get(query);
+        if (search == null) {
+            return;
+        }
+        search.waiters.remove(callback);
+        if (search.waiters.isEmpty()) {
+            searches.remove(query);
+            search.request.cancel();
+            CANCELLED.increment();
+            ended(search);
+        }
+    }
+
+    private void onResponse(String query, Search search, JSONObject response) {
+        if (searches.get(query) != search) {
+            return;
+        }
+        NETWORK_TIME.recordNanos(System.nanoTime() - search.startNanos);
+        Tracing.begin("handleApiResponse");
+        try {
+            handleResponse(query, search, response);
+        } finally {
+            Tracing.end();
+        }
+    }
+
+    private void handleResponse(String query, Search search, JSONObject response) {
+        ArrayList<Plat> meals;
+        List<MealDetail> details;
+        long parseStart = System.nanoTime();
+        Tracing.begin("MealParser.parse");
+        try {
+            meals = MealParser.parseMeals(response);
+            details = MealParser.parseDetails(response, System.currentTimeMillis());
+            PARSE_TIME.recordNanos(System.nanoTime() - parseStart);
+        } catch (JSONException e) {
+            Log.e(TAG, "JSON parsing error: " + e.getMessage(), e);
+            onError(query, search, "Error parsing data: " + e.getMessage());
+            return;
+        } finally {
+            Tracing.end();
+        }
+        searches.remove(query);
+        ended(search);
+        if (!meals.isEmpty()) {
+            Log.d(TAG, "Successfully loaded " + meals.size() + " meals");
+            MealCache.getInstance(appContext).putAll(meals);
+            // search.php returns full records, no lookup needed for these meals
+            MealDetailRepository.getInstance(appContext).putAll(details);
+            AppExecutors.diskIO().execute(() -> snapshotStore.write(query, response));
+        }
+        for (Callback waiter : search.waiters) {
+            waiter.onResult(query, meals);
+        }
+    }
+
+    private void onError(String query, Search search, String message) {
+        if (searches.get(query) != search) {
+            return;
+        }
+        searches.remove(query);
+        ended(search);
+        ERRORS.increment();
+        for (Callback waiter : search.waiters) {
+            waiter.onError(query, message);
+        }
+    }
+
+    private void ended(Search search) {
+        Tracing.endAsync("search.network", search.traceCookie);
+        Tracing.counter("search.inflight", searches.size());
+    }
+
+    private static String describe(VolleyError error) {
+        if (error.networkResponse != null) {
+            int statusCode = error.networkResponse.statusCode;
+            Log.e(TAG, "Network error - Status Code: " + statusCode);
+            return "Error code: " + statusCode;
+        } else if (error.getMessage() != null) {
+            Log.e(TAG, "Volley error: " + error.getMessage());
+            return error.getMessage();
+        }
+        return "Network error occurred";
+    }
+}
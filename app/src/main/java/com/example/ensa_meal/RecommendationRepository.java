@@ -0,0 +1,144 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.FavoriteEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RecommendationRepository - On-device meal suggestions
+ *
+ * Builds a {@link MealRecommender} from the favorites and the meals of the
+ * {@link MealCatalog} that have details, and keeps it until either changes (Room
+ * invalidation observer), so asking again costs only the ranking itself.
+ *
+ * {@link #recommend} reads the database when the data changed: call it on
+ * AppExecutors.diskIO().
+ */
+public final class RecommendationRepository {
+
+    private static final String TAG = "RecommendationRepo";
+
+    private static RecommendationRepository instance;
+
+    private final AppDatabase database;
+    private final MealCatalogRepository catalogRepository;
+    private MealRecommender recommender;
+    private volatile int version; // Bumped by the observer
+    private int builtVersion = -1;
+
+    private RecommendationRepository(Context context) {
+        database = AppDatabase.getInstance(context);
+        catalogRepository = MealCatalogRepository.getInstance(context);
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("favorites", "meal_details") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                version++;
+            }
+        });
+    }
+
+    public static synchronized RecommendationRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new RecommendationRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Best {@code k} meals for {@code question}
+     */
+    public synchronized List<MealRecommender.Recommendation> recommend(String question, int k) {
+        int current = version;
+        if (recommender == null || builtVersion != current) {
+            long start = System.currentTimeMillis();
+            MealCatalog meals = catalogRepository.get();
+            List<MealRecommender.Meal> catalog = new ArrayList<>();
+            for (int row = 0; row < meals.size(); row++) {
+                if (meals.categoryHandle(row) == MealCatalog.NONE && meals.ingredientCount(row) == 0) {
+                    continue; // Search result without details: nothing to compare but its name
+                }
+                catalog.add(new MealRecommender.Meal(String.valueOf(meals.id(row)), meals.name(row),
+                        meals.category(row), meals.area(row), meals.ingredients(row)));
+            }
+            List<MealRecommender.Taste> tastes = new ArrayList<>();
+            for (FavoriteEntity favorite : database.favoriteDao().getAllFavorites()) {
+                tastes.add(new MealRecommender.Taste(favorite.getMealId(), favorite.getMealName(),
+                        favorite.getUserRating(), favorite.getUserComment(), favorite.getAddedTimestamp()));
+            }
+            recommender = new MealRecommender(catalog, tastes, System.currentTimeMillis());
+            builtVersion = current;
+            Log.d(TAG, "Built recommender over " + recommender.size() + " meals ("
+                    + tastes.size() + " favorites) in " + (System.currentTimeMillis() - start) + " ms");
+        }
+
+        long start = System.nanoTime();
+        List<MealRecommender.Recommendation> picks = recommender.recommend(question, k);
+        Log.d(TAG, picks.size() + " picks in " + (System.nanoTime() - start) / 1000 + " us");
+        return picks;
+    }
+
+    /**
+     * Chef-style answer built from the picks alone (Markdown)
+     */
+    public static String toAnswer(List<MealRecommender.Recommendation> picks) {
+        MealRecommender.Recommendation first = picks.get(0);
+        StringBuilder answer = new StringBuilder();
+        answer.append("Make **").append(first.meal.name).append("**.\n\n")
+                .append(describe(first)).append("\n");
+        if (picks.size() > 1) {
+            answer.append("\nOther ideas:\n");
+            for (int i = 1; i < picks.size(); i++) {
+                answer.append("- ").append(picks.get(i).meal.name)
+                        .append(" (").append(picks.get(i).reason).append(")\n");
+            }
+        }
+        answer.append("\n*Picked offline from your favorites and saved meals.*");
+        return answer.toString();
+    }
+
+    /**
+     * One line shown before the online answer arrives
+     */
+    public static String toQuickPicks(List<MealRecommender.Recommendation> picks) {
+        StringBuilder line = new StringBuilder("Quick picks: ");
+        for (int i = 0; i < picks.size(); i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            line.append(picks.get(i).meal.name).append(" (").append(picks.get(i).reason).append(")");
+        }
+        return line.toString();
+    }
+
+    /**
+     * System prompt addition so the model can build on the local ranking
+     */
+    public static String toPromptContext(List<MealRecommender.Recommendation> picks) {
+        StringBuilder context = new StringBuilder("LOCAL PICKS (ranked on the user's device from their ratings, best first):\n");
+        for (MealRecommender.Recommendation pick : picks) {
+            context.append("- ").append(pick.meal.name).append(": ").append(describe(pick)).append("\n");
+        }
+        context.append("Prefer these when suggesting, unless the user asks for something else.");
+        return context.toString();
+    }
+
+    private static String describe(MealRecommender.Recommendation pick) {
+        StringBuilder description = new StringBuilder();
+        if (pick.meal.area != null && !pick.meal.area.isEmpty()) {
+            description.append(pick.meal.area).append(" ");
+        }
+        if (pick.meal.category != null && !pick.meal.category.isEmpty()) {
+            description.append(pick.meal.category.toLowerCase()).append(", ");
+        }
+        return description.append(pick.reason).toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayDeque;
+
+/**
+ * RowPreInflater - Inflates RecyclerView rows ahead of time
+ *
+ * Rows are inflated on AsyncLayoutInflater's worker thread (e.g. while a search
+ * request is in flight) and handed to the adapter from onCreateViewHolder, so the
+ * first layout after results arrive only binds instead of inflating.
+ *
+ * Views are inflated against a themed application context so they can be parked
+ * in the {@link SharedRowPool} without holding on to an Activity.
+ */
+public class RowPreInflater {
+
+    private static final String TAG = "RowPreInflater";
+
+    private final Context rowContext;
+    private final int layoutRes;
+    private final ArrayDeque<View> ready = new ArrayDeque<>();
+    private final AsyncLayoutInflater asyncInflater;
+    private int pending;
+
+    // Stats for the first-layout measurement
+    private int hits;
+    private int misses;
+    private long syncInflateNanos;
+
+    public RowPreInflater(Context context, @LayoutRes int layoutRes) {
+        this.rowContext = rowContext(context);
+        this.layoutRes = layoutRes;
+        this.asyncInflater = new AsyncLayoutInflater(rowContext);
+    }
+
+    /**
+     * Context used to inflate pooled rows: application context with the app theme applied
+     */
+    public static Context rowContext(Context context) {
+        return new ContextThemeWrapper(context.getApplicationContext(), R.style.Theme_Ensa_Meal);
+    }
+
+    /**
+     * Top up the ready queue to {@code count} rows. Must be called on the main thread.
+     * @param parent RecyclerView the rows will be attached to (used for layout params only)
+     * @param count Number of rows that should be ready
+     */
+    public void preInflate(@NonNull ViewGroup parent, int count) {
+        int missing = count - ready.size() - pending;
+        for (int i = 0; i < missing; i++) {
+            pending++;
+            asyncInflater.inflate(layoutRes, parent, (view, resid, p) -> {
+                pending--;
+                ready.add(view);
+            });
+        }
+    }
+
+    /**
+     * Take a pre-inflated row, or inflate one synchronously if none is ready.
+     */
+    @NonNull
+    public View obtain(@NonNull ViewGroup parent) {
+        View view = ready.poll();
+        if (view != null) {
+            hits++;
+            return view;
+        }
+        misses++;
+        long start = System.nanoTime();
+        view = LayoutInflater.from(rowContext).inflate(layoutRes, parent, false);
+        syncInflateNanos += System.nanoTime() - start;
+        return view;
+    }
+
+    /**
+     * Log how long the next layout pass of {@code recyclerView} takes, from now until
+     * its first pre-draw, together with how many rows had to be inflated synchronously.
+     * Call right before notifying the adapter of new data.
+     */
+    public void measureNextLayout(@NonNull RecyclerView recyclerView, String label) {
+        final long start = SystemClock.elapsedRealtime();
+        final int startHits = hits;
+        final int startMisses = misses;
+        final long startInflate = syncInflateNanos;
+        recyclerView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                recyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                Log.d(TAG, label + " layout: " + (SystemClock.elapsedRealtime() - start) + " ms"
+                        + ", pre-inflated rows: " + (hits - startHits)
+                        + ", sync inflations: " + (misses - startMisses)
+                        + " (" + (syncInflateNanos - startInflate) / 1_000_000 + " ms)");
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Drop any rows still waiting to be used
+     */
+    public void clear() {
+        ready.clear();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ensa_meal;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SearchSnapshotStore - Persists the last successful search response
+ *
+ * MainActivity renders the snapshot on cold start before Room is opened or the
+ * network is touched. Reads and writes must run on {@link AppExecutors#diskIO()}.
+ */
+public class SearchSnapshotStore {
+
+    private static final String TAG = "SearchSnapshotStore";
+    private static final String FILE_NAME = "last_search.json";
+    private static final String KEY_QUERY = "query";
+    private static final String KEY_RESPONSE = "response";
+
+    private final AtomicFile file;
+
+    /**
+     * Snapshot content: the query and the raw API response it produced
+     */
+    public static class Snapshot {
+        public final String query;
+        public final JSONObject response;
+
+        Snapshot(String query, JSONObject response) {
+            this.query = query;
+            this.response = response;
+        }
+    }
+
+    public SearchSnapshotStore(Context context) {
+        file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    /**
+     * Read the last snapshot
+     * @return Snapshot or null if none was saved yet or it is unreadable
+     */
+    public Snapshot read() {
+        try {
+            String json = new String(file.readFully(), StandardCharsets.UTF_8);
+            JSONObject root = new JSONObject(json);
+            return new Snapshot(root.getString(KEY_QUERY), root.getJSONObject(KEY_RESPONSE));
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Discarding unreadable snapshot: " + e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Replace the snapshot with a new search response
+     */
+    public void write(String query, JSONObject response) {
+        FileOutputStream out = null;
+        try {
+            JSONObject root = new JSONObject();
+            root.put(KEY_QUERY, query);
+            root.put(KEY_RESPONSE, response);
+            out = file.startWrite();
+            out.write(root.toString().getBytes(StandardCharsets.UTF_8));
+            file.finishWrite(out);
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Could not save snapshot: " + e.getMessage());
+            if (out != null) {
+                file.failWrite(out);
+            }
+        }
+    }
+}
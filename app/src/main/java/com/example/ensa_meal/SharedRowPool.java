@@ -0,0 +1,40 @@
+package com.example.ensa_meal;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * SharedRowPool - One RecycledViewPool shared by every list screen
+ *
+ * Each adapter reports its row layout as the view type, so meal rows and favorite
+ * rows live side by side in the same pool. Rows are inflated with an application
+ * context (see {@link RowPreInflater#rowContext}) and adapters drop their listeners
+ * in onViewRecycled, so pooled views never keep a finished Activity alive.
+ */
+public final class SharedRowPool {
+
+    private static final int MAX_MEAL_ROWS = 10;
+    private static final int MAX_FAVORITE_ROWS = 10;
+
+    private static RecyclerView.RecycledViewPool pool;
+
+    private SharedRowPool() {
+    }
+
+    public static synchronized RecyclerView.RecycledViewPool get() {
+        if (pool == null) {
+            pool = new RecyclerView.RecycledViewPool();
+            pool.setMaxRecycledViews(R.layout.model_plat, MAX_MEAL_ROWS);
+            pool.setMaxRecycledViews(R.layout.item_favorite, MAX_FAVORITE_ROWS);
+        }
+        return pool;
+    }
+
+    /**
+     * Release all pooled rows (e.g. on low memory)
+     */
+    public static synchronized void clear() {
+        if (pool != null) {
+            pool.clear();
+        }
+    }
+}
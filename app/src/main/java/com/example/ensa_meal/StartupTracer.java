@@ -0,0 +1,103 @@
+package com.example.ensa_meal;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StartupTracer - Cold start instrumentation for the launcher activity
+ *
+ * Records, relative to process start:
+ * - time-to-first-frame: first frame of the window has been drawn
+ * - time-to-first-content: first meal list is on screen (snapshot or network)
+ *
+ * Also lets callers defer work (e.g. network refresh) until after the first frame.
+ */
+public class StartupTracer {
+
+    private static final String TAG = "StartupTracer";
+
+    private final Activity activity;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<Runnable> afterFirstFrame = new ArrayList<>();
+    private long firstFrameMs = -1;
+    private long firstContentMs = -1;
+    private boolean firstContentPending;
+
+    public StartupTracer(Activity activity) {
+        this.activity = activity;
+    }
+
+    /**
+     * Start listening for the first frame. Call from onCreate after setContentView.
+     */
+    public void start() {
+        View decorView = activity.getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                // Listeners can't be removed from inside onDraw
+                handler.post(() -> decorView.getViewTreeObserver().removeOnDrawListener(this));
+                // Front of the queue runs right after the frame is handed off
+                handler.postAtFrontOfQueue(() -> onFirstFrame());
+            }
+        });
+    }
+
+    private void onFirstFrame() {
+        if (firstFrameMs >= 0) {
+            return;
+        }
+        firstFrameMs = sinceProcessStart();
+        Log.i(TAG, "Time to first frame: " + firstFrameMs + " ms");
+        for (Runnable runnable : afterFirstFrame) {
+            handler.post(runnable);
+        }
+        afterFirstFrame.clear();
+    }
+
+    /**
+     * Run {@code runnable} once the first frame has been drawn (immediately if it already was)
+     */
+    public void runAfterFirstFrame(Runnable runnable) {
+        if (firstFrameMs >= 0) {
+            handler.post(runnable);
+        } else {
+            afterFirstFrame.add(runnable);
+        }
+    }
+
+    /**
+     * Mark the first meaningful content as set on {@code content}; it is timed at the
+     * view's next draw. Only the first call counts.
+     * @param source Where the content came from (e.g. "snapshot", "network")
+     */
+    public void onFirstContent(View content, String source) {
+        if (firstContentPending || firstContentMs >= 0) {
+            return;
+        }
+        firstContentPending = true;
+        content.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                content.getViewTreeObserver().removeOnPreDrawListener(this);
+                firstContentMs = sinceProcessStart();
+                Log.i(TAG, "Time to first content: " + firstContentMs + " ms (" + source + ")");
+                activity.reportFullyDrawn();
+                return true;
+            }
+        });
+    }
+
+    private static long sinceProcessStart() {
+        return SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+    }
+}
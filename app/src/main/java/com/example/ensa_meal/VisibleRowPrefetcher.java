@@ -0,0 +1,125 @@
+package com.example.ensa_meal;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * VisibleRowPrefetcher - Prefetches meal details for rows the user lingers on
+ *
+ * A row has to stay on screen for {@link #DWELL_MS} before its detail is requested,
+ * so fast flings don't trigger lookups. Rows that leave the screen before that have
+ * their pending dwell timer and any queued prefetch cancelled.
+ */
+public class VisibleRowPrefetcher extends RecyclerView.OnScrollListener {
+
+    static final long DWELL_MS = 400;
+
+    private final MealDetailRepository repository;
+    private final IntFunction<String> idAtPosition;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Map<String, Runnable> dwellTimers = new HashMap<>();
+    private final Set<String> requested = new HashSet<>();
+    private RecyclerView recyclerView;
+
+    /**
+     * @param repository Where prefetches are sent
+     * @param idAtPosition Maps an adapter position to its meal ID
+     */
+    public VisibleRowPrefetcher(MealDetailRepository repository, IntFunction<String> idAtPosition) {
+        this.repository = repository;
+        this.idAtPosition = idAtPosition;
+    }
+
+    public void attach(RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(this);
+        recyclerView.addOnLayoutChangeListener((v, l, t, r, b, ol, ot, or, ob) -> updateVisibleRows());
+    }
+
+    /**
+     * Re-evaluate visible rows after the adapter received new data
+     */
+    public void onDataChanged() {
+        reset();
+        recyclerView.post(this::updateVisibleRows);
+    }
+
+    /**
+     * Cancel all timers and prefetches (e.g. when the screen stops)
+     */
+    public void reset() {
+        for (Runnable timer : dwellTimers.values()) {
+            handler.removeCallbacks(timer);
+        }
+        dwellTimers.clear();
+        requested.clear();
+        repository.cancelAllPrefetches();
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        updateVisibleRows();
+    }
+
+    private void updateVisibleRows() {
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        Set<String> visible = new HashSet<>();
+        if (first != RecyclerView.NO_POSITION) {
+            for (int position = first; position <= last; position++) {
+                String mealId = idAtPosition.apply(position);
+                if (mealId != null) {
+                    visible.add(mealId);
+                }
+            }
+        }
+
+        // Rows that left the screen: stop waiting for them
+        Iterator<Map.Entry<String, Runnable>> timers = dwellTimers.entrySet().iterator();
+        while (timers.hasNext()) {
+            Map.Entry<String, Runnable> entry = timers.next();
+            if (!visible.contains(entry.getKey())) {
+                handler.removeCallbacks(entry.getValue());
+                timers.remove();
+            }
+        }
+        Iterator<String> prefetched = requested.iterator();
+        while (prefetched.hasNext()) {
+            String mealId = prefetched.next();
+            if (!visible.contains(mealId)) {
+                repository.cancelPrefetch(mealId);
+                prefetched.remove();
+            }
+        }
+
+        // Rows that just appeared: start their dwell timer
+        for (String mealId : visible) {
+            if (dwellTimers.containsKey(mealId) || requested.contains(mealId)
+                    || repository.getIfCached(mealId) != null) {
+                continue;
+            }
+            Runnable timer = () -> {
+                dwellTimers.remove(mealId);
+                requested.add(mealId);
+                repository.prefetch(mealId);
+            };
+            dwellTimers.put(mealId, timer);
+            handler.postDelayed(timer, DWELL_MS);
+        }
+    }
+}
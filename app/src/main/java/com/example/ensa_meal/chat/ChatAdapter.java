@@ -0,0 +1,130 @@
+package com.example.ensa_meal.chat;
+
+import android.content.Context;
+import android.text.Editable;
+import android.text.NoCopySpan;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.ensa_meal.R;
+import com.example.ensa_meal.metrics.LatencyHistogram;
+import com.example.ensa_meal.metrics.Metrics;
+
+import java.util.List;
+
+/**
+ * ChatAdapter - RecyclerView Adapter for the chat transcript
+ *
+ * Finished messages are bound once. Each row's TextView edits the message's own
+ * SpannableStringBuilder instead of a copy, so streamed content (and the spans the
+ * Markdown renderer attaches to it) shows up in the bound row without rebinding;
+ * the cost of a token depends on the token, not on the length of the conversation.
+ *
+ * The messages live in a {@link ChatTranscript} that outlives the adapter; attach
+ * the adapter with {@code transcript.setListener(adapter)}.
+ */
+public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.MessageViewHolder>
+        implements ChatTranscript.Listener {
+
+    private static final Object PAYLOAD_APPENDED = new Object();
+    private static final LatencyHistogram BIND_TIME = Metrics.histogram("bind.chat");
+
+    // Hands the message's builder to the TextView as is; the default factory copies it
+    private static final Editable.Factory SHARED_EDITABLE = new Editable.Factory() {
+        @Override
+        public Editable newEditable(CharSequence source) {
+            return source instanceof SpannableStringBuilder
+                    ? (SpannableStringBuilder) source : super.newEditable(source);
+        }
+    };
+
+    private final ChatTranscript transcript;
+    private final Context context;
+
+    public ChatAdapter(Context context, ChatTranscript transcript) {
+        this.context = context;
+        this.transcript = transcript;
+    }
+
+    @Override
+    public void onMessagesInserted(int position, int count) {
+        notifyItemRangeInserted(position, count);
+    }
+
+    @Override
+    public void onMessageChanged(int position) {
+        // The bound row already shows the builder, the payload only avoids a full rebind
+        notifyItemChanged(position, PAYLOAD_APPENDED);
+    }
+
+    @Override
+    public void onMessagesRemoved(int position, int count) {
+        notifyItemRangeRemoved(position, count);
+    }
+
+    public List<ChatMessage> getMessages() {
+        return transcript.getMessages();
+    }
+
+    @NonNull
+    @Override
+    public MessageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.item_chat_message, parent, false);
+        MessageViewHolder holder = new MessageViewHolder(view);
+        holder.text.setEditableFactory(SHARED_EDITABLE);
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull MessageViewHolder holder, int position) {
+        long bindStart = System.nanoTime();
+        ChatMessage message = transcript.get(position);
+        // EDITABLE + SHARED_EDITABLE: the TextView edits the message's own builder
+        holder.text.setText(message.getText(), TextView.BufferType.EDITABLE);
+        holder.text.setAlpha(message.getRole() == ChatMessage.Role.NOTICE ? 0.7f : 1f);
+        BIND_TIME.recordNanos(System.nanoTime() - bindStart);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull MessageViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty() || holder.text.getText() != transcript.get(position).getText()) {
+            onBindViewHolder(holder, position);
+        }
+        // Otherwise the row already displays the updated builder
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull MessageViewHolder holder) {
+        // The TextView hooked its watchers into the message's builder; the message
+        // outlives this screen, so they must not keep the view reachable from it
+        CharSequence text = holder.text.getText();
+        holder.text.setText(null);
+        if (text instanceof Spannable) {
+            Spannable spannable = (Spannable) text;
+            for (NoCopySpan span : spannable.getSpans(0, spannable.length(), NoCopySpan.class)) {
+                spannable.removeSpan(span);
+            }
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return transcript.size();
+    }
+
+    static class MessageViewHolder extends RecyclerView.ViewHolder {
+        TextView text;
+
+        MessageViewHolder(@NonNull View itemView) {
+            super(itemView);
+            text = itemView.findViewById(R.id.chatMessageText);
+        }
+    }
+}
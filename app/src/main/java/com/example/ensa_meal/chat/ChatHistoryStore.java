@@ -0,0 +1,102 @@
+package com.example.ensa_meal.chat;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.ChatDao;
+import com.example.ensa_meal.database.ChatMessageEntity;
+import com.example.ensa_meal.database.ConversationEntity;
+import com.example.ensa_meal.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ChatHistoryStore - Room-backed history of the AI chat
+ *
+ * Keeps the current conversation, loads its messages page by page (newest first)
+ * and builds the token-budgeted window that is sent with each request.
+ * All methods hit the database: call them on AppExecutors.diskIO().
+ */
+public class ChatHistoryStore {
+
+    private static final String TAG = "ChatHistoryStore";
+    public static final String ROLE_USER = "user";
+    public static final String ROLE_ASSISTANT = "assistant";
+
+    private final ChatDao chatDao;
+    private final ConversationWindow window;
+    private long conversationId = -1;
+
+    public ChatHistoryStore(Context context, ConversationWindow window) {
+        this.chatDao = AppDatabase.getInstance(context).chatDao();
+        this.window = window;
+    }
+
+    /**
+     * Current conversation: the most recent one, created on first use
+     */
+    public long conversationId() {
+        if (conversationId == -1) {
+            ConversationEntity latest = chatDao.getLatestConversation();
+            conversationId = latest != null ? latest.getId() : chatDao.insertConversation(new ConversationEntity());
+        }
+        return conversationId;
+    }
+
+    /**
+     * Start an empty conversation; the previous one stays in the database
+     */
+    public void startNewConversation() {
+        conversationId = chatDao.insertConversation(new ConversationEntity());
+    }
+
+    /**
+     * Load a page of messages older than {@code beforeId}
+     * @param beforeId Oldest message ID already shown, or Long.MAX_VALUE for the newest page
+     * @return Messages in chronological order
+     */
+    public List<ChatMessageEntity> loadPage(long beforeId, int limit) {
+        long id = conversationId();
+        List<ChatMessageEntity> page = new ArrayList<>(Metrics.histogram("db.chat.page")
+                .time(() -> chatDao.getMessagesBefore(id, beforeId, limit)));
+        Collections.reverse(page);
+        return page;
+    }
+
+    /**
+     * Persist a message of the current conversation
+     * @return New message ID
+     */
+    public long append(String role, String content) {
+        long id = conversationId();
+        chatDao.touchConversation(id, System.currentTimeMillis());
+        return chatDao.insertMessage(new ChatMessageEntity(id, role, content));
+    }
+
+    /**
+     * Build the window for the next request, persisting the summary if older turns were folded.
+     * Logs the estimated prompt history size with and without windowing.
+     */
+    public ConversationWindow.Result buildWindow() {
+        long id = conversationId();
+        ConversationEntity conversation = chatDao.getConversation(id);
+        List<ConversationWindow.Turn> turns = new ArrayList<>();
+        for (ChatMessageEntity message : chatDao.getMessagesAfter(id, conversation.getSummarizedThrough())) {
+            turns.add(new ConversationWindow.Turn(message.getId(), message.getRole(), message.getContent()));
+        }
+        ConversationWindow.Result result = window.build(
+                conversation.getSummary(), conversation.getSummarizedThrough(), turns);
+        if (result.summaryChanged) {
+            chatDao.updateSummary(id, result.summary, result.summarizedThrough);
+        }
+
+        long fullTokens = (chatDao.getContentLength(id) + 3) / 4;
+        Log.d(TAG, "History sent: ~" + result.estimatedTokens() + " tokens (" + result.verbatim.size()
+                + " turns verbatim" + (result.summary != null ? " + summary" : "")
+                + "), full history would be ~" + fullTokens + " tokens");
+        return result;
+    }
+}
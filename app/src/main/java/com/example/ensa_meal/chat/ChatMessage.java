@@ -0,0 +1,89 @@
+package com.example.ensa_meal.chat;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+
+/**
+ * ChatMessage - One entry of the chat transcript
+ *
+ * The text is a growable spannable: a streamed answer is appended to in place,
+ * the rest of the transcript is never touched again. Chef answers are Markdown
+ * and are rendered to spans as they stream in (see {@link MarkdownSpanRenderer}).
+ */
+public class ChatMessage {
+
+    public enum Role {
+        USER,
+        ASSISTANT,
+        NOTICE // Local status / error lines, never sent to the model
+    }
+
+    private final Role role;
+    private final SpannableStringBuilder text = new SpannableStringBuilder();
+    private final MarkdownSpanRenderer markdown; // Chef answers only
+
+    public ChatMessage(Role role, CharSequence content) {
+        this.role = role;
+        String label = label(role);
+        if (label != null) {
+            text.append(label);
+            text.setSpan(new StyleSpan(Typeface.BOLD), 0, label.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            text.append(role == Role.ASSISTANT ? "\n" : " ");
+        }
+        if (role == Role.ASSISTANT) {
+            markdown = new MarkdownSpanRenderer(text);
+            // A message created with its content is complete; an empty one is about to stream
+            if (content.length() > 0) {
+                markdown.append(content);
+                markdown.finish();
+            }
+        } else {
+            markdown = null;
+            text.append(content);
+        }
+    }
+
+    private static String label(Role role) {
+        switch (role) {
+            case USER:
+                return "You:";
+            case ASSISTANT:
+                return "Chef:";
+            default:
+                return null;
+        }
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * Rendered text, including the role label
+     */
+    public SpannableStringBuilder getText() {
+        return text;
+    }
+
+    /**
+     * Append streamed content at the end of this message
+     */
+    public void append(CharSequence delta) {
+        if (markdown != null) {
+            markdown.append(delta);
+        } else {
+            text.append(delta);
+        }
+    }
+
+    /**
+     * The stream ended: render anything the Markdown parser was still holding back
+     */
+    public void finish() {
+        if (markdown != null) {
+            markdown.finish();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.ensa_meal.chat;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.example.ensa_meal.metrics.Tracing;
+
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * ChatRequestManager - Runs chat generations for one chat screen
+ *
+ * - One generation in flight per conversation; later ones wait in a FIFO queue
+ * - 429/503 answers are retried after Retry-After (or an exponential backoff), and
+ *   every request waits until the server said it may be called again
+ * - {@link #cancelAll()} and {@link #shutdown()} cancel every call and pending
+ *   retry, and no callback is delivered afterwards. Each starts a new epoch: a
+ *   {@link #submit} made for an earlier epoch (e.g. queued on another thread before
+ *   the cancel) is dropped instead of starting a stale stream. The owner is the screen's ViewModel, so streams keep
+ *   running across configuration changes.
+ *
+ * All screens share one OkHttpClient whose dispatcher threads and idle sockets are
+ * released after a few seconds instead of OkHttp's default minutes.
+ *
+ * Content deltas are delivered on the network thread; every other callback on the
+ * main thread. {@link #submit} and {@link #epoch()} may be called from any thread.
+ */
+public class ChatRequestManager {
+
+    private static final String TAG = "ChatRequestManager";
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 30_000;
+
+    private static OkHttpClient httpClient;
+
+    /**
+     * Listener of one generation, told when it is waiting for a rate limit
+     */
+    public interface Listener extends GroqChatClient.Listener {
+        void onRetryScheduled(long delayMs, int attempt);
+    }
+
+    private final GroqChatClient client;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Main thread only
+    private final Map<Long, ArrayDeque<Generation>> queues = new HashMap<>();
+    private long notBeforeMs; // Uptime before which no request is sent (server rate limit)
+    private boolean shutDown;
+    private volatile int epoch; // Written on the main thread only
+
+    public ChatRequestManager(GroqChatClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Client shared by all chat screens: short-lived dispatcher threads and sockets
+     */
+    public static synchronized OkHttpClient httpClient() {
+        if (httpClient == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 10, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), runnable -> new Thread(runnable, "ensa-chat-http"));
+            httpClient = new OkHttpClient.Builder()
+                    .dispatcher(new Dispatcher(executor))
+                    .connectionPool(new ConnectionPool(2, 30, TimeUnit.SECONDS))
+                    .readTimeout(60, TimeUnit.SECONDS) // Longer timeout for streaming
+                    .build();
+        }
+        return httpClient;
+    }
+
+    /**
+     * Current cancellation epoch; read it when the work that will {@link #submit} starts
+     */
+    public int epoch() {
+        return epoch;
+    }
+
+    /**
+     * Queue a generation; it starts once the previous one of the conversation is done
+     * @param epoch {@link #epoch()} when the request was asked for; if cancelled since, the
+     *              generation is dropped and its listener never called
+     * @param requestJson Streaming chat completion request
+     */
+    public void submit(int epoch, long conversationId, String requestJson, Listener listener) {
+        mainHandler.post(() -> {
+            if (shutDown || epoch != this.epoch) {
+                Log.d(TAG, "Dropped a generation submitted before cancelAll()");
+                return;
+            }
+            ArrayDeque<Generation> queue = queues.get(conversationId);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(conversationId, queue);
+            }
+            queue.add(new Generation(conversationId, requestJson, listener));
+            if (queue.size() == 1) {
+                start(queue.peek());
+            } else {
+                Log.d(TAG, "Queued behind " + (queue.size() - 1) + " generation(s) of conversation " + conversationId);
+            }
+        });
+    }
+
+    /**
+     * Cancel the running and queued generations of every conversation. Main thread only.
+     */
+    public void cancelAll() {
+        epoch++;
+        for (ArrayDeque<Generation> queue : queues.values()) {
+            for (Generation generation : queue) {
+                generation.cancel();
+            }
+        }
+        queues.clear();
+    }
+
+    /**
+     * The screen is gone for good: cancel everything and refuse new work. Main thread only.
+     */
+    public void shutdown() {
+        shutDown = true;
+        cancelAll();
+        // Sockets of the cancelled calls are closed; drop idle ones too, off the main thread
+        OkHttpClient client = httpClient();
+        client.dispatcher().executorService().execute(() -> client.connectionPool().evictAll());
+    }
+
+    private void start(Generation generation) {
+        long wait = notBeforeMs - SystemClock.uptimeMillis();
+        if (wait > 0) {
+            mainHandler.postAtTime(generation.startTask, generation, notBeforeMs);
+            return;
+        }
+        generation.attempt++;
+        generation.traceCookie = Tracing.beginAsync("chat.request");
+        generation.call = client.stream(generation.requestJson, generation);
+    }
+
+    /**
+     * Generation ended (or was given up on): let the next one of its conversation run
+     */
+    private void finish(Generation generation) {
+        ArrayDeque<Generation> queue = queues.get(generation.conversationId);
+        if (queue == null || queue.peek() != generation) {
+            return;
+        }
+        queue.poll();
+        if (queue.isEmpty()) {
+            queues.remove(generation.conversationId);
+        } else {
+            start(queue.peek());
+        }
+    }
+
+    private class Generation implements GroqChatClient.Listener {
+        final long conversationId;
+        final String requestJson;
+        final Listener listener;
+        final Runnable startTask = () -> start(this);
+        volatile boolean cancelled;
+        int attempt;
+        int traceCookie; // Async trace span of the attempt in flight, 0 when none
+        Call call;
+
+        Generation(long conversationId, String requestJson, Listener listener) {
+            this.conversationId = conversationId;
+            this.requestJson = requestJson;
+            this.listener = listener;
+        }
+
+        void cancel() {
+            cancelled = true;
+            mainHandler.removeCallbacksAndMessages(this);
+            if (call != null) {
+                call.cancel();
+            }
+            endTrace();
+        }
+
+        /**
+         * The attempt in flight ended. Main thread.
+         */
+        void endTrace() {
+            if (traceCookie != 0) {
+                Tracing.endAsync("chat.request", traceCookie);
+                traceCookie = 0;
+            }
+        }
+
+        @Override
+        public void onContent(CharSequence content) {
+            if (!cancelled) {
+                listener.onContent(content);
+            }
+        }
+
+        @Override
+        public void onComplete(boolean done) {
+            mainHandler.post(() -> {
+                if (!cancelled) {
+                    endTrace();
+                    finish(this);
+                    listener.onComplete(done);
+                }
+            });
+        }
+
+        @Override
+        public void onHttpError(int code, long retryAfterMs) {
+            mainHandler.post(() -> {
+                if (cancelled) {
+                    return;
+                }
+                endTrace();
+                if ((code == 429 || code == 503) && attempt < MAX_ATTEMPTS) {
+                    long delay = retryAfterMs >= 0 ? retryAfterMs : INITIAL_BACKOFF_MS << (attempt - 1);
+                    delay = Math.min(delay, MAX_RETRY_DELAY_MS);
+                    // Every request waits, not just this one
+                    notBeforeMs = Math.max(notBeforeMs, SystemClock.uptimeMillis() + delay);
+                    Log.d(TAG, "HTTP " + code + ", retry " + (attempt + 1) + " in " + delay + " ms");
+                    listener.onRetryScheduled(delay, attempt + 1);
+                    start(this);
+                    return;
+                }
+                finish(this);
+                listener.onHttpError(code, retryAfterMs);
+            });
+        }
+
+        @Override
+        public void onFailure(IOException e) {
+            mainHandler.post(() -> {
+                if (!cancelled) {
+                    endTrace();
+                    finish(this);
+                    listener.onFailure(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ensa_meal.chat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ChatTranscript - The messages of the chat screen, independent of any view
+ *
+ * Owned by the chat ViewModel so the conversation and the answer streaming into
+ * it survive configuration changes. The adapter currently showing it is attached
+ * as {@link Listener} and told about every change; while none is attached the
+ * messages keep changing and the next adapter binds them as they are.
+ *
+ * Main thread only.
+ */
+public class ChatTranscript {
+
+    /**
+     * Told where the transcript changed
+     */
+    public interface Listener {
+        void onMessagesInserted(int position, int count);
+
+        /** The message's text grew or it finished streaming */
+        void onMessageChanged(int position);
+
+        void onMessagesRemoved(int position, int count);
+    }
+
+    private final List<ChatMessage> messages = new ArrayList<>();
+    private Listener listener;
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Add a new message at the bottom of the transcript
+     */
+    public void add(ChatMessage message) {
+        messages.add(message);
+        if (listener != null) {
+            listener.onMessagesInserted(messages.size() - 1, 1);
+        }
+    }
+
+    /**
+     * Insert a block of messages (e.g. an older page of stored history)
+     */
+    public void insert(int position, List<ChatMessage> block) {
+        messages.addAll(position, block);
+        if (listener != null) {
+            listener.onMessagesInserted(position, block.size());
+        }
+    }
+
+    /**
+     * Remove every message
+     */
+    public void clear() {
+        int count = messages.size();
+        messages.clear();
+        if (listener != null) {
+            listener.onMessagesRemoved(0, count);
+        }
+    }
+
+    /**
+     * Append streamed content to the last message
+     */
+    public void appendToLast(CharSequence delta) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        int last = messages.size() - 1;
+        messages.get(last).append(delta);
+        if (listener != null) {
+            listener.onMessageChanged(last);
+        }
+    }
+
+    /**
+     * The last message finished streaming
+     */
+    public void finishLast() {
+        if (messages.isEmpty()) {
+            return;
+        }
+        int last = messages.size() - 1;
+        messages.get(last).finish();
+        if (listener != null) {
+            listener.onMessageChanged(last);
+        }
+    }
+
+    public ChatMessage get(int position) {
+        return messages.get(position);
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    public List<ChatMessage> getMessages() {
+        return Collections.unmodifiableList(messages);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.ensa_meal.chat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ConversationWindow - Picks what part of a conversation is sent with a request
+ *
+ * Newest turns are sent verbatim while they fit in the token budget. Turns that
+ * no longer fit are folded into a short extractive summary ("User asked: ...",
+ * "Chef answered: ...") that is stored with the conversation and sent instead.
+ * The summary itself is capped, dropping its oldest lines first.
+ *
+ * Token counts are estimates (about 4 characters per token), which is close
+ * enough to keep request size bounded.
+ */
+public final class ConversationWindow {
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int SUMMARY_LINE_CHARS = 120;
+
+    /**
+     * One stored message
+     */
+    public static final class Turn {
+        public final long id;
+        public final String role; // "user" or "assistant"
+        public final String content;
+
+        public Turn(long id, String role, String content) {
+            this.id = id;
+            this.role = role;
+            this.content = content;
+        }
+    }
+
+    /**
+     * What to send, plus the summary state to persist
+     */
+    public static final class Result {
+        /** Turns to send verbatim, oldest first */
+        public final List<Turn> verbatim;
+        /** Summary of everything older, null if nothing was folded yet */
+        public final String summary;
+        /** Last turn ID covered by {@link #summary} */
+        public final long summarizedThrough;
+        /** True if this window folded new turns into the summary */
+        public final boolean summaryChanged;
+
+        Result(List<Turn> verbatim, String summary, long summarizedThrough, boolean summaryChanged) {
+            this.verbatim = verbatim;
+            this.summary = summary;
+            this.summarizedThrough = summarizedThrough;
+            this.summaryChanged = summaryChanged;
+        }
+
+        public int estimatedTokens() {
+            int tokens = estimateTokens(summary);
+            for (Turn turn : verbatim) {
+                tokens += estimateTokens(turn.content);
+            }
+            return tokens;
+        }
+    }
+
+    private final int historyBudget;
+    private final int summaryBudget;
+
+    /**
+     * @param historyBudget Tokens available for verbatim turns
+     * @param summaryBudget Tokens available for the summary of older turns
+     */
+    public ConversationWindow(int historyBudget, int summaryBudget) {
+        this.historyBudget = historyBudget;
+        this.summaryBudget = summaryBudget;
+    }
+
+    public static int estimateTokens(CharSequence text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * @param summary Stored summary, or null
+     * @param summarizedThrough Last turn ID the stored summary covers
+     * @param turns Turns after {@code summarizedThrough}, oldest first
+     */
+    public Result build(String summary, long summarizedThrough, List<Turn> turns) {
+        // Newest first, while the budget lasts; the latest turn is always sent
+        int tokens = 0;
+        int firstVerbatim = turns.size();
+        for (int i = turns.size() - 1; i >= 0; i--) {
+            int cost = estimateTokens(turns.get(i).content);
+            if (firstVerbatim < turns.size() && tokens + cost > historyBudget) {
+                break;
+            }
+            tokens += cost;
+            firstVerbatim = i;
+        }
+        List<Turn> verbatim = new ArrayList<>(turns.subList(firstVerbatim, turns.size()));
+        if (firstVerbatim == 0) {
+            return new Result(verbatim, summary, summarizedThrough, false);
+        }
+
+        List<String> lines = new ArrayList<>();
+        if (summary != null && !summary.isEmpty()) {
+            Collections.addAll(lines, summary.split("\n"));
+        }
+        for (int i = 0; i < firstVerbatim; i++) {
+            lines.add(summarize(turns.get(i)));
+        }
+        int summaryTokens = 0;
+        for (String line : lines) {
+            summaryTokens += estimateTokens(line) + 1;
+        }
+        while (lines.size() > 1 && summaryTokens > summaryBudget) {
+            summaryTokens -= estimateTokens(lines.remove(0)) + 1;
+        }
+        return new Result(verbatim, String.join("\n", lines), turns.get(firstVerbatim - 1).id, true);
+    }
+
+    /**
+     * One line per folded turn: its first sentence, shortened
+     */
+    static String summarize(Turn turn) {
+        String text = turn.content.trim();
+        int end = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || ((c == '.' || c == '!' || c == '?') && i > 0)) {
+                end = c == '\n' ? i : i + 1;
+                break;
+            }
+        }
+        String sentence = text.substring(0, end).trim();
+        if (sentence.length() > SUMMARY_LINE_CHARS) {
+            sentence = sentence.substring(0, SUMMARY_LINE_CHARS - 3) + "...";
+        }
+        return ("user".equals(turn.role) ? "User asked: " : "Chef answered: ") + sentence;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ensa_meal.chat;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.FavoriteDao;
+import com.example.ensa_meal.database.FavoriteEntity;
+import com.example.ensa_meal.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FavoritesPromptCache - System prompts built from the favorites relevant to a question
+ *
+ * The favorites are read and indexed once, then ranked per question by
+ * {@link FavoritesRanker}. Rendered prompts are kept per selection of favorites,
+ * so asking about the same meals again reuses the same string.
+ *
+ * A Room observer on the favorites table drops the index and the prompts when
+ * favorites are added, removed, rated or commented; nothing is rebuilt otherwise.
+ * {@link #systemPrompt} reads the database: call it on AppExecutors.diskIO().
+ */
+public final class FavoritesPromptCache {
+
+    private static final String TAG = "FavoritesPromptCache";
+    private static final int TOP_K = 8;
+    private static final int MAX_CACHED_PROMPTS = 8;
+
+    private static FavoritesPromptCache instance;
+
+    private final FavoriteDao favoriteDao;
+    private final Map<String, String> prompts = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED_PROMPTS;
+        }
+    };
+    private FavoritesRanker ranker;
+    private volatile int version; // Bumped by the observer, compared against builtVersion
+    private int builtVersion = -1;
+
+    private FavoritesPromptCache(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        favoriteDao = database.favoriteDao();
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("favorites") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                version++;
+            }
+        });
+    }
+
+    public static synchronized FavoritesPromptCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new FavoritesPromptCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * System prompt for {@code question}, with at most {@link #TOP_K} favorites
+     */
+    public synchronized String systemPrompt(String question) {
+        int current = version;
+        if (ranker == null || builtVersion != current) {
+            long start = System.currentTimeMillis();
+            List<FavoriteEntity> favorites = Metrics.histogram("db.favorites.all").time(favoriteDao::getAllFavorites);
+            List<FavoritesRanker.Entry> entries = new ArrayList<>(favorites.size());
+            for (FavoriteEntity fav : favorites) {
+                entries.add(new FavoritesRanker.Entry(fav.getMealName(), fav.getUserComment(),
+                        fav.getUserRating(), fav.getAddedTimestamp()));
+            }
+            ranker = new FavoritesRanker(entries);
+            prompts.clear();
+            builtVersion = current;
+            Log.d(TAG, "Indexed " + entries.size() + " favorites in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+
+        List<FavoritesRanker.Entry> picked = ranker.topK(question, TOP_K);
+        StringBuilder key = new StringBuilder();
+        for (FavoritesRanker.Entry entry : picked) {
+            key.append(entry.name).append('\u0000').append(entry.comment).append('\u0000');
+        }
+        String cacheKey = key.toString();
+        String prompt = prompts.get(cacheKey);
+        if (prompt == null) {
+            prompt = ChefPrompt.build(ChefPrompt.buildFavoritesContext(picked, ranker.size()));
+            prompts.put(cacheKey, prompt);
+        }
+        return prompt;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.ensa_meal.chat;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.example.ensa_meal.metrics.LatencyHistogram;
+import com.example.ensa_meal.metrics.Metrics;
+import com.example.ensa_meal.metrics.Tracing;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * FramePacedTextSink - Batches streamed deltas and hands them to the UI once per frame
+ *
+ * The network reader thread calls {@link #offer} for every delta; deltas are buffered
+ * and flushed to the main thread from a Choreographer frame callback, so no matter how
+ * fast tokens arrive the UI sees at most one update per display frame.
+ *
+ * Also measures the stream: time-to-first-token, tokens/sec and UI-thread time per flush.
+ * Time-to-first-token goes to "chat.ttft", network streams only, unless
+ * {@link #setTimeToFirstTokenMetric} names another histogram for a replayed or local answer.
+ */
+public class FramePacedTextSink implements Choreographer.FrameCallback {
+
+    private static final String TAG = "FramePacedTextSink";
+    private static final LatencyHistogram TTFT = Metrics.histogram("chat.ttft");
+    private static final LatencyHistogram FLUSH_TIME = Metrics.histogram("chat.flush");
+
+    private final Consumer<CharSequence> uiConsumer;
+    private final Choreographer choreographer;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private final StringBuilder pending = new StringBuilder();
+    private boolean frameScheduled;
+    private int tokens;
+    private long requestStartMs;
+    private long firstTokenMs;
+    private long lastTokenMs;
+    private LatencyHistogram ttftHistogram = TTFT;
+
+    // Main thread only
+    private int flushes;
+    private long flushNanosTotal;
+    private long flushNanosMax;
+
+    /**
+     * Must be created on the main thread
+     * @param uiConsumer Receives the batched text on the main thread
+     */
+    public FramePacedTextSink(Consumer<CharSequence> uiConsumer) {
+        this.uiConsumer = uiConsumer;
+        this.choreographer = Choreographer.getInstance();
+    }
+
+    /**
+     * Mark when the request was sent, the reference point for time-to-first-token
+     */
+    public void markRequestStart() {
+        synchronized (lock) {
+            requestStartMs = SystemClock.elapsedRealtime();
+        }
+    }
+
+    /**
+     * Record time-to-first-token in {@code name} instead of "chat.ttft", for answers
+     * that do not come from the network; call before the first {@link #offer}
+     */
+    public void setTimeToFirstTokenMetric(String name) {
+        synchronized (lock) {
+            ttftHistogram = Metrics.histogram(name);
+        }
+    }
+
+    /**
+     * Buffer a delta; safe to call from any thread
+     */
+    public void offer(CharSequence delta) {
+        boolean schedule;
+        synchronized (lock) {
+            long now = SystemClock.elapsedRealtime();
+            if (tokens == 0) {
+                firstTokenMs = now;
+            }
+            lastTokenMs = now;
+            tokens++;
+            pending.append(delta);
+            schedule = !frameScheduled;
+            frameScheduled = true;
+        }
+        if (schedule) {
+            mainHandler.post(() -> choreographer.postFrameCallback(this));
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        flush();
+    }
+
+    private void flush() {
+        String chunk;
+        synchronized (lock) {
+            frameScheduled = false;
+            if (pending.length() == 0) {
+                return;
+            }
+            chunk = pending.toString();
+            pending.setLength(0);
+        }
+        long start = System.nanoTime();
+        Tracing.begin("updateStreamingText");
+        uiConsumer.accept(chunk);
+        Tracing.end();
+        long elapsed = System.nanoTime() - start;
+        FLUSH_TIME.recordNanos(elapsed);
+        flushes++;
+        flushNanosTotal += elapsed;
+        flushNanosMax = Math.max(flushNanosMax, elapsed);
+    }
+
+    /**
+     * End of stream: flush what is left, log the stream stats, then run {@code onDone}
+     * on the main thread. Safe to call from any thread.
+     */
+    public void finish(Runnable onDone) {
+        mainHandler.post(() -> {
+            choreographer.removeFrameCallback(this);
+            flush();
+            long ttft = getTimeToFirstTokenMs();
+            if (ttft >= 0) {
+                LatencyHistogram histogram;
+                synchronized (lock) {
+                    histogram = ttftHistogram;
+                }
+                histogram.record(ttft * 1000);
+            }
+            Log.d(TAG, describeStats());
+            onDone.run();
+        });
+    }
+
+    /**
+     * Time from request start to the first delta, or -1 if none arrived
+     */
+    public long getTimeToFirstTokenMs() {
+        synchronized (lock) {
+            return tokens == 0 ? -1 : firstTokenMs - requestStartMs;
+        }
+    }
+
+    /**
+     * Delta rate between the first and the last delta
+     */
+    public double getTokensPerSecond() {
+        synchronized (lock) {
+            long span = lastTokenMs - firstTokenMs;
+            return span > 0 ? (tokens - 1) * 1000.0 / span : 0;
+        }
+    }
+
+    /**
+     * Average main-thread time spent handing one batch to the UI
+     */
+    public double getAverageFlushMs() {
+        return flushes == 0 ? 0 : flushNanosTotal / 1e6 / flushes;
+    }
+
+    public double getMaxFlushMs() {
+        return flushNanosMax / 1e6;
+    }
+
+    public String describeStats() {
+        int tokenCount;
+        synchronized (lock) {
+            tokenCount = tokens;
+        }
+        return String.format(Locale.US,
+                "TTFT %d ms, %d tokens at %.1f tokens/s, %d flushes, UI %.2f ms avg / %.2f ms max per flush",
+                getTimeToFirstTokenMs(), tokenCount, getTokensPerSecond(), flushes,
+                getAverageFlushMs(), getMaxFlushMs());
+    }
+}
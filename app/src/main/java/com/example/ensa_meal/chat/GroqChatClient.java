@@ -0,0 +1,116 @@
+package com.example.ensa_meal.chat;
+
+import java.io.IOException;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * GroqChatClient - Streams chat completions from an OpenAI-compatible endpoint
+ *
+ * The base URL is injected, so the same client talks to Groq in the app and to a
+ * local stand-in in tests and benchmarks. Content deltas are parsed straight off
+ * the socket by {@link SseContentParser}.
+ *
+ * Listener methods run on OkHttp's dispatcher thread.
+ */
+public class GroqChatClient {
+
+    public static final String DEFAULT_BASE_URL = "https://api.groq.com/openai/v1/";
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    /**
+     * Receives one streamed answer
+     */
+    public interface Listener {
+        /** A content delta; the parser reuses the buffer, copy it to keep it */
+        void onContent(CharSequence content);
+
+        /** Stream ended; {@code done} is false if it ended without [DONE] */
+        void onComplete(boolean done);
+
+        /**
+         * Non-2xx answer
+         * @param retryAfterMs Retry-After of a 429/503 in milliseconds, -1 if absent
+         */
+        void onHttpError(int code, long retryAfterMs);
+
+        /** Connection failed or the stream broke off */
+        void onFailure(IOException e);
+    }
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final String apiKey;
+
+    /**
+     * @param baseUrl API root ending with a slash, e.g. {@link #DEFAULT_BASE_URL}
+     * @param apiKey Bearer token; may be empty for a local stand-in
+     */
+    public GroqChatClient(OkHttpClient client, String baseUrl, String apiKey) {
+        this.client = client;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.apiKey = apiKey;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Send a streaming chat completion request
+     * @param requestJson Request body with "stream": true
+     * @return The call, so the caller can cancel it
+     */
+    public Call stream(String requestJson, Listener listener) {
+        Request.Builder builder = new Request.Builder()
+                .url(baseUrl + "chat/completions")
+                .post(RequestBody.create(requestJson, JSON));
+        if (apiKey != null && !apiKey.isEmpty()) {
+            builder.addHeader("Authorization", "Bearer " + apiKey);
+        }
+
+        Call call = client.newCall(builder.build());
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                listener.onFailure(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (ResponseBody body = response.body()) {
+                    if (!response.isSuccessful()) {
+                        listener.onHttpError(response.code(), parseRetryAfter(response.header("Retry-After")));
+                        return;
+                    }
+                    SseContentParser parser = new SseContentParser(listener::onContent);
+                    listener.onComplete(parser.parse(body.source()));
+                } catch (IOException e) {
+                    listener.onFailure(e);
+                }
+            }
+        });
+        return call;
+    }
+
+    /**
+     * Retry-After in delay-seconds form; the HTTP-date form is not used by Groq
+     */
+    static long parseRetryAfter(String header) {
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, (long) (Double.parseDouble(header.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.ensa_meal.chat;
+
+import android.content.res.Resources;
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.BulletSpan;
+import android.text.style.LeadingMarginSpan;
+import android.text.style.RelativeSizeSpan;
+import android.text.style.StyleSpan;
+import android.text.style.TypefaceSpan;
+
+/**
+ * MarkdownSpanRenderer - Streams Markdown into a SpannableStringBuilder
+ *
+ * Deltas go through a {@link MarkdownStreamParser}; its events append plain text
+ * to the end of the builder and attach spans to it. A span is attached when its
+ * construct opens, growing with the text appended after it, and pinned to its
+ * final range when the construct closes. Text before the current line is never
+ * touched again, so each delta costs time proportional to its own length.
+ *
+ * - Bullets: BulletSpan (plus a margin for nested items)
+ * - Numbered items: the number, then a hanging indent
+ * - Headings: bold, slightly larger
+ * - **bold**, *italic*, `code`: style and monospace spans
+ */
+public class MarkdownSpanRenderer implements MarkdownStreamParser.Sink {
+
+    // Grows with text appended at its end while the construct is open. Inclusive at
+    // both ends: a zero-length EXCLUSIVE_INCLUSIVE span does not grow. Text is only
+    // ever appended, so the inclusive start never pulls in earlier text.
+    private static final int OPEN = Spanned.SPAN_INCLUSIVE_INCLUSIVE;
+    private static final int CLOSED = Spanned.SPAN_EXCLUSIVE_EXCLUSIVE;
+
+    private final SpannableStringBuilder target;
+    private final MarkdownStreamParser parser = new MarkdownStreamParser(this);
+    private final int indentPx;
+    private final int bulletGapPx;
+
+    private final Object[] blockSpans = new Object[2];
+    private int blockStart;
+    private final Object[] inlineSpans = new Object[MarkdownStreamParser.Inline.values().length];
+    private final int[] inlineStarts = new int[inlineSpans.length];
+
+    public MarkdownSpanRenderer(SpannableStringBuilder target) {
+        this.target = target;
+        float density = Resources.getSystem().getDisplayMetrics().density;
+        this.indentPx = Math.round(12 * density);
+        this.bulletGapPx = Math.round(8 * density);
+    }
+
+    /**
+     * Render the next delta at the end of the target
+     */
+    public void append(CharSequence delta) {
+        parser.feed(delta);
+    }
+
+    /**
+     * End of the answer: render held-back characters and pin every open span
+     */
+    public void finish() {
+        parser.finish();
+        closeBlock();
+    }
+
+    @Override
+    public void text(CharSequence text) {
+        target.append(text);
+    }
+
+    @Override
+    public void blockStart(MarkdownStreamParser.Block block, int number, int indent) {
+        blockStart = target.length();
+        int margin = indent / 2 * indentPx;
+        switch (block) {
+            case BULLET:
+                if (margin > 0) {
+                    blockSpans[0] = new LeadingMarginSpan.Standard(margin);
+                }
+                blockSpans[1] = new BulletSpan(bulletGapPx);
+                break;
+            case NUMBERED:
+                blockSpans[0] = new LeadingMarginSpan.Standard(margin, margin + 2 * indentPx);
+                break;
+            case HEADING:
+                blockSpans[0] = new StyleSpan(Typeface.BOLD);
+                blockSpans[1] = new RelativeSizeSpan(number <= 2 ? 1.2f : 1.1f);
+                break;
+            default:
+                return;
+        }
+        for (Object span : blockSpans) {
+            if (span != null) {
+                target.setSpan(span, blockStart, blockStart, OPEN);
+            }
+        }
+        if (block == MarkdownStreamParser.Block.NUMBERED) {
+            target.append(String.valueOf(number)).append(". ");
+        }
+    }
+
+    @Override
+    public void lineEnd() {
+        target.append('\n');
+        closeBlock();
+    }
+
+    @Override
+    public void inlineStart(MarkdownStreamParser.Inline style) {
+        Object span;
+        switch (style) {
+            case BOLD:
+                span = new StyleSpan(Typeface.BOLD);
+                break;
+            case ITALIC:
+                span = new StyleSpan(Typeface.ITALIC);
+                break;
+            default:
+                span = new TypefaceSpan("monospace");
+        }
+        int start = target.length();
+        inlineSpans[style.ordinal()] = span;
+        inlineStarts[style.ordinal()] = start;
+        target.setSpan(span, start, start, OPEN);
+    }
+
+    @Override
+    public void inlineEnd(MarkdownStreamParser.Inline style) {
+        Object span = inlineSpans[style.ordinal()];
+        if (span != null) {
+            pin(span, inlineStarts[style.ordinal()]);
+            inlineSpans[style.ordinal()] = null;
+        }
+    }
+
+    private void closeBlock() {
+        for (int i = 0; i < blockSpans.length; i++) {
+            if (blockSpans[i] != null) {
+                pin(blockSpans[i], blockStart);
+                blockSpans[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Fix a span to end at the current end of the text; drop it if it is empty
+     */
+    private void pin(Object span, int start) {
+        int end = target.length();
+        if (end > start) {
+            target.setSpan(span, start, end, CLOSED);
+        } else {
+            target.removeSpan(span);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.ensa_meal.chat;
+
+/**
+ * MarkdownStreamParser - Markdown subset parsed as it streams in
+ *
+ * Handles what the Chef prompt asks for: bullets ("- ", "* ", "+ "), numbered
+ * items ("1. ", "2) "), headings ("# ".."###### "), **bold**, *italic* and
+ * `code`. Deltas can be cut anywhere: characters whose meaning depends on what
+ * follows (a line's first characters, a trailing "*") are held back until the
+ * next delta or {@link #finish()}, everything else is passed on immediately.
+ *
+ * The parser only reports structure to its {@link Sink}; it never looks back at
+ * text it already emitted, so each delta costs time proportional to its length.
+ */
+public class MarkdownStreamParser {
+
+    public enum Block {
+        PARAGRAPH,
+        BULLET,
+        NUMBERED,
+        HEADING
+    }
+
+    public enum Inline {
+        BOLD,
+        ITALIC,
+        CODE
+    }
+
+    /**
+     * Receives the parsed structure in text order
+     */
+    public interface Sink {
+        /** Visible text, never containing a newline */
+        void text(CharSequence text);
+
+        /**
+         * A line starts. The marker itself is not part of the text.
+         * @param number Item number for NUMBERED, heading level for HEADING, else 0
+         * @param indent Leading spaces of the line
+         */
+        void blockStart(Block block, int number, int indent);
+
+        /** The current line ends; open inline styles were closed just before */
+        void lineEnd();
+
+        void inlineStart(Inline style);
+
+        void inlineEnd(Inline style);
+    }
+
+    private static final int MAX_MARKER = 12; // Longest line prefix held back ("    123456. ")
+
+    private final Sink sink;
+    private final StringBuilder run = new StringBuilder(); // Plain text not yet passed on
+    private final StringBuilder linePrefix = new StringBuilder(); // Undecided start of a line
+    private boolean atLineStart = true;
+    private boolean blockOpen;
+    private int pendingStars; // Trailing '*' whose meaning depends on the next character
+    private char previous = '\n';
+    private boolean bold;
+    private boolean italic;
+    private boolean code;
+
+    public MarkdownStreamParser(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Parse the next delta
+     */
+    public void feed(CharSequence delta) {
+        for (int i = 0; i < delta.length(); i++) {
+            char c = delta.charAt(i);
+            if (c == '\r') {
+                continue;
+            }
+            if (atLineStart) {
+                linePrefix.append(c);
+                decideLineStart(false);
+            } else {
+                inline(c);
+            }
+        }
+        flushRun();
+    }
+
+    /**
+     * End of the stream: resolve anything still held back and close open styles
+     */
+    public void finish() {
+        if (atLineStart && linePrefix.length() > 0) {
+            decideLineStart(true);
+        }
+        resolveStars('\n');
+        flushRun();
+        closeInline();
+    }
+
+    /**
+     * Try to classify the current line from its held-back prefix
+     * @param force Classify now even if more characters could change the outcome
+     */
+    private void decideLineStart(boolean force) {
+        String prefix = linePrefix.toString();
+        int length = prefix.length();
+        char last = prefix.charAt(length - 1);
+        if (last == '\n') {
+            // Line ended while undecided: it is plain text
+            startBlock(Block.PARAGRAPH, 0, 0, prefix.substring(0, length - 1), true);
+            return;
+        }
+
+        int indent = 0;
+        while (indent < length && prefix.charAt(indent) == ' ') {
+            indent++;
+        }
+        if (indent == length) {
+            if (force) {
+                startBlock(Block.PARAGRAPH, 0, 0, prefix, false);
+            }
+            return; // Only spaces so far
+        }
+
+        char first = prefix.charAt(indent);
+        int markerEnd = -1; // Index after the marker and its space, once known
+        Block block = Block.PARAGRAPH;
+        int number = 0;
+        boolean undecided = false;
+
+        if (first == '-' || first == '*' || first == '+') {
+            if (length == indent + 1) {
+                undecided = true;
+            } else if (prefix.charAt(indent + 1) == ' ') {
+                block = Block.BULLET;
+                markerEnd = indent + 2;
+            }
+        } else if (first == '#') {
+            int hashes = indent;
+            while (hashes < length && prefix.charAt(hashes) == '#') {
+                hashes++;
+            }
+            int level = hashes - indent;
+            if (hashes == length) {
+                undecided = level <= 6;
+            } else if (prefix.charAt(hashes) == ' ' && level <= 6) {
+                block = Block.HEADING;
+                number = level;
+                markerEnd = hashes + 1;
+            }
+        } else if (first >= '0' && first <= '9') {
+            int digits = indent;
+            while (digits < length && Character.isDigit(prefix.charAt(digits))) {
+                digits++;
+            }
+            if (digits == length) {
+                undecided = digits - indent < 6;
+            } else if (prefix.charAt(digits) == '.' || prefix.charAt(digits) == ')') {
+                if (digits + 1 == length) {
+                    undecided = true;
+                } else if (prefix.charAt(digits + 1) == ' ') {
+                    block = Block.NUMBERED;
+                    number = Integer.parseInt(prefix.substring(indent, digits));
+                    markerEnd = digits + 2;
+                }
+            }
+        }
+
+        if (undecided && !force && length < MAX_MARKER) {
+            return;
+        }
+        if (markerEnd > 0) {
+            startBlock(block, number, indent, prefix.substring(markerEnd), false);
+        } else {
+            startBlock(Block.PARAGRAPH, 0, indent, prefix.substring(indent), false);
+        }
+    }
+
+    private void startBlock(Block block, int number, int indent, String rest, boolean endLine) {
+        linePrefix.setLength(0);
+        atLineStart = false;
+        blockOpen = true;
+        sink.blockStart(block, number, indent);
+        previous = ' ';
+        for (int i = 0; i < rest.length(); i++) {
+            inline(rest.charAt(i));
+        }
+        if (endLine) {
+            inline('\n');
+        }
+    }
+
+    private void inline(char c) {
+        if (c == '*' && !code) {
+            pendingStars++;
+            return;
+        }
+        resolveStars(c);
+
+        if (c == '\n') {
+            flushRun();
+            closeInline();
+            if (!blockOpen) {
+                sink.blockStart(Block.PARAGRAPH, 0, 0); // Empty line
+            }
+            sink.lineEnd();
+            blockOpen = false;
+            atLineStart = true;
+            previous = '\n';
+            return;
+        }
+        if (c == '`') {
+            flushRun();
+            code = !code;
+            if (code) {
+                sink.inlineStart(Inline.CODE);
+            } else {
+                sink.inlineEnd(Inline.CODE);
+            }
+        } else {
+            run.append(c);
+        }
+        previous = c;
+    }
+
+    /**
+     * Decide what held-back stars mean now that {@code next} is known
+     */
+    private void resolveStars(char next) {
+        while (pendingStars > 0) {
+            boolean canOpen = next != ' ' && next != '\n';
+            boolean canClose = previous != ' ';
+            if (pendingStars >= 2 && (bold ? canClose : canOpen)) {
+                pendingStars -= 2;
+                toggle(Inline.BOLD);
+            } else if (italic ? canClose : canOpen) {
+                pendingStars -= 1;
+                toggle(Inline.ITALIC);
+            } else {
+                // Literal star, e.g. "2 * 3"
+                pendingStars -= 1;
+                run.append('*');
+                previous = '*';
+            }
+        }
+    }
+
+    private void toggle(Inline style) {
+        flushRun();
+        boolean open = style == Inline.BOLD ? (bold = !bold) : (italic = !italic);
+        if (open) {
+            sink.inlineStart(style);
+        } else {
+            sink.inlineEnd(style);
+        }
+    }
+
+    /**
+     * Styles do not carry over to the next line, an unmatched "**" only affects its own line
+     */
+    private void closeInline() {
+        if (code) {
+            code = false;
+            sink.inlineEnd(Inline.CODE);
+        }
+        if (italic) {
+            italic = false;
+            sink.inlineEnd(Inline.ITALIC);
+        }
+        if (bold) {
+            bold = false;
+            sink.inlineEnd(Inline.BOLD);
+        }
+    }
+
+    private void flushRun() {
+        if (run.length() > 0) {
+            sink.text(run.toString());
+            run.setLength(0);
+        }
+    }
+}
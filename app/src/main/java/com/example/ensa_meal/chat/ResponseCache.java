@@ -0,0 +1,152 @@
+package com.example.ensa_meal.chat;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.ensa_meal.database.AppDatabase;
+import com.example.ensa_meal.database.ResponseCacheDao;
+import com.example.ensa_meal.database.ResponseCacheEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResponseCache - Complete AI answers kept on disk for repeated questions
+ *
+ * An answer is stored under a SHA-256 of the normalized question, the conversation
+ * sent before it (summary plus earlier turns) and the system prompt, which carries
+ * the favorites picked for the question. Asking the same thing in the same context
+ * is answered from disk; anything else goes to the network.
+ *
+ * Entries expire after {@link #TTL_MS} and the least recently used ones are evicted
+ * past {@link #MAX_ENTRIES}. Hit ratio and the latency saved by hits are kept for
+ * the process lifetime and logged.
+ *
+ * {@link #lookup} and {@link #store} hit the database: call them on AppExecutors.diskIO().
+ */
+public final class ResponseCache {
+
+    private static final String TAG = "ResponseCache";
+    private static final long TTL_MS = TimeUnit.DAYS.toMillis(7);
+    private static final int MAX_ENTRIES = 200;
+
+    private static ResponseCache instance;
+
+    private final ResponseCacheDao dao;
+
+    // Stats, guarded by this
+    private int hits;
+    private int misses;
+    private long savedMs;
+
+    private ResponseCache(Context context) {
+        dao = AppDatabase.getInstance(context).responseCacheDao();
+    }
+
+    public static synchronized ResponseCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ResponseCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Cache key of a request
+     * @param question The question being asked
+     * @param window Conversation window sent with it; its last turn is the question itself
+     * @param systemPrompt System prompt sent with it
+     */
+    public static String keyFor(String question, ConversationWindow.Result window, String systemPrompt) {
+        StringBuilder prefix = new StringBuilder();
+        if (window.summary != null) {
+            prefix.append(window.summary);
+        }
+        prefix.append('\u0000');
+        for (int i = 0; i < window.verbatim.size() - 1; i++) {
+            ConversationWindow.Turn turn = window.verbatim.get(i);
+            prefix.append(turn.role).append(':').append(turn.content).append('\u0000');
+        }
+        return sha256(normalize(question) + '\u0000' + sha256(prefix.toString()) + '\u0000' + sha256(systemPrompt));
+    }
+
+    /**
+     * Lower case, single spaces, no trailing punctuation: "What to cook? " and
+     * "what to  cook" are the same question
+     */
+    static String normalize(String question) {
+        String normalized = question.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        int end = normalized.length();
+        while (end > 0 && "?!.,;: ".indexOf(normalized.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return normalized.substring(0, end);
+    }
+
+    /**
+     * Stored answer for {@code key}, or null on a miss
+     */
+    public ResponseCacheEntity lookup(String key) {
+        long now = System.currentTimeMillis();
+        ResponseCacheEntity entry = dao.get(key, now - TTL_MS);
+        synchronized (this) {
+            if (entry != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (entry != null) {
+            dao.touch(key, now);
+        }
+        return entry;
+    }
+
+    /**
+     * Record that a hit was replayed in {@code replayMs} instead of the stored network time
+     */
+    public void onReplayed(ResponseCacheEntity entry, long replayMs) {
+        String stats;
+        synchronized (this) {
+            savedMs += Math.max(0, entry.getLatencyMs() - replayMs);
+            stats = describeStats();
+        }
+        Log.d(TAG, "Replayed cached answer in " + replayMs + " ms (network took "
+                + entry.getLatencyMs() + " ms); " + stats);
+    }
+
+    /**
+     * Store a complete answer and evict expired and least recently used ones
+     * @param latencyMs Time from sending the request to the end of the stream
+     */
+    public void store(String key, String response, long latencyMs) {
+        long now = System.currentTimeMillis();
+        dao.insert(new ResponseCacheEntity(key, response, now, now, latencyMs, 0));
+        int expired = dao.deleteExpired(now - TTL_MS);
+        int evicted = dao.trimToSize(MAX_ENTRIES);
+        if (expired + evicted > 0) {
+            Log.d(TAG, "Dropped " + expired + " expired and " + evicted + " least recently used answers");
+        }
+    }
+
+    public synchronized String describeStats() {
+        int lookups = hits + misses;
+        return String.format(Locale.US, "hits %d/%d (%.0f%%), saved %d ms",
+                hits, lookups, lookups == 0 ? 0f : 100f * hits / lookups, savedMs);
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
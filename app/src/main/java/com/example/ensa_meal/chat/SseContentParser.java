@@ -0,0 +1,278 @@
+package com.example.ensa_meal.chat;
+
+import java.io.IOException;
+
+import okio.BufferedSource;
+
+/**
+ * SseContentParser - Server-sent-events reader for OpenAI-style chat streams
+ *
+ * Reads "data:" events straight from the response's byte source and pulls out
+ * {@code choices[0].delta.content} by scanning the event bytes, without building a
+ * JSON tree or per-line Strings. Line, event and content buffers are reused, so once
+ * they have grown to the largest event a chunk costs no allocation.
+ *
+ * Handles:
+ * - events split across several "data:" lines (joined with '\n' as the SSE spec says)
+ * - LF and CRLF line endings, ":" comment lines and other fields (ignored)
+ * - the "[DONE]" sentinel, after which nothing else is read
+ *
+ * Not thread-safe; use one instance per stream.
+ */
+public final class SseContentParser {
+
+    /**
+     * Receives decoded content deltas
+     */
+    public interface Listener {
+        /**
+         * @param content The delta. Only valid during the call, copy it if it is kept.
+         */
+        void onContent(CharSequence content);
+    }
+
+    private static final byte[] DATA_FIELD = {'d', 'a', 't', 'a'};
+    private static final byte[] DONE = {'[', 'D', 'O', 'N', 'E', ']'};
+    private static final byte[] DELTA_KEY = {'"', 'd', 'e', 'l', 't', 'a', '"'};
+    private static final byte[] CONTENT_KEY = {'"', 'c', 'o', 'n', 't', 'e', 'n', 't', '"'};
+
+    private final Listener listener;
+    private byte[] line = new byte[512];
+    private byte[] event = new byte[512];
+    private int eventLength;
+    private boolean eventHasData;
+    private final StringBuilder content = new StringBuilder(64);
+
+    public SseContentParser(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Read events until "[DONE]" or the end of the stream
+     * @return true if the stream was terminated by "[DONE]"
+     */
+    public boolean parse(BufferedSource source) throws IOException {
+        eventLength = 0;
+        eventHasData = false;
+        while (true) {
+            long newline = source.indexOf((byte) '\n');
+            int length = (int) (newline == -1 ? source.getBuffer().size() : newline);
+            readLine(source, length);
+            if (newline != -1) {
+                source.skip(1);
+            }
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+
+            if (length == 0) {
+                // Blank line: end of event
+                if (dispatchEvent()) {
+                    return true;
+                }
+            } else {
+                handleLine(length);
+            }
+
+            if (newline == -1) {
+                // Stream ended without a trailing blank line, don't drop the last event
+                return dispatchEvent();
+            }
+        }
+    }
+
+    private void readLine(BufferedSource source, int length) throws IOException {
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        int offset = 0;
+        while (offset < length) {
+            int read = source.read(line, offset, length - offset);
+            if (read == -1) {
+                throw new IOException("Stream ended inside a line");
+            }
+            offset += read;
+        }
+    }
+
+    private void handleLine(int length) {
+        if (line[0] == ':') {
+            return; // Comment / keep-alive
+        }
+        if (!startsWith(line, 0, length, DATA_FIELD)) {
+            return;
+        }
+        int valueStart;
+        if (length == DATA_FIELD.length) {
+            valueStart = length;
+        } else if (line[DATA_FIELD.length] == ':') {
+            valueStart = DATA_FIELD.length + 1;
+            if (valueStart < length && line[valueStart] == ' ') {
+                valueStart++;
+            }
+        } else {
+            return; // Some other field that starts with "data"
+        }
+
+        int valueLength = length - valueStart;
+        int needed = eventLength + valueLength + 1;
+        if (event.length < needed) {
+            byte[] grown = new byte[Math.max(needed, event.length * 2)];
+            System.arraycopy(event, 0, grown, 0, eventLength);
+            event = grown;
+        }
+        if (eventHasData) {
+            event[eventLength++] = '\n';
+        }
+        System.arraycopy(line, valueStart, event, eventLength, valueLength);
+        eventLength += valueLength;
+        eventHasData = true;
+    }
+
+    /**
+     * @return true if the event was the "[DONE]" sentinel
+     */
+    private boolean dispatchEvent() {
+        if (!eventHasData) {
+            return false;
+        }
+        int length = eventLength;
+        eventLength = 0;
+        eventHasData = false;
+
+        int start = skipWhitespace(event, 0, length);
+        if (startsWith(event, start, length, DONE)
+                && skipWhitespace(event, start + DONE.length, length) == length) {
+            return true;
+        }
+        if (extractContent(length) && content.length() > 0) {
+            listener.onContent(content);
+        }
+        return false;
+    }
+
+    /**
+     * Find "delta" then its "content" string and decode it into {@link #content}
+     */
+    private boolean extractContent(int length) {
+        int delta = indexOfKey(event, 0, length, DELTA_KEY);
+        if (delta == -1) {
+            return false;
+        }
+        int value = indexOfKey(event, delta, length, CONTENT_KEY);
+        if (value == -1 || event[value] != '"') {
+            return false; // Missing or null content
+        }
+        return decodeString(value + 1, length);
+    }
+
+    /**
+     * Locate {@code "key"} followed by a colon, starting at {@code from}
+     * @return Index of the first byte of the value, or -1
+     */
+    private static int indexOfKey(byte[] bytes, int from, int length, byte[] key) {
+        int last = length - key.length;
+        for (int i = from; i <= last; i++) {
+            if (bytes[i] != key[0] || !startsWith(bytes, i, length, key)) {
+                continue;
+            }
+            int colon = skipWhitespace(bytes, i + key.length, length);
+            if (colon < length && bytes[colon] == ':') {
+                return skipWhitespace(bytes, colon + 1, length);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decode a JSON string body (UTF-8 with escapes) that starts at {@code from}
+     */
+    private boolean decodeString(int from, int length) {
+        content.setLength(0);
+        int i = from;
+        while (i < length) {
+            int b = event[i] & 0xFF;
+            if (b == '"') {
+                return true;
+            }
+            if (b == '\\') {
+                if (i + 1 >= length) {
+                    return false;
+                }
+                byte escaped = event[i + 1];
+                i += 2;
+                switch (escaped) {
+                    case 'n': content.append('\n'); break;
+                    case 't': content.append('\t'); break;
+                    case 'r': content.append('\r'); break;
+                    case 'b': content.append('\b'); break;
+                    case 'f': content.append('\f'); break;
+                    case 'u':
+                        if (i + 4 > length) {
+                            return false;
+                        }
+                        int code = 0;
+                        for (int k = 0; k < 4; k++) {
+                            int digit = Character.digit(event[i + k], 16);
+                            if (digit < 0) {
+                                return false;
+                            }
+                            code = (code << 4) | digit;
+                        }
+                        content.append((char) code); // Surrogate pairs arrive as two escapes
+                        i += 4;
+                        break;
+                    default:
+                        content.append((char) escaped); // \" \\ \/
+                        break;
+                }
+            } else if (b < 0x80) {
+                content.append((char) b);
+                i++;
+            } else {
+                // Multi-byte UTF-8 sequence
+                int extra;
+                int codePoint;
+                if (b >= 0xF0) {
+                    extra = 3;
+                    codePoint = b & 0x07;
+                } else if (b >= 0xE0) {
+                    extra = 2;
+                    codePoint = b & 0x0F;
+                } else {
+                    extra = 1;
+                    codePoint = b & 0x1F;
+                }
+                if (i + extra >= length) {
+                    return false;
+                }
+                for (int k = 1; k <= extra; k++) {
+                    codePoint = (codePoint << 6) | (event[i + k] & 0x3F);
+                }
+                content.appendCodePoint(codePoint);
+                i += extra + 1;
+            }
+        }
+        return false; // Unterminated string
+    }
+
+    private static boolean startsWith(byte[] bytes, int from, int length, byte[] prefix) {
+        if (length - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[from + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int from, int length) {
+        int i = from;
+        while (i < length && (bytes[i] == ' ' || bytes[i] == '\t' || bytes[i] == '\n' || bytes[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -1,15 +1,111 @@
 package com.example.ensa_meal.database;
 import android.content.Context;
+import android.database.Cursor;
 
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
-@Database(entities = {MealEntity.class, FavoriteEntity.class}, version = 2, exportSchema = false)
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+@Database(entities = {MealEntity.class, FavoriteEntity.class, MealDetailEntity.class,
+        ConversationEntity.class, ChatMessageEntity.class, ResponseCacheEntity.class, MealIngredientEntity.class,
+        BrowseListEntity.class, BrowseEntryEntity.class}, version = 8, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
     private static AppDatabase instance;
     private static final String DATABASE_NAME = "ensa_meal_database";
     public abstract MealDao mealDao();
     public abstract FavoriteDao favoriteDao();
+    public abstract MealDetailDao mealDetailDao();
+    public abstract ChatDao chatDao();
+    public abstract ResponseCacheDao responseCacheDao();
+    public abstract IngredientDao ingredientDao();
+    public abstract BrowseDao browseDao();
+
+    // Additive migrations keep the user's favorites; anything else still falls back to a rebuild
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `meal_details` (`id` TEXT NOT NULL, `name` TEXT, "
+                    + "`category` TEXT, `area` TEXT, `instructions` TEXT, `image_url` TEXT, "
+                    + "`ingredients` TEXT, `measures` TEXT, `fetched_at` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+        }
+    };
+
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `conversations` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`summary` TEXT, `summarized_through` INTEGER NOT NULL, `created_at` INTEGER NOT NULL, "
+                    + "`updated_at` INTEGER NOT NULL)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `chat_messages` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`conversation_id` INTEGER NOT NULL, `role` TEXT, `content` TEXT, `created_at` INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_chat_messages_conversation_id_id` "
+                    + "ON `chat_messages` (`conversation_id`, `id`)");
+        }
+    };
+
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `ai_response_cache` (`cache_key` TEXT NOT NULL, `response` TEXT, "
+                    + "`created_at` INTEGER NOT NULL, `last_access` INTEGER NOT NULL, `latency_ms` INTEGER NOT NULL, "
+                    + "`hit_count` INTEGER NOT NULL, PRIMARY KEY(`cache_key`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_ai_response_cache_last_access` "
+                    + "ON `ai_response_cache` (`last_access`)");
+        }
+    };
+
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `meal_ingredients` (`token` TEXT NOT NULL, "
+                    + "`meal_id` TEXT NOT NULL, PRIMARY KEY(`token`, `meal_id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_meal_ingredients_meal_id` "
+                    + "ON `meal_ingredients` (`meal_id`)");
+            // Index the meal details cached before this version
+            try (Cursor cursor = db.query("SELECT `id`, `ingredients` FROM `meal_details`")) {
+                while (cursor.moveToNext()) {
+                    String mealId = cursor.getString(0);
+                    for (MealIngredientEntity posting : MealIngredientEntity.postings(mealId, cursor.getString(1))) {
+                        db.execSQL("INSERT OR IGNORE INTO `meal_ingredients` (`token`, `meal_id`) VALUES (?, ?)",
+                                new Object[]{posting.getToken(), mealId});
+                    }
+                }
+            }
+        }
+    };
+
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `browse_lists` (`list_key` TEXT NOT NULL, `kind` TEXT, "
+                    + "`name` TEXT, `position` INTEGER NOT NULL, `fetched_at` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`list_key`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_browse_lists_kind_position` "
+                    + "ON `browse_lists` (`kind`, `position`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `browse_entries` (`list_key` TEXT NOT NULL, "
+                    + "`meal_id` TEXT NOT NULL, `name` TEXT, `image_url` TEXT, `position` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`list_key`, `meal_id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_browse_entries_meal_id` "
+                    + "ON `browse_entries` (`meal_id`)");
+        }
+    };
+
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            // Sorted favorites walk these indexes instead of sorting the whole table
+            db.execSQL("ALTER TABLE `favorites` ADD COLUMN `name_key` TEXT");
+            db.execSQL("UPDATE `favorites` SET `name_key` = lower(COALESCE(`meal_name`, ''))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_favorites_added_timestamp_meal_id` "
+                    + "ON `favorites` (`added_timestamp`, `meal_id`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_favorites_user_rating_meal_id` "
+                    + "ON `favorites` (`user_rating`, `meal_id`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_favorites_name_key_meal_id` "
+                    + "ON `favorites` (`name_key`, `meal_id`)");
+        }
+    };
+
     public static synchronized AppDatabase getInstance(Context context) {
         if (instance == null) {
             instance = Room.databaseBuilder(
@@ -17,6 +113,7 @@ public abstract class AppDatabase extends RoomDatabase {
                     AppDatabase.class,
                     DATABASE_NAME
             )
+            .addMigrations(MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8)
             .allowMainThreadQueries() // For simplicity - use background threads in production
             .fallbackToDestructiveMigration() // Recreate DB on version changes
             .build();
@@ -0,0 +1,76 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Browse DAO - Cached category / area directories and their meal lists
+ */
+@Dao
+public interface BrowseDao {
+
+    /**
+     * INSERT MULTIPLE - Add lists not known yet; known ones keep their fetch time
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertListsIfAbsent(List<BrowseListEntity> lists);
+
+    /**
+     * UPDATE - Move a list to its place in the latest directory
+     */
+    @Query("UPDATE browse_lists SET position = :position WHERE list_key = :listKey")
+    void setPosition(String listKey, int position);
+
+    /**
+     * UPDATE - Record when a list was fetched
+     */
+    @Query("UPDATE browse_lists SET fetched_at = :fetchedAt WHERE list_key = :listKey")
+    void setFetchedAt(String listKey, long fetchedAt);
+
+    /**
+     * READ BY KEY - A list's row, for its freshness
+     */
+    @Query("SELECT * FROM browse_lists WHERE list_key = :listKey LIMIT 1")
+    BrowseListEntity getList(String listKey);
+
+    /**
+     * READ - Names of every category or area, in directory order
+     */
+    @Query("SELECT name FROM browse_lists WHERE kind = :kind AND name != '' ORDER BY position ASC")
+    List<String> getNames(String kind);
+
+    /**
+     * READ - Categories worth prefetching: the ones of the user's favorites first
+     * (as far as their details are cached), then directory order
+     */
+    @Query("SELECT l.name FROM browse_lists l WHERE l.kind = 'c' AND l.name != '' " +
+            "ORDER BY (SELECT COUNT(*) FROM favorites f JOIN meal_details d ON d.id = f.meal_id " +
+            "WHERE d.category = l.name) DESC, l.position ASC LIMIT :limit")
+    List<String> getTopCategories(int limit);
+
+    /**
+     * INSERT MULTIPLE - Store the meals of a list
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertEntries(List<BrowseEntryEntity> entries);
+
+    /**
+     * DELETE - Drop a list's meals before storing its new ones
+     */
+    @Query("DELETE FROM browse_entries WHERE list_key = :listKey")
+    void deleteEntries(String listKey);
+
+    /**
+     * READ - Meals of a list in response order, with names, images and instructions
+     * from the cached details where there are some
+     */
+    @Query("SELECT e.meal_id AS id, COALESCE(d.name, e.name) AS name, " +
+            "COALESCE(d.image_url, e.image_url) AS image_url, d.instructions AS instructions " +
+            "FROM browse_entries e LEFT JOIN meal_details d ON d.id = e.meal_id " +
+            "WHERE e.list_key = :listKey ORDER BY e.position ASC")
+    List<BrowseMeal> getMeals(String listKey);
+}
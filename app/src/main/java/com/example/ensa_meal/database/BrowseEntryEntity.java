@@ -0,0 +1,85 @@
+package com.example.ensa_meal.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Browse Entry Entity - One meal of a category or area list, as filter.php returns it
+ * (ID, name and thumbnail only; the rest comes from meal_details when cached)
+ */
+@Entity(tableName = "browse_entries",
+        primaryKeys = {"list_key", "meal_id"},
+        indices = {@Index(value = {"meal_id"})})
+public class BrowseEntryEntity {
+
+    @NonNull
+    @ColumnInfo(name = "list_key")
+    private String listKey;
+
+    @NonNull
+    @ColumnInfo(name = "meal_id")
+    private String mealId;
+
+    @ColumnInfo(name = "name")
+    private String name;
+
+    @ColumnInfo(name = "image_url")
+    private String imageUrl;
+
+    @ColumnInfo(name = "position")
+    private int position;
+
+    public BrowseEntryEntity(@NonNull String listKey, @NonNull String mealId, String name, String imageUrl,
+                             int position) {
+        this.listKey = listKey;
+        this.mealId = mealId;
+        this.name = name;
+        this.imageUrl = imageUrl;
+        this.position = position;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getListKey() {
+        return listKey;
+    }
+
+    public void setListKey(@NonNull String listKey) {
+        this.listKey = listKey;
+    }
+
+    @NonNull
+    public String getMealId() {
+        return mealId;
+    }
+
+    public void setMealId(@NonNull String mealId) {
+        this.mealId = mealId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
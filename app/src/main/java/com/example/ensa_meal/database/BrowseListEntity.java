@@ -0,0 +1,83 @@
+package com.example.ensa_meal.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Browse List Entity - A category or area, and when its meals were last fetched
+ * The directories themselves ("c:" every category, "a:" every area) are rows too,
+ * with an empty name, so each list's freshness is one lookup
+ */
+@Entity(tableName = "browse_lists", indices = {@Index(value = {"kind", "position"})})
+public class BrowseListEntity {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "list_key")
+    private String listKey; // BrowseList.key(): "c:Seafood", "a:Italian", "c:"
+
+    @ColumnInfo(name = "kind")
+    private String kind; // BrowseList.CATEGORY or BrowseList.AREA
+
+    @ColumnInfo(name = "name")
+    private String name;
+
+    @ColumnInfo(name = "position")
+    private int position; // Order of the directory response
+
+    @ColumnInfo(name = "fetched_at")
+    private long fetchedAt; // 0 until the list itself was fetched
+
+    public BrowseListEntity(@NonNull String listKey, String kind, String name, int position, long fetchedAt) {
+        this.listKey = listKey;
+        this.kind = kind;
+        this.name = name;
+        this.position = position;
+        this.fetchedAt = fetchedAt;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getListKey() {
+        return listKey;
+    }
+
+    public void setListKey(@NonNull String listKey) {
+        this.listKey = listKey;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(long fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Browse Meal - A browse entry joined with its cached meal details, if any
+ */
+public class BrowseMeal {
+
+    @ColumnInfo(name = "id")
+    public String id;
+
+    @ColumnInfo(name = "name")
+    public String name;
+
+    @ColumnInfo(name = "image_url")
+    public String imageUrl;
+
+    @ColumnInfo(name = "instructions")
+    public String instructions; // Null unless the meal's details are cached
+}
@@ -0,0 +1,69 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Chat DAO - Persisted AI chat conversations and their messages
+ */
+@Dao
+public interface ChatDao {
+
+    /**
+     * CREATE - Start a conversation
+     */
+    @Insert
+    long insertConversation(ConversationEntity conversation);
+
+    /**
+     * READ - Most recently used conversation
+     */
+    @Query("SELECT * FROM conversations ORDER BY updated_at DESC LIMIT 1")
+    ConversationEntity getLatestConversation();
+
+    /**
+     * READ - Conversation by ID
+     */
+    @Query("SELECT * FROM conversations WHERE id = :conversationId LIMIT 1")
+    ConversationEntity getConversation(long conversationId);
+
+    /**
+     * UPDATE - Store a new summary of older turns
+     */
+    @Query("UPDATE conversations SET summary = :summary, summarized_through = :throughId WHERE id = :conversationId")
+    void updateSummary(long conversationId, String summary, long throughId);
+
+    /**
+     * UPDATE - Mark a conversation as recently used
+     */
+    @Query("UPDATE conversations SET updated_at = :time WHERE id = :conversationId")
+    void touchConversation(long conversationId, long time);
+
+    /**
+     * CREATE - Add a message
+     */
+    @Insert
+    long insertMessage(ChatMessageEntity message);
+
+    /**
+     * READ - One page of messages older than {@code beforeId}, newest first
+     */
+    @Query("SELECT * FROM chat_messages WHERE conversation_id = :conversationId AND id < :beforeId "
+            + "ORDER BY id DESC LIMIT :limit")
+    List<ChatMessageEntity> getMessagesBefore(long conversationId, long beforeId, int limit);
+
+    /**
+     * READ - Messages not yet folded into the summary, oldest first
+     */
+    @Query("SELECT * FROM chat_messages WHERE conversation_id = :conversationId AND id > :afterId ORDER BY id ASC")
+    List<ChatMessageEntity> getMessagesAfter(long conversationId, long afterId);
+
+    /**
+     * COUNT - Total characters of a conversation, used to report the unwindowed prompt size
+     */
+    @Query("SELECT COALESCE(SUM(LENGTH(content)), 0) FROM chat_messages WHERE conversation_id = :conversationId")
+    long getContentLength(long conversationId);
+}
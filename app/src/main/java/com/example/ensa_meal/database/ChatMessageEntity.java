@@ -0,0 +1,79 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Chat Message Entity - One user question or assistant answer of a conversation
+ * Role uses the chat API names: "user" or "assistant"
+ */
+@Entity(tableName = "chat_messages",
+        indices = {@Index(value = {"conversation_id", "id"})})
+public class ChatMessageEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private long id;
+
+    @ColumnInfo(name = "conversation_id")
+    private long conversationId;
+
+    @ColumnInfo(name = "role")
+    private String role;
+
+    @ColumnInfo(name = "content")
+    private String content;
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    public ChatMessageEntity(long conversationId, String role, String content) {
+        this.conversationId = conversationId;
+        this.role = role;
+        this.content = content;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(long conversationId) {
+        this.conversationId = conversationId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Conversation Entity - One AI chat conversation
+ * Older turns are folded into {@code summary} so requests stay within a token budget
+ */
+@Entity(tableName = "conversations")
+public class ConversationEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private long id;
+
+    @ColumnInfo(name = "summary")
+    private String summary; // Condensed older turns, null until the window first overflows
+
+    @ColumnInfo(name = "summarized_through")
+    private long summarizedThrough; // Last chat_messages.id folded into the summary
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    public ConversationEntity() {
+        this.createdAt = System.currentTimeMillis();
+        this.updatedAt = createdAt;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public long getSummarizedThrough() {
+        return summarizedThrough;
+    }
+
+    public void setSummarizedThrough(long summarizedThrough) {
+        this.summarizedThrough = summarizedThrough;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
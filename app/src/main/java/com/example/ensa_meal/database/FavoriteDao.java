@@ -5,7 +5,9 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
 import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import java.util.List;
 
@@ -22,6 +24,12 @@ public interface FavoriteDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void addToFavorites(FavoriteEntity favorite);
 
+    /**
+     * CREATE - Add meal to favorites, keeping the comment and rating if it is one already
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void addToFavoritesIfAbsent(FavoriteEntity favorite);
+
     /**
      * READ - Get all favorites ordered by timestamp (newest first)
      */
@@ -64,6 +72,13 @@ public interface FavoriteDao {
     @Update
     void updateFavorite(FavoriteEntity favorite);
 
+    /**
+     * UPDATE - Refresh the meal data copied into a favorite, keeping the user's rating and comment
+     */
+    @Query("UPDATE favorites SET meal_name = :name, name_key = lower(COALESCE(:name, '')), " +
+            "meal_image_url = :imageUrl, meal_description = :description WHERE meal_id = :mealId")
+    void updateMealInfo(String mealId, String name, String imageUrl, String description);
+
     /**
      * DELETE - Remove from favorites
      */
@@ -88,6 +103,18 @@ public interface FavoriteDao {
     @Query("SELECT COUNT(*) FROM favorites")
     int getFavoritesCount();
 
+    /**
+     * READ PAGE - One keyset page of a FavoritesQuery (pageSql / pageArgs)
+     */
+    @RawQuery(observedEntities = FavoriteEntity.class)
+    List<FavoriteEntity> getPage(SupportSQLiteQuery query);
+
+    /**
+     * COUNT FACETS - Counts per filter value of a FavoritesQuery (facetsSql / facetsArgs)
+     */
+    @RawQuery(observedEntities = FavoriteEntity.class)
+    FavoriteFacets getFacets(SupportSQLiteQuery query);
+
     /**
      * SEARCH - Search favorites by name
      */
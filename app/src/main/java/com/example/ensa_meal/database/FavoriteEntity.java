@@ -3,8 +3,11 @@ package com.example.ensa_meal.database;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.example.ensa_meal.FavoritesQuery;
+
 /**
  * Favorite Entity - Represents a meal added to favorites with optional comment
  * CRUD Operations:
@@ -13,7 +16,10 @@ import androidx.room.PrimaryKey;
  * - UPDATE: Edit comment on favorite
  * - DELETE: Remove from favorites
  */
-@Entity(tableName = "favorites")
+@Entity(tableName = "favorites", indices = {
+        @Index(value = {"added_timestamp", "meal_id"}),
+        @Index(value = {"user_rating", "meal_id"}),
+        @Index(value = {"name_key", "meal_id"})})
 public class FavoriteEntity {
 
     @PrimaryKey
@@ -39,10 +45,14 @@ public class FavoriteEntity {
     @ColumnInfo(name = "added_timestamp")
     private long addedTimestamp;
 
+    @ColumnInfo(name = "name_key")
+    private String nameKey; // Sort key of meal_name, see FavoritesQuery.nameKey
+
     public FavoriteEntity(@NonNull String mealId, String mealName, String mealImageUrl,
                           String mealDescription, String userComment, float userRating) {
         this.mealId = mealId;
         this.mealName = mealName;
+        this.nameKey = FavoritesQuery.nameKey(mealName);
         this.mealImageUrl = mealImageUrl;
         this.mealDescription = mealDescription;
         this.userComment = userComment;
@@ -66,6 +76,7 @@ public class FavoriteEntity {
 
     public void setMealName(String mealName) {
         this.mealName = mealName;
+        this.nameKey = FavoritesQuery.nameKey(mealName);
     }
 
     public String getMealImageUrl() {
@@ -107,4 +118,12 @@ public class FavoriteEntity {
     public void setAddedTimestamp(long addedTimestamp) {
         this.addedTimestamp = addedTimestamp;
     }
+
+    public String getNameKey() {
+        return nameKey;
+    }
+
+    public void setNameKey(String nameKey) {
+        this.nameKey = nameKey;
+    }
 }
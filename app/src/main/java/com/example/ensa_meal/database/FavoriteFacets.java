@@ -0,0 +1,36 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Favorite Facets - How many favorites each filter would keep, from one aggregate query
+ */
+public class FavoriteFacets {
+
+    @ColumnInfo(name = "total")
+    public int total;
+
+    @ColumnInfo(name = "with_comment")
+    public int withComment;
+
+    @ColumnInfo(name = "rated_3")
+    public int rated3; // Rated at least 3 stars
+
+    @ColumnInfo(name = "rated_4")
+    public int rated4;
+
+    @ColumnInfo(name = "rated_5")
+    public int rated5;
+
+    /**
+     * Favorites rated at least {@code stars}: 3, 4 or 5, the minimum ratings the filter menu offers
+     */
+    public int ratedAtLeast(int stars) {
+        switch (stars) {
+            case 3: return rated3;
+            case 4: return rated4;
+            case 5: return rated5;
+            default: return total;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Ingredient DAO - Postings of the ingredient index (word -> meal)
+ */
+@Dao
+public interface IngredientDao {
+
+    /**
+     * INSERT MULTIPLE - Add postings, ignoring ones already stored
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertAll(List<MealIngredientEntity> postings);
+
+    /**
+     * DELETE - Drop the postings of meals about to be re-indexed
+     */
+    @Query("DELETE FROM meal_ingredients WHERE meal_id IN (:mealIds)")
+    void deleteForMeals(List<String> mealIds);
+
+    /**
+     * READ ALL - Every posting, grouped by word
+     */
+    @Query("SELECT * FROM meal_ingredients ORDER BY token")
+    List<MealIngredientEntity> getAll();
+}
@@ -0,0 +1,62 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Meal Detail DAO - Cached full meal records
+ */
+@Dao
+public interface MealDetailDao {
+
+    /**
+     * INSERT - Cache a meal detail, replacing an older copy
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(MealDetailEntity detail);
+
+    /**
+     * INSERT MULTIPLE - Cache several meal details
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<MealDetailEntity> details);
+
+    /**
+     * READ BY ID - Get a cached meal detail
+     */
+    @Query("SELECT * FROM meal_details WHERE id = :mealId LIMIT 1")
+    MealDetailEntity getById(String mealId);
+
+    /**
+     * READ ALL - Every meal known locally, without instructions: cached details,
+     * then search results that have no details yet, then the remaining favorites
+     */
+    @Query("SELECT id, name, category, area, ingredients, image_url FROM meal_details " +
+            "UNION ALL " +
+            "SELECT id, name, NULL, NULL, NULL, image_url FROM meal_categories " +
+            "WHERE id NOT IN (SELECT id FROM meal_details) " +
+            "UNION ALL " +
+            "SELECT meal_id, meal_name, NULL, NULL, NULL, meal_image_url FROM favorites " +
+            "WHERE meal_id NOT IN (SELECT id FROM meal_details) AND meal_id NOT IN (SELECT id FROM meal_categories)")
+    List<MealFeatures> getCatalogRows();
+
+    /**
+     * READ ONE COLUMN - Instructions of a meal, from its details, its search result or its favorite
+     */
+    @Query("SELECT instructions FROM meal_details WHERE id = :mealId " +
+            "UNION ALL " +
+            "SELECT description FROM meal_categories WHERE id = :mealId " +
+            "UNION ALL " +
+            "SELECT meal_description FROM favorites WHERE meal_id = :mealId LIMIT 1")
+    String getInstructions(String mealId);
+
+    /**
+     * COUNT - Number of cached meal details
+     */
+    @Query("SELECT COUNT(*) FROM meal_details")
+    int getCount();
+}
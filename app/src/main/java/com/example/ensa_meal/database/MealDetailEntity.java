@@ -0,0 +1,169 @@
+package com.example.ensa_meal.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.example.ensa_meal.MealDetail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Meal Detail Entity - Full meal record from TheMealDB lookup/search endpoints
+ * Ingredients and measures are stored as newline-separated lists of equal length
+ */
+@Entity(tableName = "meal_details")
+public class MealDetailEntity {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "id")
+    private String id;
+
+    @ColumnInfo(name = "name")
+    private String name;
+
+    @ColumnInfo(name = "category")
+    private String category;
+
+    @ColumnInfo(name = "area")
+    private String area;
+
+    @ColumnInfo(name = "instructions")
+    private String instructions;
+
+    @ColumnInfo(name = "image_url")
+    private String imageUrl;
+
+    @ColumnInfo(name = "ingredients")
+    private String ingredients;
+
+    @ColumnInfo(name = "measures")
+    private String measures;
+
+    @ColumnInfo(name = "fetched_at")
+    private long fetchedAt; // When the detail was last fetched from the API
+
+    public MealDetailEntity(@NonNull String id, String name, String category, String area,
+                            String instructions, String imageUrl, String ingredients,
+                            String measures, long fetchedAt) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.area = area;
+        this.instructions = instructions;
+        this.imageUrl = imageUrl;
+        this.ingredients = ingredients;
+        this.measures = measures;
+        this.fetchedAt = fetchedAt;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public void setId(@NonNull String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getArea() {
+        return area;
+    }
+
+    public void setArea(String area) {
+        this.area = area;
+    }
+
+    public String getInstructions() {
+        return instructions;
+    }
+
+    public void setInstructions(String instructions) {
+        this.instructions = instructions;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getIngredients() {
+        return ingredients;
+    }
+
+    public void setIngredients(String ingredients) {
+        this.ingredients = ingredients;
+    }
+
+    public String getMeasures() {
+        return measures;
+    }
+
+    public void setMeasures(String measures) {
+        this.measures = measures;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(long fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * Row for a parsed meal (MealDetail lives in :core, which knows nothing about Room)
+     */
+    public static MealDetailEntity from(MealDetail detail) {
+        List<MealDetail.Ingredient> ingredients = detail.getIngredients();
+        StringBuilder names = new StringBuilder();
+        StringBuilder measures = new StringBuilder();
+        for (int i = 0; i < ingredients.size(); i++) {
+            if (i > 0) {
+                names.append('\n');
+                measures.append('\n');
+            }
+            names.append(ingredients.get(i).getName());
+            measures.append(ingredients.get(i).getMeasure());
+        }
+        return new MealDetailEntity(detail.getId(), detail.getName(), detail.getCategory(), detail.getArea(),
+                detail.getInstructions(), detail.getImageUrl(), names.toString(), measures.toString(),
+                detail.getFetchedAt());
+    }
+
+    public MealDetail toDetail() {
+        List<MealDetail.Ingredient> ingredientList = new ArrayList<>();
+        if (ingredients != null && !ingredients.isEmpty()) {
+            String[] nameLines = ingredients.split("\n", -1);
+            String[] measureLines = measures != null ? measures.split("\n", -1) : new String[0];
+            for (int i = 0; i < nameLines.length; i++) {
+                ingredientList.add(new MealDetail.Ingredient(nameLines[i],
+                        i < measureLines.length ? measureLines[i] : ""));
+            }
+        }
+        return new MealDetail(id, name, category, area, instructions, imageUrl, ingredientList, fetchedAt);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Meal Features - The columns of a meal used by the catalog and recommendations
+ * (no instructions, which are by far the largest column)
+ */
+public class MealFeatures {
+
+    @ColumnInfo(name = "id")
+    public String id;
+
+    @ColumnInfo(name = "name")
+    public String name;
+
+    @ColumnInfo(name = "category")
+    public String category;
+
+    @ColumnInfo(name = "area")
+    public String area;
+
+    @ColumnInfo(name = "ingredients")
+    public String ingredients; // Newline-separated
+
+    @ColumnInfo(name = "image_url")
+    public String imageUrl;
+}
@@ -0,0 +1,74 @@
+package com.example.ensa_meal.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+import com.example.ensa_meal.IngredientIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Meal Ingredient Entity - One posting of the ingredient index: a meal uses an ingredient word
+ * Words come from IngredientIndex.tokens ("Chicken Breasts" -> chicken, breast)
+ */
+@Entity(tableName = "meal_ingredients",
+        primaryKeys = {"token", "meal_id"},
+        indices = {@Index(value = {"meal_id"})})
+public class MealIngredientEntity {
+
+    @NonNull
+    @ColumnInfo(name = "token")
+    private String token;
+
+    @NonNull
+    @ColumnInfo(name = "meal_id")
+    private String mealId;
+
+    public MealIngredientEntity(@NonNull String token, @NonNull String mealId) {
+        this.token = token;
+        this.mealId = mealId;
+    }
+
+    /**
+     * Postings of one meal from its newline-separated ingredients column
+     */
+    public static List<MealIngredientEntity> postings(@NonNull String mealId, String ingredients) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String ingredient : ingredients.split("\n")) {
+            tokens.addAll(IngredientIndex.tokens(ingredient));
+        }
+        List<MealIngredientEntity> postings = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            postings.add(new MealIngredientEntity(token, mealId));
+        }
+        return postings;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(@NonNull String token) {
+        this.token = token;
+    }
+
+    @NonNull
+    public String getMealId() {
+        return mealId;
+    }
+
+    public void setMealId(@NonNull String mealId) {
+        this.mealId = mealId;
+    }
+}
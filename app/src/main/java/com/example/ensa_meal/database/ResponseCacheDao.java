@@ -0,0 +1,50 @@
+package com.example.ensa_meal.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+/**
+ * Response Cache DAO - Stored AI answers with expiry and LRU eviction
+ */
+@Dao
+public interface ResponseCacheDao {
+
+    /**
+     * INSERT - Store an answer, replacing an older one for the same key
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(ResponseCacheEntity entry);
+
+    /**
+     * READ - Get an answer that has not expired yet
+     */
+    @Query("SELECT * FROM ai_response_cache WHERE cache_key = :key AND created_at >= :minCreatedAt LIMIT 1")
+    ResponseCacheEntity get(String key, long minCreatedAt);
+
+    /**
+     * UPDATE - Record a hit
+     */
+    @Query("UPDATE ai_response_cache SET last_access = :now, hit_count = hit_count + 1 WHERE cache_key = :key")
+    void touch(String key, long now);
+
+    /**
+     * DELETE - Drop expired answers
+     */
+    @Query("DELETE FROM ai_response_cache WHERE created_at < :minCreatedAt")
+    int deleteExpired(long minCreatedAt);
+
+    /**
+     * DELETE - Keep only the most recently used answers
+     */
+    @Query("DELETE FROM ai_response_cache WHERE cache_key NOT IN "
+            + "(SELECT cache_key FROM ai_response_cache ORDER BY last_access DESC LIMIT :maxEntries)")
+    int trimToSize(int maxEntries);
+
+    /**
+     * COUNT - Number of stored answers
+     */
+    @Query("SELECT COUNT(*) FROM ai_response_cache")
+    int getCount();
+}
@@ -0,0 +1,96 @@
+package com.example.ensa_meal.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Response Cache Entity - A complete AI answer, stored under a hash of what was asked
+ * The key covers the normalized question, the conversation before it and the favorites
+ * sent with it, so an answer is only reused for an identical request
+ */
+@Entity(tableName = "ai_response_cache", indices = {@Index(value = {"last_access"})})
+public class ResponseCacheEntity {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "cache_key")
+    private String cacheKey;
+
+    @ColumnInfo(name = "response")
+    private String response;
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt; // Expiry is measured from here
+
+    @ColumnInfo(name = "last_access")
+    private long lastAccess; // Least recently used entries are evicted first
+
+    @ColumnInfo(name = "latency_ms")
+    private long latencyMs; // How long the network answer took
+
+    @ColumnInfo(name = "hit_count")
+    private int hitCount;
+
+    public ResponseCacheEntity(@NonNull String cacheKey, String response, long createdAt,
+                               long lastAccess, long latencyMs, int hitCount) {
+        this.cacheKey = cacheKey;
+        this.response = response;
+        this.createdAt = createdAt;
+        this.lastAccess = lastAccess;
+        this.latencyMs = latencyMs;
+        this.hitCount = hitCount;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public void setCacheKey(@NonNull String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public void setLastAccess(long lastAccess) {
+        this.lastAccess = lastAccess;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(int hitCount) {
+        this.hitCount = hitCount;
+    }
+}
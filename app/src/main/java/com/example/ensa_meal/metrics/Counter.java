@@ -0,0 +1,27 @@
+package com.example.ensa_meal.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter - Number of times something happened since the last reset
+ */
+public final class Counter {
+
+    private final AtomicLong value = new AtomicLong();
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void add(long delta) {
+        value.addAndGet(delta);
+    }
+
+    public long get() {
+        return value.get();
+    }
+
+    void reset() {
+        value.set(0);
+    }
+}
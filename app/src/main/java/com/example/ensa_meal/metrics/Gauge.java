@@ -0,0 +1,31 @@
+package com.example.ensa_meal.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Gauge - Current value of something (a size, a level)
+ *
+ * Either set by the code that knows the value, or read from a supplier when the
+ * metrics are dumped.
+ */
+public final class Gauge {
+
+    private volatile long value;
+    private volatile LongSupplier supplier;
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    /**
+     * Read the value from {@code supplier} from now on; it is called at dump time, on the dumping thread
+     */
+    public void setSupplier(LongSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    public long get() {
+        LongSupplier current = supplier;
+        return current != null ? current.getAsLong() : value;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ensa_meal.metrics;
+
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.Locale;
+
+/**
+ * ImageLoadMetrics - Glide listener timing one image load
+ *
+ * Records the time from the request to the image being ready in "image.load",
+ * counts where it came from ("image.source.memory_cache", ".remote", ...) and failures.
+ * One instance per request: {@code .listener(ImageLoadMetrics.start())}.
+ */
+public final class ImageLoadMetrics implements RequestListener<Drawable> {
+
+    private static final LatencyHistogram LOAD_TIME = Metrics.histogram("image.load");
+    private static final Counter FAILURES = Metrics.counter("image.failed");
+
+    private final long startNanos = System.nanoTime();
+
+    private ImageLoadMetrics() {
+    }
+
+    public static ImageLoadMetrics start() {
+        return new ImageLoadMetrics();
+    }
+
+    @Override
+    public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                @NonNull Target<Drawable> target, boolean isFirstResource) {
+        FAILURES.increment();
+        return false;
+    }
+
+    @Override
+    public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model, Target<Drawable> target,
+                                   @NonNull DataSource dataSource, boolean isFirstResource) {
+        LOAD_TIME.recordNanos(System.nanoTime() - startNanos);
+        Metrics.counter("image.source." + dataSource.name().toLowerCase(Locale.US)).increment();
+        return false;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.ensa_meal.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * LatencyHistogram - Fixed-memory histogram of durations, in microseconds
+ *
+ * Log-linear buckets: below 8 us every value has its own bucket, above that each
+ * power of two is split into 8 sub-buckets, so a percentile is off by at most
+ * 1/16 of its value. 240 buckets cover 0 us to 71 minutes; the memory used never
+ * grows with the number of samples.
+ *
+ * Recording is lock-free and allocation-free, from any thread. Durations measured
+ * with {@link #time} also appear as trace sections named after the histogram.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 31; // 2^32 us is about 71 minutes
+    static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final String name; // Trace section name, may be null
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Summary at one point in time
+     */
+    public static final class Snapshot {
+        public final long count;
+        public final double meanMicros;
+        public final long p50Micros;
+        public final long p90Micros;
+        public final long p99Micros;
+        public final long maxMicros;
+
+        Snapshot(long count, double meanMicros, long p50Micros, long p90Micros, long p99Micros, long maxMicros) {
+            this.count = count;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+    }
+
+    public LatencyHistogram() {
+        this(null);
+    }
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        counts.incrementAndGet(indexOf(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        long current = max.get();
+        while (micros > current && !max.compareAndSet(current, micros)) {
+            current = max.get();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1000);
+    }
+
+    /**
+     * Run {@code work} and record how long it took
+     */
+    public <T> T time(Supplier<T> work) {
+        Metrics.SectionTracer tracer = name != null ? Metrics.sectionTracer() : null;
+        if (tracer != null) {
+            tracer.begin(name);
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            recordNanos(System.nanoTime() - start);
+            if (tracer != null) {
+                tracer.end();
+            }
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Estimated value below which {@code percentile} percent of the samples fall
+     * @param percentile 0..100
+     * @return Microseconds, 0 when nothing was recorded
+     */
+    public long percentile(double percentile) {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return percentile(copy, total, percentile);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long samples = count.get();
+        return new Snapshot(total,
+                samples == 0 ? 0 : (double) sum.get() / samples,
+                percentile(copy, total, 50),
+                percentile(copy, total, 90),
+                percentile(copy, total, 99),
+                max.get());
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    private long percentile(long[] buckets, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        // Rank of the sample we are after, 1-based
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                // Middle of the bucket, never above the largest value seen
+                long middle = (lowerBound(i) + lowerBound(i + 1) - 1) / 2;
+                return Math.min(middle, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (micros >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Smallest value that lands in bucket {@code index}
+     */
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKETS - 1 + SUB_BUCKET_BITS;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (magnitude - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ensa_meal.metrics;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics - Process-wide registry of counters, gauges and latency histograms
+ *
+ * Metrics are created on first use and live as long as the process; hot paths keep
+ * the instance in a static field instead of looking it up by name every time.
+ * Names are dotted, area first ("search.network", "db.favorites.all").
+ *
+ * Read with {@code adb shell dumpsys activity provider com.example.ensa_meal/.metrics.MetricsDumpProvider}
+ * or on the debug metrics screen.
+ */
+public final class Metrics {
+
+    private static final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static volatile SectionTracer sectionTracer;
+
+    /**
+     * Receives a section around every {@link LatencyHistogram#time} (system tracing)
+     */
+    public interface SectionTracer {
+        void begin(String name);
+
+        void end();
+    }
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    public static Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, key -> new Gauge());
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public static void setSectionTracer(SectionTracer tracer) {
+        sectionTracer = tracer;
+    }
+
+    static SectionTracer sectionTracer() {
+        return sectionTracer;
+    }
+
+    /**
+     * Zero every counter and histogram (gauges are current values and stay)
+     */
+    public static void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Every metric as a plain-text table, sorted by name
+     */
+    public static void dump(PrintWriter writer) {
+        writer.println(String.format(Locale.US, "%-28s %7s %9s %9s %9s %9s %9s",
+                "Latency (ms)", "count", "mean", "p50", "p90", "p99", "max"));
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+            writer.println(String.format(Locale.US, "  %-26s %7d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    entry.getKey(), snapshot.count, snapshot.meanMicros / 1000,
+                    snapshot.p50Micros / 1000.0, snapshot.p90Micros / 1000.0,
+                    snapshot.p99Micros / 1000.0, snapshot.maxMicros / 1000.0));
+        }
+        writer.println("Counters");
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            writer.println(String.format(Locale.US, "  %-26s %7d", entry.getKey(), entry.getValue().get()));
+        }
+        writer.println("Gauges");
+        for (Map.Entry<String, Gauge> entry : new TreeMap<>(gauges).entrySet()) {
+            writer.println(String.format(Locale.US, "  %-26s %7d", entry.getKey(), entry.getValue().get()));
+        }
+        writer.flush();
+    }
+
+    public static String dumpToString() {
+        StringWriter out = new StringWriter();
+        dump(new PrintWriter(out));
+        return out.toString();
+    }
+}
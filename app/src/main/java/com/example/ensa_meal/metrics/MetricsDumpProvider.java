@@ -0,0 +1,72 @@
+package com.example.ensa_meal.metrics;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+
+/**
+ * MetricsDumpProvider - Makes the metrics reachable through dumpsys
+ *
+ * Providers live as long as the process, unlike activities and services, so
+ * {@code adb shell dumpsys activity provider com.example.ensa_meal/.metrics.MetricsDumpProvider}
+ * works whatever screen is showing. Holds no data; every query is empty.
+ */
+public class MetricsDumpProvider extends ContentProvider {
+
+    @Override
+    public boolean onCreate() {
+        // Earliest point of the app process: timed metrics show up in system traces from here on
+        Tracing.install();
+        Runtime runtime = Runtime.getRuntime();
+        Metrics.gauge("memory.heap_used_kb").setSupplier(() -> (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+        Metrics.gauge("memory.heap_max_kb").setSupplier(() -> runtime.maxMemory() / 1024);
+        return true;
+    }
+
+    @Override
+    public void dump(FileDescriptor fd, PrintWriter writer, String[] args) {
+        if (args != null && args.length > 0 && "reset".equals(args[0])) {
+            Metrics.reset();
+            writer.println("Metrics reset");
+            return;
+        }
+        Metrics.dump(writer);
+    }
+
+    @Nullable
+    @Override
+    public Cursor query(@NonNull Uri uri, @Nullable String[] projection, @Nullable String selection,
+                        @Nullable String[] selectionArgs, @Nullable String sortOrder) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public String getType(@NonNull Uri uri) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Uri insert(@NonNull Uri uri, @Nullable ContentValues values) {
+        return null;
+    }
+
+    @Override
+    public int delete(@NonNull Uri uri, @Nullable String selection, @Nullable String[] selectionArgs) {
+        return 0;
+    }
+
+    @Override
+    public int update(@NonNull Uri uri, @Nullable ContentValues values, @Nullable String selection,
+                      @Nullable String[] selectionArgs) {
+        return 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ensa_meal.metrics;
+
+import android.os.Trace;
+
+import com.example.ensa_meal.BuildConfig;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracing - Named sections for system traces (Perfetto, Android Studio profiler)
+ *
+ * - {@link #begin}/{@link #end}: a slice on the calling thread, must nest
+ * - {@link #beginAsync}/{@link #endAsync}: a span that may end on another thread
+ *   (network requests); each one gets its own cookie so overlapping spans of the
+ *   same name show up on separate tracks
+ *
+ * Compiled in for debug builds, off in release unless built with -PtraceRelease=true.
+ * Every latency histogram's {@code time()} also shows up as a section ({@link #install()}).
+ */
+public final class Tracing {
+
+    public static final boolean ENABLED = BuildConfig.TRACE_SECTIONS;
+
+    private static final AtomicInteger nextCookie = new AtomicInteger(1);
+
+    private Tracing() {
+    }
+
+    /**
+     * Let timed metrics emit sections too. Called once at process start.
+     */
+    public static void install() {
+        if (ENABLED) {
+            Metrics.setSectionTracer(new Metrics.SectionTracer() {
+                @Override
+                public void begin(String name) {
+                    Trace.beginSection(name);
+                }
+
+                @Override
+                public void end() {
+                    Trace.endSection();
+                }
+            });
+        }
+    }
+
+    public static void begin(String name) {
+        if (ENABLED) {
+            Trace.beginSection(name);
+        }
+    }
+
+    public static void end() {
+        if (ENABLED) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * @return Cookie to pass to {@link #endAsync}
+     */
+    public static int beginAsync(String name) {
+        if (!ENABLED) {
+            return 0;
+        }
+        int cookie = nextCookie.getAndIncrement();
+        Trace.beginAsyncSection(name, cookie);
+        return cookie;
+    }
+
+    public static void endAsync(String name, int cookie) {
+        if (ENABLED) {
+            Trace.endAsyncSection(name, cookie);
+        }
+    }
+
+    /**
+     * Value on a counter track, e.g. requests in flight
+     */
+    public static void counter(String name, long value) {
+        if (ENABLED) {
+            Trace.setCounter(name, value);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.ensa_meal.chat;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * FakeGroqServer - Local stand-in for Groq's OpenAI-compatible streaming endpoint
+ *
+ * Answers POST .../chat/completions with a server-sent event stream shaped like
+ * Groq's: every token is one "data:" event and the stream ends with [DONE].
+ * Tokens all have the same byte size, so throttling the body paces them exactly:
+ * the first token arrives after {@link #setTimeToFirstTokenMs} and the rest at
+ * {@link #setTokensPerSecond}.
+ *
+ * Failures are deterministic: every Nth request can be answered with a 500 or a
+ * 429 carrying Retry-After.
+ *
+ * Usage: start it, then point a {@link GroqChatClient} (or AIChatActivity through
+ * its EXTRA_BASE_URL in debug builds) at {@link #baseUrl()}.
+ */
+public class FakeGroqServer extends Dispatcher {
+
+    // Five characters each, so every event has the same length
+    private static final String[] WORDS = {"Stir ", "salt ", "heat ", "oil, ", "mix. ", "Add  ", "herb ", "cook "};
+
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile long timeToFirstTokenMs = 200;
+    private volatile int tokensPerSecond = 100;
+    private volatile int tokensPerAnswer = 100;
+    private volatile int failEvery;
+    private volatile int rateLimitEvery;
+    private volatile int retryAfterSeconds = 1;
+
+    public FakeGroqServer() {
+        server.setDispatcher(this);
+    }
+
+    public FakeGroqServer start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    public void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Base URL to hand to the chat client
+     */
+    public String baseUrl() {
+        return server.url("/openai/v1/").toString();
+    }
+
+    public FakeGroqServer setTimeToFirstTokenMs(long timeToFirstTokenMs) {
+        this.timeToFirstTokenMs = timeToFirstTokenMs;
+        return this;
+    }
+
+    public FakeGroqServer setTokensPerSecond(int tokensPerSecond) {
+        this.tokensPerSecond = tokensPerSecond;
+        return this;
+    }
+
+    public FakeGroqServer setTokensPerAnswer(int tokensPerAnswer) {
+        this.tokensPerAnswer = tokensPerAnswer;
+        return this;
+    }
+
+    /**
+     * Answer every {@code n}th request with a 500 (0 disables)
+     */
+    public FakeGroqServer failEvery(int n) {
+        this.failEvery = n;
+        return this;
+    }
+
+    /**
+     * Answer every {@code n}th request with a 429 and Retry-After (0 disables)
+     */
+    public FakeGroqServer rateLimitEvery(int n, int retryAfterSeconds) {
+        this.rateLimitEvery = n;
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    public RecordedRequest takeRequest() throws InterruptedException {
+        return server.takeRequest();
+    }
+
+    /**
+     * Text of one complete answer
+     */
+    public String expectedAnswer() {
+        StringBuilder answer = new StringBuilder();
+        for (int i = 0; i < tokensPerAnswer; i++) {
+            answer.append(WORDS[i % WORDS.length]);
+        }
+        return answer.toString();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        if (!"POST".equals(request.getMethod()) || !request.getPath().endsWith("/chat/completions")) {
+            return new MockResponse().setResponseCode(404);
+        }
+        int n = requests.incrementAndGet();
+        if (rateLimitEvery > 0 && n % rateLimitEvery == 0) {
+            return new MockResponse().setResponseCode(429)
+                    .setHeader("Retry-After", String.valueOf(retryAfterSeconds))
+                    .setHeader("Content-Type", "application/json")
+                    .setBody("{\"error\":{\"message\":\"Rate limit reached\",\"type\":\"rate_limit_exceeded\"}}");
+        }
+        if (failEvery > 0 && n % failEvery == 0) {
+            return new MockResponse().setResponseCode(500)
+                    .setHeader("Content-Type", "application/json")
+                    .setBody("{\"error\":{\"message\":\"Internal error\"}}");
+        }
+
+        StringBuilder body = new StringBuilder();
+        String first = null;
+        for (int i = 0; i < tokensPerAnswer; i++) {
+            String event = "data: {\"id\":\"chatcmpl-local\",\"object\":\"chat.completion.chunk\","
+                    + "\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + WORDS[i % WORDS.length]
+                    + "\"},\"finish_reason\":null}]}\n\n";
+            if (first == null) {
+                first = event;
+            }
+            body.append(event);
+        }
+        body.append("data: [DONE]\n\n");
+
+        MockResponse response = new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody(body.toString())
+                .setBodyDelay(timeToFirstTokenMs, TimeUnit.MILLISECONDS);
+        if (first != null && tokensPerSecond > 0) {
+            // One event per period
+            response.throttleBody(first.length(), 1_000_000 / tokensPerSecond, TimeUnit.MICROSECONDS);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ensa_meal;
+
+import com.example.ensa_meal.database.FavoriteEntity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FavoritesRefreshWorker.refresh: which lookups rewrite a favorite.
+ */
+public class FavoritesRefreshWorkerTest {
+
+    private static final String OLD_IMAGE = "https://www.themealdb.com/images/media/meals/old.jpg";
+    private static final String NEW_IMAGE = "https://www.themealdb.com/images/media/meals/new.jpg";
+
+    private static FavoriteEntity favorite() {
+        return new FavoriteEntity("52772", "Teriyaki Chicken", OLD_IMAGE, "Preheat oven.", "Kids love it", 5f);
+    }
+
+    @Test
+    public void unchangedMealIsNotRewritten() {
+        FavoriteEntity favorite = favorite();
+        assertFalse(FavoritesRefreshWorker.refresh(favorite,
+                new Plat("52772", "Teriyaki Chicken", OLD_IMAGE, "Preheat oven.")));
+    }
+
+    @Test
+    public void movedImageIsCopiedAndUserDataKept() {
+        FavoriteEntity favorite = favorite();
+        assertTrue(FavoritesRefreshWorker.refresh(favorite,
+                new Plat("52772", "Teriyaki Chicken Casserole", NEW_IMAGE, "Preheat oven.")));
+        assertEquals("Teriyaki Chicken Casserole", favorite.getMealName());
+        assertEquals(NEW_IMAGE, favorite.getMealImageUrl());
+        assertEquals("Kids love it", favorite.getUserComment());
+        assertEquals(5f, favorite.getUserRating(), 0f);
+    }
+
+    @Test
+    public void placeholdersNeverOverwriteSavedData() {
+        FavoriteEntity favorite = favorite();
+        assertFalse(FavoritesRefreshWorker.refresh(favorite,
+                new Plat("52772", "Unknown", "", "No instructions available")));
+        assertEquals("Teriyaki Chicken", favorite.getMealName());
+        assertEquals(OLD_IMAGE, favorite.getMealImageUrl());
+    }
+}
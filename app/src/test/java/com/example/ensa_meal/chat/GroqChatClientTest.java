@@ -0,0 +1,136 @@
+package com.example.ensa_meal.chat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * GroqChatClient against the local FakeGroqServer: streaming, pacing and errors.
+ */
+public class GroqChatClientTest {
+
+    private static final String REQUEST = "{\"model\":\"llama-3.3-70b-versatile\",\"stream\":true,"
+            + "\"messages\":[{\"role\":\"user\",\"content\":\"What should I cook?\"}]}";
+
+    private FakeGroqServer server;
+    private GroqChatClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new FakeGroqServer().start();
+        client = new GroqChatClient(new OkHttpClient(), server.baseUrl(), "test-key");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void streamsWholeAnswerToTheInjectedBaseUrl() throws Exception {
+        server.setTimeToFirstTokenMs(0).setTokensPerSecond(0).setTokensPerAnswer(40);
+        Result result = stream();
+        assertTrue(result.done);
+        assertEquals(server.expectedAnswer(), result.text.toString());
+        assertEquals(40, result.deltas);
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/openai/v1/chat/completions", request.getPath());
+        assertEquals("Bearer test-key", request.getHeader("Authorization"));
+        assertEquals(REQUEST, request.getBody().readUtf8());
+    }
+
+    @Test
+    public void honoursConfiguredTimeToFirstTokenAndRate() throws Exception {
+        server.setTimeToFirstTokenMs(300).setTokensPerSecond(100).setTokensPerAnswer(50);
+        Result result = stream();
+        assertTrue(result.done);
+        assertTrue("TTFT " + result.firstTokenMs, result.firstTokenMs >= 300);
+        // 49 gaps at 10 ms each, with generous slack for a busy machine
+        long streamMs = result.endMs - result.firstTokenMs;
+        assertTrue("stream took " + streamMs + " ms", streamMs >= 400 && streamMs < 5000);
+    }
+
+    @Test
+    public void reportsRateLimitWithRetryAfter() throws Exception {
+        server.rateLimitEvery(1, 2);
+        Result result = stream();
+        assertEquals(429, result.httpCode);
+        assertEquals(2000, result.retryAfterMs);
+        assertFalse(result.done);
+    }
+
+    @Test
+    public void reportsServerErrors() throws Exception {
+        server.failEvery(2).setTimeToFirstTokenMs(0).setTokensPerSecond(0);
+        assertTrue(stream().done);
+        Result failed = stream();
+        assertEquals(500, failed.httpCode);
+        assertEquals(-1, failed.retryAfterMs);
+    }
+
+    @Test
+    public void parsesRetryAfterSeconds() {
+        assertEquals(-1, GroqChatClient.parseRetryAfter(null));
+        assertEquals(-1, GroqChatClient.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertEquals(7000, GroqChatClient.parseRetryAfter("7"));
+        assertEquals(1500, GroqChatClient.parseRetryAfter(" 1.5 "));
+    }
+
+    private Result stream() throws InterruptedException {
+        Result result = new Result();
+        CountDownLatch finished = new CountDownLatch(1);
+        long start = System.nanoTime();
+        client.stream(REQUEST, new GroqChatClient.Listener() {
+            @Override
+            public void onContent(CharSequence content) {
+                if (result.deltas++ == 0) {
+                    result.firstTokenMs = (System.nanoTime() - start) / 1_000_000;
+                }
+                result.text.append(content);
+            }
+
+            @Override
+            public void onComplete(boolean done) {
+                result.done = done;
+                result.endMs = (System.nanoTime() - start) / 1_000_000;
+                finished.countDown();
+            }
+
+            @Override
+            public void onHttpError(int code, long retryAfterMs) {
+                result.httpCode = code;
+                result.retryAfterMs = retryAfterMs;
+                finished.countDown();
+            }
+
+            @Override
+            public void onFailure(IOException e) {
+                finished.countDown();
+            }
+        });
+        assertTrue("no answer", finished.await(10, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private static class Result {
+        final StringBuilder text = new StringBuilder();
+        int deltas;
+        boolean done;
+        long firstTokenMs = -1;
+        long endMs;
+        int httpCode;
+        long retryAfterMs;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.ensa_meal.chat;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * MarkdownStreamParser: structure of a Chef-style answer, and the same result
+ * however the stream is cut into deltas.
+ */
+public class MarkdownStreamParserTest {
+
+    private static final String ANSWER = "## Garlic Shrimp Pasta\n"
+            + "Quick, **restaurant-quality** and *cheap*.\n"
+            + "\n"
+            + "Ingredients:\n"
+            + "- 200 g shrimp\n"
+            + "* 3 cloves `garlic`\n"
+            + "  - 2 * 3 tbsp butter\n"
+            + "\n"
+            + "Steps:\n"
+            + "1. Boil the **pasta**\n"
+            + "12) Toss everything\n"
+            + "-not a bullet and #not a heading\n"
+            + "**Total time:** 15 min";
+
+    private static final String EXPECTED = "<h2>Garlic Shrimp Pasta\n"
+            + "<p>Quick, <b>restaurant-quality</b> and <i>cheap</i>.\n"
+            + "<p>\n"
+            + "<p>Ingredients:\n"
+            + "<li0>200 g shrimp\n"
+            + "<li0>3 cloves <code>garlic</code>\n"
+            + "<li2>2 * 3 tbsp butter\n"
+            + "<p>\n"
+            + "<p>Steps:\n"
+            + "<n1>Boil the <b>pasta</b>\n"
+            + "<n12>Toss everything\n"
+            + "<p>-not a bullet and #not a heading\n"
+            + "<p><b>Total time:</b> 15 min";
+
+    @Test
+    public void parsesChefAnswer() {
+        assertEquals(EXPECTED, render(ANSWER, ANSWER.length()));
+    }
+
+    @Test
+    public void sameStructureWhateverTheChunkSize() {
+        for (int size = 1; size <= 9; size++) {
+            assertEquals("chunk size " + size, EXPECTED, render(ANSWER, size));
+        }
+    }
+
+    @Test
+    public void sameStructureWhereverTheStreamIsCut() {
+        for (int cut = 1; cut < ANSWER.length(); cut++) {
+            Markup markup = new Markup();
+            MarkdownStreamParser parser = new MarkdownStreamParser(markup);
+            parser.feed(ANSWER.substring(0, cut));
+            parser.feed(ANSWER.substring(cut));
+            parser.finish();
+            assertEquals("cut at " + cut, EXPECTED, markup.out.toString());
+        }
+    }
+
+    @Test
+    public void heldBackMarkersAreReleasedAtTheEnd() {
+        assertEquals("<p>-", render("-", 1));
+        assertEquals("<p>12", render("12", 1));
+        assertEquals("<p>5 *", render("5 *", 1));
+        assertEquals("<p><b>open</b>", render("**open", 2));
+    }
+
+    @Test
+    public void stylesDoNotLeakIntoTheNextLine() {
+        assertEquals("<p><b>half</b>\n<p>next", render("**half\nnext", 3));
+    }
+
+    private static String render(String text, int chunkSize) {
+        Markup markup = new Markup();
+        MarkdownStreamParser parser = new MarkdownStreamParser(markup);
+        for (int i = 0; i < text.length(); i += chunkSize) {
+            parser.feed(text.substring(i, Math.min(text.length(), i + chunkSize)));
+        }
+        parser.finish();
+        return markup.out.toString();
+    }
+
+    /**
+     * Renders parser events as tags, e.g. "<li2>" for a bullet indented by two spaces
+     */
+    private static class Markup implements MarkdownStreamParser.Sink {
+        final StringBuilder out = new StringBuilder();
+
+        @Override
+        public void text(CharSequence text) {
+            out.append(text);
+        }
+
+        @Override
+        public void blockStart(MarkdownStreamParser.Block block, int number, int indent) {
+            switch (block) {
+                case BULLET:
+                    out.append("<li").append(indent).append('>');
+                    break;
+                case NUMBERED:
+                    out.append("<n").append(number).append('>');
+                    break;
+                case HEADING:
+                    out.append("<h").append(number).append('>');
+                    break;
+                default:
+                    out.append("<p>");
+            }
+        }
+
+        @Override
+        public void lineEnd() {
+            out.append('\n');
+        }
+
+        @Override
+        public void inlineStart(MarkdownStreamParser.Inline style) {
+            out.append('<').append(tag(style)).append('>');
+        }
+
+        @Override
+        public void inlineEnd(MarkdownStreamParser.Inline style) {
+            out.append("</").append(tag(style)).append('>');
+        }
+
+        private static String tag(MarkdownStreamParser.Inline style) {
+            return style == MarkdownStreamParser.Inline.BOLD ? "b"
+                    : style == MarkdownStreamParser.Inline.ITALIC ? "i" : "code";
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.ensa_meal.chat;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.Okio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SseContentParser against recorded Groq stream fixtures (src/test/resources/sse)
+ * served by a local MockWebServer.
+ */
+public class SseContentParserTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void parsesBasicStream() throws IOException {
+        Result result = stream("groq_basic.txt", false);
+        assertTrue(result.done);
+        assertEquals("Make Chicken Tajine.\n\n1. Brown the chicken\n2. Add \"preserved\" lemons", result.text());
+        // Role-only and finish chunks carry no content
+        assertEquals(4, result.deltas.size());
+    }
+
+    @Test
+    public void sameResultWhenBytesArriveInTinyPieces() throws IOException {
+        Result whole = stream("groq_basic.txt", false);
+        Result throttled = stream("groq_basic.txt", true);
+        assertEquals(whole.deltas, throttled.deltas);
+        assertTrue(throttled.done);
+    }
+
+    @Test
+    public void decodesUnicodeEscapesRawUtf8AndCrlf() throws IOException {
+        Result result = stream("groq_unicode.txt", true);
+        assertTrue(result.done);
+        assertEquals("Crème brûlée Ṭājīn 🍋 🍗", result.text());
+    }
+
+    @Test
+    public void joinsMultiLineEventsAndStopsAtDone() throws IOException {
+        Result result = stream("groq_multiline.txt", false);
+        assertTrue(result.done);
+        assertEquals("Hearty soup", result.text());
+    }
+
+    @Test
+    public void deliversLastEventWhenStreamEndsWithoutDone() throws IOException {
+        Result result = stream("groq_no_done.txt", false);
+        assertFalse(result.done);
+        assertEquals("Quick pasta", result.text());
+    }
+
+    @Test
+    public void allocatesAlmostNothingPerChunk() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+        String event = "data: {\"id\":\"chatcmpl-8c1f\",\"object\":\"chat.completion.chunk\","
+                + "\"choices\":[{\"index\":0,\"delta\":{\"content\":\" token\"},\"finish_reason\":null}]}\n\n";
+        int chunks = 2000;
+        StringBuilder received = new StringBuilder(chunks * 8);
+        SseContentParser parser = new SseContentParser(received::append);
+
+        // Warm up so buffers have reached their final size
+        parser.parse(repeat(event, chunks));
+        received.setLength(0);
+
+        Buffer source = repeat(event, chunks);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        parser.parse(source);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(chunks * " token".length(), received.length());
+        assertTrue("allocated " + allocated / chunks + " bytes per chunk", allocated / chunks < 64);
+    }
+
+    private static Buffer repeat(String event, int times) {
+        Buffer buffer = new Buffer();
+        for (int i = 0; i < times; i++) {
+            buffer.writeUtf8(event);
+        }
+        return buffer;
+    }
+
+    private Result stream(String fixture, boolean throttle) throws IOException {
+        MockResponse mock = new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody(readFixture(fixture));
+        if (throttle) {
+            // 7-byte writes split lines, escapes and UTF-8 sequences across reads
+            mock.throttleBody(7, 1, TimeUnit.MILLISECONDS);
+        }
+        server.enqueue(mock);
+
+        Result result = new Result();
+        Request request = new Request.Builder().url(server.url("/openai/v1/chat/completions")).build();
+        try (Response response = client.newCall(request).execute()) {
+            SseContentParser parser = new SseContentParser(content -> result.deltas.add(content.toString()));
+            result.done = parser.parse(response.body().source());
+        }
+        return result;
+    }
+
+    private Buffer readFixture(String name) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("sse/" + name)) {
+            Buffer buffer = new Buffer();
+            buffer.writeAll(Okio.source(in));
+            return buffer;
+        }
+    }
+
+    private static class Result {
+        final List<String> deltas = new ArrayList<>();
+        boolean done;
+
+        String text() {
+            return String.join("", deltas);
+        }
+    }
+}
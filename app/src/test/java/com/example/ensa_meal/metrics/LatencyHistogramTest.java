@@ -0,0 +1,78 @@
+package com.example.ensa_meal.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValueInOrder() {
+        long previous = -1;
+        for (int index = 0; index < LatencyHistogram.BUCKETS; index++) {
+            long lower = LatencyHistogram.lowerBound(index);
+            assertTrue("bucket " + index + " starts after the previous one", lower > previous);
+            assertEquals(index, LatencyHistogram.indexOf(lower));
+            assertEquals(index, LatencyHistogram.indexOf(LatencyHistogram.lowerBound(index + 1) - 1));
+            previous = lower;
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros);
+        }
+        assertWithin(50_000, histogram.percentile(50));
+        assertWithin(90_000, histogram.percentile(90));
+        assertWithin(99_000, histogram.percentile(99));
+        assertEquals(100_000, histogram.snapshot().maxMicros);
+        assertEquals(100_000, histogram.getCount());
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(5);
+        assertEquals(3, histogram.percentile(50));
+        assertEquals(5, histogram.percentile(99));
+    }
+
+    @Test
+    public void skewedDistributionKeepsItsTail() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(7);
+        for (int i = 0; i < 9_900; i++) {
+            histogram.record(1_000 + random.nextInt(200)); // ~1 ms
+        }
+        for (int i = 0; i < 100; i++) {
+            histogram.record(250_000); // 1 % at 250 ms
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertWithin(1_100, snapshot.p50Micros);
+        assertTrue(snapshot.p90Micros < 2_000);
+        assertWithin(250_000, histogram.percentile(99.5));
+    }
+
+    @Test
+    public void resetEmptiesIt() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(5_000_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.snapshot().maxMicros);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected / 16 + 1);
+    }
+}
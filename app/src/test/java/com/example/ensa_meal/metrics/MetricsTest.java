@@ -0,0 +1,66 @@
+package com.example.ensa_meal.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+
+    @Test
+    public void sameNameSameMetric() {
+        assertTrue(Metrics.counter("test.same") == Metrics.counter("test.same"));
+        assertTrue(Metrics.histogram("test.same") == Metrics.histogram("test.same"));
+    }
+
+    @Test
+    public void dumpListsEveryKind() {
+        Metrics.counter("test.dump.requests").add(3);
+        Metrics.gauge("test.dump.size").setSupplier(() -> 42);
+        Metrics.histogram("test.dump.latency").record(2_500);
+
+        String dump = Metrics.dumpToString();
+        assertTrue(dump, dump.contains("test.dump.requests"));
+        assertTrue(dump, dump.contains("42"));
+        assertTrue(dump, dump.contains("test.dump.latency"));
+        assertTrue(dump, dump.contains("2.50"));
+    }
+
+    @Test
+    public void resetKeepsGauges() {
+        Metrics.counter("test.reset.count").increment();
+        Metrics.gauge("test.reset.level").set(7);
+        Metrics.reset();
+        assertEquals(0, Metrics.counter("test.reset.count").get());
+        assertEquals(7, Metrics.gauge("test.reset.level").get());
+    }
+
+    @Test
+    public void timedWorkIsTraced() {
+        List<String> events = new ArrayList<>();
+        Metrics.setSectionTracer(new Metrics.SectionTracer() {
+            @Override
+            public void begin(String name) {
+                events.add("begin " + name);
+            }
+
+            @Override
+            public void end() {
+                events.add("end");
+            }
+        });
+        try {
+            int result = Metrics.histogram("test.traced").time(() -> {
+                events.add("work");
+                return 42;
+            });
+            assertEquals(42, result);
+            assertEquals("[begin test.traced, work, end]", events.toString());
+        } finally {
+            Metrics.setSectionTracer(null);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+// JMH benchmarks of the :core hot paths: ./gradlew :benchmarks:jmh
+plugins {
+    java
+    id("me.champeau.jmh")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+    jmh("org.json:json:20240303")
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+}
+
+// Re-record the TheMealDB responses the parser benchmarks replay
+val recordFixtures by tasks.registering {
+    group = "benchmark"
+    description = "Downloads TheMealDB search responses into src/jmh/resources/fixtures"
+    val fixtures = mapOf(
+        "search_chicken.json" to "search.php?s=chicken",
+        "search_beef.json" to "search.php?s=beef",
+        "search_letter_c.json" to "search.php?f=c"
+    )
+    val dir = layout.projectDirectory.dir("src/jmh/resources/fixtures")
+    doLast {
+        fixtures.forEach { (file, path) ->
+            val body = uri("https://www.themealdb.com/api/json/v1/1/$path").toURL().readText()
+            dir.file(file).asFile.writeText(body)
+            logger.lifecycle("Recorded $file (${body.length} chars)")
+        }
+    }
+}
+
+// Heap retained by List<Plat> vs. MealCatalog
+val catalogFootprint by tasks.registering(JavaExec::class) {
+    group = "benchmark"
+    description = "Prints the heap footprint of the catalog representations"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.example.ensa_meal.benchmarks.CatalogFootprint")
+}
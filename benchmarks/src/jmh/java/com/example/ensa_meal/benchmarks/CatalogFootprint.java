@@ -0,0 +1,94 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.MealCatalog;
+import com.example.ensa_meal.MealDetail;
+import com.example.ensa_meal.Plat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Heap retained by the local catalog in each representation, measured as the
+ * difference in used heap after full GCs: ./gradlew :benchmarks:catalogFootprint
+ */
+public final class CatalogFootprint {
+
+    private static final int[] SIZES = {1000, 10000};
+
+    // Reachable from a static so neither is collected early (dead locals may be)
+    private static List<MealDetail> source;
+    private static Object retainedStructure;
+
+    private CatalogFootprint() {
+    }
+
+    public static void main(String[] args) {
+        for (int size : SIZES) {
+            List<MealDetail> details = Fixtures.details(size);
+            source = details;
+            long plats = retained(() -> {
+                List<Plat> list = new ArrayList<>(size);
+                for (MealDetail meal : details) {
+                    list.add(new Plat(copy(meal.getId()), copy(meal.getName()), copy(meal.getImageUrl()),
+                            copy(meal.getInstructions())));
+                }
+                return list;
+            });
+            long platsWithoutInstructions = retained(() -> {
+                List<Plat> list = new ArrayList<>(size);
+                for (MealDetail meal : details) {
+                    list.add(new Plat(copy(meal.getId()), copy(meal.getName()), copy(meal.getImageUrl()), ""));
+                }
+                return list;
+            });
+            long catalog = retained(() -> catalog(details));
+            System.out.printf("%6d meals: List<Plat> %,d KB | without instructions %,d KB | MealCatalog %,d KB "
+                            + "(self-reported %,d KB)%n",
+                    size, plats / 1024, platsWithoutInstructions / 1024, catalog / 1024,
+                    catalog(details).sizeInBytes() / 1024);
+        }
+    }
+
+    static MealCatalog catalog(List<MealDetail> details) {
+        MealCatalog.Builder builder = new MealCatalog.Builder();
+        for (MealDetail meal : details) {
+            List<String> ingredients = new ArrayList<>(meal.getIngredients().size());
+            for (MealDetail.Ingredient ingredient : meal.getIngredients()) {
+                ingredients.add(ingredient.getName());
+            }
+            builder.add(meal.getId(), meal.getName(), meal.getImageUrl(), meal.getCategory(), meal.getArea(),
+                    ingredients);
+        }
+        return builder.build(null);
+    }
+
+    /**
+     * Used heap growth while the built structure is reachable. Strings are copied
+     * so the structure does not share them with the fixtures.
+     */
+    private static long retained(Supplier<Object> build) {
+        long before = usedAfterGc();
+        retainedStructure = build.get();
+        long after = usedAfterGc();
+        retainedStructure = null;
+        return after - before;
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray()); // new String(String) would share the bytes
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
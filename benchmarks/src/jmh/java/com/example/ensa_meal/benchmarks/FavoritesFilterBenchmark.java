@@ -0,0 +1,58 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.FavoritesFilter;
+import com.example.ensa_meal.chat.FavoritesRanker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One keystroke in the favorites search box: the previous loop (lower-case the query
+ * and every name per item) vs. {@link FavoritesFilter}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FavoritesFilterBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int favorites;
+
+    @Param({"chi", "Beef Tagine", "zzz"})
+    public String query;
+
+    private List<FavoritesRanker.Entry> all;
+    private final List<FavoritesRanker.Entry> out = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        all = Fixtures.syntheticFavorites(favorites, 42);
+    }
+
+    @Benchmark
+    public List<FavoritesRanker.Entry> legacy() {
+        out.clear();
+        for (FavoritesRanker.Entry favorite : all) {
+            if (favorite.name.toLowerCase().contains(query.toLowerCase())) {
+                out.add(favorite);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<FavoritesRanker.Entry> favoritesFilter() {
+        FavoritesFilter.filter(all, entry -> entry.name, query, out);
+        return out;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.MealDetail;
+import com.example.ensa_meal.MealParser;
+import com.example.ensa_meal.chat.FavoritesRanker;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixtures - Inputs shared by the benchmarks
+ *
+ * - Recorded TheMealDB responses from src/jmh/resources/fixtures
+ *   (./gradlew :benchmarks:recordFixtures). A missing recording is replaced by a
+ *   synthetic response of the same shape so the benchmarks still run.
+ * - Synthetic favorites with a fixed seed, so runs are comparable
+ */
+final class Fixtures {
+
+    static final String[] RESPONSES = {"search_chicken.json", "search_beef.json", "search_letter_c.json"};
+
+    private static final String[] DISHES = {"Chicken", "Beef", "Lamb", "Salmon", "Tofu", "Pork", "Prawn", "Duck"};
+    private static final String[] STYLES = {"Tagine", "Curry", "Stew", "Pie", "Couscous", "Stir Fry", "Soup", "Roast"};
+    private static final String[] COMMENTS = {"", "too spicy", "kids love it", "make it on sundays",
+            "needs more garlic", "quick weeknight dinner", ""};
+
+    private Fixtures() {
+    }
+
+    /**
+     * Body of a recorded search response, or a synthetic one if it was never recorded
+     */
+    static String response(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in != null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toString(StandardCharsets.UTF_8.name());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read fixture " + name, e);
+        }
+        System.err.println("Fixture " + name + " not recorded, using a synthetic response");
+        return syntheticResponse(25, name.hashCode());
+    }
+
+    /**
+     * search.php-shaped response: every field TheMealDB returns, 20 ingredient slots
+     */
+    static String syntheticResponse(int meals, long seed) {
+        Random random = new Random(seed);
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < meals; i++) {
+            JSONObject meal = new JSONObject();
+            meal.put("idMeal", String.valueOf(52700 + i));
+            meal.put("strMeal", mealName(random));
+            meal.put("strDrinkAlternate", JSONObject.NULL);
+            meal.put("strCategory", DISHES[random.nextInt(DISHES.length)]);
+            meal.put("strArea", "Moroccan");
+            StringBuilder instructions = new StringBuilder();
+            for (int step = 1; step <= 8; step++) {
+                instructions.append("Step ").append(step)
+                        .append(": heat the pan, add the spices and cook for ").append(5 + random.nextInt(20))
+                        .append(" minutes, stirring from time to time.\r\n");
+            }
+            meal.put("strInstructions", instructions.toString());
+            meal.put("strMealThumb", "https://www.themealdb.com/images/media/meals/" + i + ".jpg");
+            meal.put("strTags", "Meat,Dinner");
+            meal.put("strYoutube", "https://www.youtube.com/watch?v=" + i);
+            int ingredients = 6 + random.nextInt(12);
+            for (int n = 1; n <= 20; n++) {
+                meal.put("strIngredient" + n, n <= ingredients ? "Ingredient " + random.nextInt(200) : "");
+                meal.put("strMeasure" + n, n <= ingredients ? (1 + random.nextInt(500)) + "g" : " ");
+            }
+            meal.put("strSource", "");
+            meal.put("dateModified", JSONObject.NULL);
+            array.put(meal);
+        }
+        return new JSONObject().put("meals", array).toString();
+    }
+
+    /**
+     * {@code count} meal details: the recorded responses, repeated with new IDs and
+     * distinct names and image files so repeats do not pool for free
+     */
+    static List<MealDetail> details(int count) {
+        List<MealDetail> recorded = new ArrayList<>();
+        for (String name : RESPONSES) {
+            recorded.addAll(MealParser.parseDetails(new JSONObject(response(name)), 0L));
+        }
+        List<MealDetail> details = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MealDetail meal = recorded.get(i % recorded.size());
+            int copy = i / recorded.size();
+            String image = meal.getImageUrl();
+            int slash = image.lastIndexOf('/');
+            details.add(new MealDetail(String.valueOf(100_000 + i),
+                    copy == 0 ? meal.getName() : meal.getName() + " " + copy,
+                    meal.getCategory(), meal.getArea(), meal.getInstructions(),
+                    image.substring(0, slash + 1) + copy + "_" + image.substring(slash + 1),
+                    meal.getIngredients(), 0L));
+        }
+        return details;
+    }
+
+    static List<FavoritesRanker.Entry> syntheticFavorites(int count, long seed) {
+        Random random = new Random(seed);
+        long now = System.currentTimeMillis();
+        List<FavoritesRanker.Entry> favorites = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            favorites.add(new FavoritesRanker.Entry(
+                    mealName(random) + " " + i,
+                    COMMENTS[random.nextInt(COMMENTS.length)],
+                    random.nextInt(6),
+                    now - random.nextInt(365) * 86_400_000L));
+        }
+        return favorites;
+    }
+
+    private static String mealName(Random random) {
+        return DISHES[random.nextInt(DISHES.length)] + " " + STYLES[random.nextInt(STYLES.length)];
+    }
+}
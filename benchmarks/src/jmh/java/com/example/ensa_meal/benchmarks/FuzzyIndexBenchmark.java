@@ -0,0 +1,70 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.FuzzyIndex;
+import com.example.ensa_meal.MealDetail;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typo-tolerant search over the local catalog's names. The budget is one frame
+ * (16 ms) on a phone for the largest catalog, so a few ms here at most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FuzzyIndexBenchmark {
+
+    @Param({"1000", "10000"})
+    public int meals;
+
+    @Param({"chiken", "beef welingtn", "tagnie"})
+    public String query;
+
+    private List<MealDetail> details;
+    private FuzzyIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        details = Fixtures.details(meals);
+        index = build(details);
+    }
+
+    private static FuzzyIndex build(List<MealDetail> details) {
+        FuzzyIndex index = new FuzzyIndex();
+        for (MealDetail meal : details) {
+            index.put(Integer.parseInt(meal.getId()), meal.getName());
+        }
+        return index;
+    }
+
+    @Benchmark
+    public int search() {
+        return index.search(query, 30).size();
+    }
+
+    /**
+     * One meal cached or renamed: what the index pays instead of a rebuild
+     */
+    @Benchmark
+    public boolean putOne() {
+        MealDetail meal = details.get(next++ % details.size());
+        return index.put(Integer.parseInt(meal.getId()), meal.getName() + " " + next);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int rebuild() {
+        return build(details).size();
+    }
+}
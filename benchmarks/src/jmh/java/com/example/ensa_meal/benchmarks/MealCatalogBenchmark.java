@@ -0,0 +1,89 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.MealCatalog;
+import com.example.ensa_meal.MealDetail;
+import com.example.ensa_meal.Plat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full scans of the local catalog: a List of objects vs. {@link MealCatalog}.
+ * Heap footprint is measured separately by {@link CatalogFootprint}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MealCatalogBenchmark {
+
+    private static final String QUERY = "chicken";
+
+    @Param({"1000", "10000"})
+    public int meals;
+
+    private List<Plat> plats;
+    private List<MealDetail> details;
+    private MealCatalog catalog;
+    private int[] rows;
+    private final List<Plat> matches = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        details = Fixtures.details(meals);
+        plats = new ArrayList<>(meals);
+        for (MealDetail meal : details) {
+            plats.add(new Plat(meal.getId(), meal.getName(), meal.getImageUrl(), meal.getInstructions()));
+        }
+        catalog = CatalogFootprint.catalog(details);
+        rows = new int[meals];
+    }
+
+    @Benchmark
+    public int nameSearchPlats() {
+        matches.clear();
+        for (Plat plat : plats) {
+            if (plat.getName().toLowerCase().contains(QUERY)) {
+                matches.add(plat);
+            }
+        }
+        return matches.size();
+    }
+
+    @Benchmark
+    public int nameSearchCatalog() {
+        return catalog.searchNames(QUERY, rows);
+    }
+
+    @Benchmark
+    public int categoryScanDetails() {
+        int count = 0;
+        for (MealDetail meal : details) {
+            if ("Chicken".equals(meal.getCategory())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int categoryScanCatalog() {
+        int chicken = catalog.handleOf("Chicken");
+        int count = 0;
+        for (int row = 0; row < catalog.size(); row++) {
+            if (catalog.categoryHandle(row) == chicken) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.MealDetail;
+import com.example.ensa_meal.MealParser;
+import com.example.ensa_meal.Plat;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a search response, as handleApiResponse does: from the body string
+ * (what the app pays per search), and from an already built JSONObject
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MealParserBenchmark {
+
+    @Param({"search_chicken.json", "search_beef.json", "search_letter_c.json"})
+    public String fixture;
+
+    private String body;
+    private JSONObject response;
+
+    @Setup
+    public void setUp() {
+        body = Fixtures.response(fixture);
+        response = new JSONObject(body);
+    }
+
+    @Benchmark
+    public ArrayList<Plat> parseMealsFromBody() {
+        return MealParser.parseMeals(new JSONObject(body));
+    }
+
+    @Benchmark
+    public ArrayList<Plat> parseMeals() {
+        return MealParser.parseMeals(response);
+    }
+
+    @Benchmark
+    public ArrayList<MealDetail> parseDetails() {
+        return MealParser.parseDetails(response, 0L);
+    }
+}
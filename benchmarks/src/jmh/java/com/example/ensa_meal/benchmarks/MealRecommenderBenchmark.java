@@ -0,0 +1,71 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.MealRecommender;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On-device meal recommendations: one ranking per chat question, and the rebuild
+ * RecommendationRepository pays when favorites or cached meals change. A ranking
+ * answers an offline question directly, so it should stay well under a frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MealRecommenderBenchmark {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final String[] AREAS = {"Moroccan", "Italian", "Greek", "Indian", "Mexican", "French", "Japanese"};
+    private static final String[] CATEGORIES = {"Chicken", "Beef", "Pasta", "Dessert", "Seafood", "Vegetarian", "Lamb"};
+
+    @Param({"1000", "5000"})
+    public int meals;
+
+    @Param({"what should I cook", "chicken dinner"})
+    public String question;
+
+    private List<MealRecommender.Meal> catalog;
+    private List<MealRecommender.Taste> favorites;
+    private MealRecommender recommender;
+
+    @Setup
+    public void setUp() {
+        catalog = new ArrayList<>(meals);
+        favorites = new ArrayList<>(meals / 10);
+        for (int i = 0; i < meals; i++) {
+            List<String> ingredients = new ArrayList<>();
+            for (int j = 0; j < 10; j++) {
+                ingredients.add("Ingredient " + ((i * 7 + j * 13) % 300));
+            }
+            catalog.add(new MealRecommender.Meal(String.valueOf(i), "Meal " + i,
+                    CATEGORIES[i % CATEGORIES.length], AREAS[i % AREAS.length], ingredients));
+            if (i % 10 == 0) {
+                favorites.add(new MealRecommender.Taste(String.valueOf(i), "Meal " + i, 1 + i % 5, null, NOW - i * DAY / 10));
+            }
+        }
+        recommender = new MealRecommender(catalog, favorites, NOW);
+    }
+
+    @Benchmark
+    public int recommend() {
+        return recommender.recommend(question, 5).size();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MealRecommender rebuild() {
+        return new MealRecommender(catalog, favorites, NOW);
+    }
+}
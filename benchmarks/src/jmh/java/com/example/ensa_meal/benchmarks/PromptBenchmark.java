@@ -0,0 +1,57 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.chat.ChefPrompt;
+import com.example.ensa_meal.chat.FavoritesRanker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the Chef system prompt: indexing the favorites, picking the most relevant
+ * ones for a question, and rendering the prompt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromptBenchmark {
+
+    private static final String QUESTION = "something quick with chicken, not too spicy";
+    private static final int TOP_K = 20;
+
+    @Param({"100", "1000", "10000"})
+    public int favorites;
+
+    private List<FavoritesRanker.Entry> entries;
+    private FavoritesRanker ranker;
+
+    @Setup
+    public void setUp() {
+        entries = Fixtures.syntheticFavorites(favorites, 42);
+        ranker = new FavoritesRanker(entries);
+    }
+
+    @Benchmark
+    public FavoritesRanker buildRanker() {
+        return new FavoritesRanker(entries);
+    }
+
+    @Benchmark
+    public List<FavoritesRanker.Entry> topK() {
+        return ranker.topK(QUESTION, TOP_K);
+    }
+
+    @Benchmark
+    public String fullPrompt() {
+        List<FavoritesRanker.Entry> top = ranker.topK(QUESTION, TOP_K);
+        return ChefPrompt.build(ChefPrompt.buildFavoritesContext(top, ranker.size()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ensa_meal.benchmarks;
+
+import com.example.ensa_meal.TimeAgo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "added 3 days ago" label, computed for every favorites row bind
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimeAgoBenchmark {
+
+    private final long now = System.currentTimeMillis();
+    private final long[] timestamps = {now - 5_000, now - 300_000, now - 7_200_000, now - 259_200_000};
+    private int next;
+
+    @Benchmark
+    public String format() {
+        long timestamp = timestamps[next++ & 3];
+        return TimeAgo.format(timestamp, now);
+    }
+}
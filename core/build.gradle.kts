@@ -0,0 +1,16 @@
+// Plain JVM code shared by the app and the benchmarks: parsing, filtering, prompts
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    // Android ships org.json; only the JVM consumers (tests, benchmarks) need the jar
+    compileOnly("org.json:json:20240303")
+    testImplementation(libs.junit)
+    testImplementation("org.json:json:20240303")
+}
@@ -0,0 +1,100 @@
+package com.example.ensa_meal;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+/**
+ * BrowseList - One list of TheMealDB's browse endpoints
+ *
+ * - A category ("Seafood") or area ("Italian") list of meals, from filter.php
+ * - The directory of every category or area (categories.php, list.php?a=list),
+ *   which has an empty name
+ *
+ * Lists are cached under {@link #key()} ("c:Seafood", "a:", ...) together with
+ * the time they were fetched; {@link #isStale} decides when to fetch them again.
+ */
+public final class BrowseList {
+
+    public static final String CATEGORY = "c";
+    public static final String AREA = "a";
+
+    public static final long DIRECTORY_MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000; // Categories barely change
+    public static final long MEALS_MAX_AGE_MS = 24L * 60 * 60 * 1000;
+
+    private static final String API_URL = "https://www.themealdb.com/api/json/v1/1/";
+
+    public final String kind;
+    public final String name;
+
+    private BrowseList(String kind, String name) {
+        this.kind = kind;
+        this.name = name;
+    }
+
+    public static BrowseList category(String name) {
+        return new BrowseList(CATEGORY, name);
+    }
+
+    public static BrowseList area(String name) {
+        return new BrowseList(AREA, name);
+    }
+
+    /**
+     * A category or area list by its kind, e.g. a name from the directory
+     */
+    public static BrowseList of(String kind, String name) {
+        return new BrowseList(kind, name);
+    }
+
+    /**
+     * Every category or every area
+     */
+    public static BrowseList directory(String kind) {
+        return new BrowseList(kind, "");
+    }
+
+    /**
+     * @return null if the key is not one of {@link #key()}'s
+     */
+    public static BrowseList fromKey(String key) {
+        if (key == null || key.length() < 2 || key.charAt(1) != ':') {
+            return null;
+        }
+        String kind = key.substring(0, 1);
+        if (!CATEGORY.equals(kind) && !AREA.equals(kind)) {
+            return null;
+        }
+        return new BrowseList(kind, key.substring(2));
+    }
+
+    public boolean isDirectory() {
+        return name.isEmpty();
+    }
+
+    public String key() {
+        return kind + ":" + name;
+    }
+
+    /**
+     * Endpoint of the list
+     */
+    public String url() {
+        if (isDirectory()) {
+            return API_URL + (CATEGORY.equals(kind) ? "categories.php" : "list.php?a=list");
+        }
+        try {
+            return API_URL + "filter.php?" + kind + "=" + URLEncoder.encode(name, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e); // UTF-8 is always supported
+        }
+    }
+
+    /**
+     * Whether a copy fetched at {@code fetchedAt} should be fetched again
+     * @param fetchedAt 0 if the list was never fetched
+     */
+    public boolean isStale(long fetchedAt, long now) {
+        long maxAge = isDirectory() ? DIRECTORY_MAX_AGE_MS : MEALS_MAX_AGE_MS;
+        return fetchedAt <= 0 || now - fetchedAt >= maxAge || now < fetchedAt;
+    }
+}
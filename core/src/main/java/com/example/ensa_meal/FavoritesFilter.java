@@ -0,0 +1,54 @@
+package com.example.ensa_meal;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * FavoritesFilter - Name search over the favorites list
+ *
+ * Case-insensitive "contains" without lower-casing anything: the query used to be
+ * lower-cased once per favorite and every name copied on every keystroke.
+ */
+public final class FavoritesFilter {
+
+    private FavoritesFilter() {
+    }
+
+    /**
+     * Items whose name contains {@code query}, ignoring case, in their original order
+     * @param out Receives the matches; cleared first
+     */
+    public static <T> void filter(List<T> items, Function<T, String> nameOf, String query, List<T> out) {
+        out.clear();
+        if (query == null || query.isEmpty()) {
+            out.addAll(items);
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            String name = nameOf.apply(item);
+            if (name != null && containsIgnoreCase(name, query)) {
+                out.add(item);
+            }
+        }
+    }
+
+    public static boolean containsIgnoreCase(String text, String query) {
+        int last = text.length() - query.length();
+        if (query.isEmpty()) {
+            return true;
+        }
+        char first = query.charAt(0);
+        char firstUpper = Character.toUpperCase(first);
+        char firstLower = Character.toLowerCase(first);
+        for (int start = 0; start <= last; start++) {
+            char c = text.charAt(start);
+            // Cheap first-character check before comparing the whole region
+            if ((c == firstLower || c == firstUpper || Character.toLowerCase(c) == firstLower)
+                    && text.regionMatches(true, start, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.ensa_meal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FavoritesQuery - One view of the favorites: sort, filters and page size, as SQL
+ *
+ * - Each sort has a matching (key, meal_id) index on favorites, so SQLite walks
+ *   the index instead of sorting; meal_id breaks ties and makes every row's
+ *   position unique
+ * - Pages are keyset-paged: the next page starts after the last row's
+ *   (key, meal_id) instead of skipping OFFSET rows, so page 100 costs what page 1 does
+ * - {@link #facetsSql} counts every filter value in one pass, for the filter menu
+ *
+ * Names sort by name_key, an ASCII-lower-cased copy of the name ({@link #nameKey}),
+ * the same value SQLite's lower() gives when a name is updated in SQL.
+ */
+public final class FavoritesQuery {
+
+    public enum Sort {
+        DATE("added_timestamp", true),
+        RATING("user_rating", true),
+        NAME("name_key", false);
+
+        final String column;
+        final boolean descending;
+
+        Sort(String column, boolean descending) {
+            this.column = column;
+            this.descending = descending;
+        }
+    }
+
+    /**
+     * Where the previous page ended: the last row's sort key and meal ID
+     */
+    public static final class After {
+        final Object key;
+        final String mealId;
+
+        public After(Object key, String mealId) {
+            this.key = key;
+            this.mealId = mealId;
+        }
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int[] MIN_RATING_FACETS = {3, 4, 5}; // Minimum ratings the filter menu offers
+
+    public final Sort sort;
+    public final float minRating; // 0 for any rating
+    public final boolean withComment;
+    public final String nameQuery; // Empty for every name
+    public final int pageSize;
+
+    private FavoritesQuery(Builder builder) {
+        this.sort = builder.sort;
+        this.minRating = builder.minRating;
+        this.withComment = builder.withComment;
+        this.nameQuery = builder.nameQuery;
+        this.pageSize = builder.pageSize;
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+                .sort(sort)
+                .minRating(minRating)
+                .withComment(withComment)
+                .nameQuery(nameQuery)
+                .pageSize(pageSize);
+    }
+
+    /**
+     * SELECT of one page; bind {@link #pageArgs} with it
+     * @param after End of the previous page, null for the first page
+     */
+    public String pageSql(After after) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM favorites");
+        List<String> conditions = filterConditions(true);
+        if (after != null) {
+            // Row values compare column by column, and SQLite can seek the index with them
+            conditions.add("(" + sort.column + ", meal_id) " + (sort.descending ? "<" : ">") + " (?, ?)");
+        }
+        appendWhere(sql, conditions);
+        String direction = sort.descending ? " DESC" : " ASC";
+        sql.append(" ORDER BY ").append(sort.column).append(direction)
+                .append(", meal_id").append(direction)
+                .append(" LIMIT ").append(pageSize);
+        return sql.toString();
+    }
+
+    public Object[] pageArgs(After after) {
+        List<Object> args = filterArgs(true);
+        if (after != null) {
+            args.add(after.key);
+            args.add(after.mealId);
+        }
+        return args.toArray();
+    }
+
+    /**
+     * One row of counts over the favorites matching the name query (the other
+     * filters are what the counts are for): total, with_comment and rated_n
+     * (rating at least n stars) for n = 3, 4 and 5, the filter menu's choices
+     */
+    public String facetsSql() {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total, "
+                + "COALESCE(SUM(user_comment IS NOT NULL AND user_comment != ''), 0) AS with_comment");
+        for (int stars : MIN_RATING_FACETS) {
+            sql.append(", COALESCE(SUM(user_rating >= ").append(stars).append("), 0) AS rated_").append(stars);
+        }
+        sql.append(" FROM favorites");
+        appendWhere(sql, filterConditions(false));
+        return sql.toString();
+    }
+
+    public Object[] facetsArgs() {
+        return filterArgs(false).toArray();
+    }
+
+    /**
+     * Sort key of a name: ASCII letters lower-cased, like SQLite's lower().
+     * Never null: a NULL key would drop out of the keyset comparison.
+     */
+    public static String nameKey(String name) {
+        if (name == null) {
+            return "";
+        }
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+
+    private List<String> filterConditions(boolean allFilters) {
+        List<String> conditions = new ArrayList<>();
+        if (!nameQuery.isEmpty()) {
+            conditions.add("meal_name LIKE ? ESCAPE '\\'");
+        }
+        if (allFilters && minRating > 0) {
+            conditions.add("user_rating >= ?");
+        }
+        if (allFilters && withComment) {
+            conditions.add("user_comment IS NOT NULL AND user_comment != ''");
+        }
+        return conditions;
+    }
+
+    private List<Object> filterArgs(boolean allFilters) {
+        List<Object> args = new ArrayList<>();
+        if (!nameQuery.isEmpty()) {
+            args.add("%" + escapeLike(nameQuery) + "%");
+        }
+        if (allFilters && minRating > 0) {
+            args.add(minRating);
+        }
+        return args;
+    }
+
+    private static void appendWhere(StringBuilder sql, List<String> conditions) {
+        for (int i = 0; i < conditions.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ").append(conditions.get(i));
+        }
+    }
+
+    /**
+     * The user's text matched literally: % and _ are not wildcards
+     */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public static final class Builder {
+        private Sort sort = Sort.DATE;
+        private float minRating;
+        private boolean withComment;
+        private String nameQuery = "";
+        private int pageSize = DEFAULT_PAGE_SIZE;
+
+        public Builder sort(Sort sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        public Builder minRating(float minRating) {
+            this.minRating = minRating;
+            return this;
+        }
+
+        public Builder withComment(boolean withComment) {
+            this.withComment = withComment;
+            return this;
+        }
+
+        public Builder nameQuery(String nameQuery) {
+            this.nameQuery = nameQuery != null ? nameQuery.trim() : "";
+            return this;
+        }
+
+        public Builder pageSize(int pageSize) {
+            this.pageSize = Math.max(1, pageSize);
+            return this;
+        }
+
+        public FavoritesQuery build() {
+            return new FavoritesQuery(this);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.ensa_meal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * FuzzyIndex - Typo-tolerant name search ("chiken" finds "Chicken Handi")
+ *
+ * - Names are split into words and each word into trigrams ("  chicken" ->
+ *   "  c", " ch", "chi", ...); trigram -> names posting lists pick candidates
+ * - A typo breaks at most three trigrams, so a name sharing too few of the
+ *   query's trigrams cannot be within the allowed edits and is never verified
+ * - Candidates are verified word by word with an edit distance (adjacent swaps
+ *   count as one edit) that stops as soon as the bound is exceeded. A query word
+ *   may match the start of a name word, so results show up while typing.
+ *
+ * Names are added, renamed and removed one at a time; removed names are
+ * dropped from the posting lists in bulk once they make up half the index.
+ * Not thread-safe.
+ */
+public final class FuzzyIndex {
+
+    private static final int COMPACT_MIN_DEAD = 64;
+
+    /**
+     * One name found by {@link #search}
+     */
+    public static final class Match {
+        public final int id;
+        public final int distance; // Edits summed over the query words
+        final int sharedTrigrams;
+        final int nameLength;
+
+        Match(int id, int distance, int sharedTrigrams, int nameLength) {
+            this.id = id;
+            this.distance = distance;
+            this.sharedTrigrams = sharedTrigrams;
+            this.nameLength = nameLength;
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    // Per document (one version of one name); a removed document has id -1
+    private int[] ids = new int[64];
+    private String[] names = new String[64]; // As given to put()
+    private String[][] words = new String[64][];
+    private int docCount;
+    private int deadCount;
+
+    private final Map<Integer, Integer> docById = new HashMap<>();
+    private final Map<Integer, IntList> postings = new HashMap<>();
+    private int[] scratchCounts = new int[0]; // Trigrams shared with the query, per document
+    private int[][] scratchRows = new int[3][32]; // Edit distance rows, reused across candidates
+
+    /**
+     * Add or rename a name
+     * @return Whether the index changed (false if the name is already indexed as is)
+     */
+    public boolean put(int id, String name) {
+        Integer doc = docById.get(id);
+        if (doc != null && names[doc].equals(name)) {
+            return false; // Cheap check first: syncing a whole catalog mostly finds unchanged names
+        }
+        String normalized = normalize(name);
+        if (doc != null) {
+            kill(doc);
+        }
+        if (normalized.isEmpty()) {
+            return doc != null;
+        }
+        if (docCount == ids.length) {
+            int capacity = docCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+        int newDoc = docCount++;
+        ids[newDoc] = id;
+        names[newDoc] = name;
+        words[newDoc] = normalized.split(" ");
+        docById.put(id, newDoc);
+        for (int trigram : trigrams(words[newDoc])) {
+            IntList list = postings.get(trigram);
+            if (list == null) {
+                list = new IntList();
+                postings.put(trigram, list);
+            }
+            list.add(newDoc);
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the ID was indexed
+     */
+    public boolean remove(int id) {
+        Integer doc = docById.get(id);
+        if (doc == null) {
+            return false;
+        }
+        kill(doc);
+        return true;
+    }
+
+    /**
+     * Remove every ID the predicate rejects, e.g. meals no longer cached
+     * @return Number of IDs removed
+     */
+    public int retain(IntPredicate keep) {
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : docById.keySet()) {
+            if (!keep.test(id)) {
+                removed.add(id);
+            }
+        }
+        for (int id : removed) {
+            remove(id);
+        }
+        return removed.size();
+    }
+
+    public int size() {
+        return docById.size();
+    }
+
+    /**
+     * Names close to the query, best first: fewest edits, then most shared
+     * trigrams, then shortest name
+     */
+    public List<Match> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String[] queryWords = normalized.split(" ");
+        int allowedEdits = 0;
+        for (String word : queryWords) {
+            allowedEdits += maxEdits(word);
+        }
+        int[] queryTrigrams = trigrams(queryWords);
+        int threshold = Math.max(1, queryTrigrams.length - 3 * allowedEdits);
+
+        if (scratchCounts.length < docCount) {
+            scratchCounts = new int[ids.length];
+        }
+        int[] counts = scratchCounts;
+        IntList touched = new IntList();
+        for (int trigram : queryTrigrams) {
+            IntList list = postings.get(trigram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                int doc = list.values[i];
+                if (counts[doc]++ == 0) {
+                    touched.add(doc);
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < touched.size; i++) {
+            int doc = touched.values[i];
+            int count = counts[doc];
+            counts[doc] = 0;
+            if (count < threshold || ids[doc] < 0) {
+                continue;
+            }
+            int distance = verify(queryWords, words[doc], scratchRows);
+            if (distance >= 0) {
+                matches.add(new Match(ids[doc], distance, count, names[doc].length()));
+            }
+        }
+        matches.sort((a, b) -> {
+            if (a.distance != b.distance) {
+                return Integer.compare(a.distance, b.distance);
+            }
+            if (a.sharedTrigrams != b.sharedTrigrams) {
+                return Integer.compare(b.sharedTrigrams, a.sharedTrigrams);
+            }
+            if (a.nameLength != b.nameLength) {
+                return Integer.compare(a.nameLength, b.nameLength);
+            }
+            return Integer.compare(a.id, b.id);
+        });
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Edits for every query word to match some word of the name, or -1 if one needs too many
+     */
+    private static int verify(String[] queryWords, String[] nameWords, int[][] rows) {
+        int total = 0;
+        for (String queryWord : queryWords) {
+            int bound = maxEdits(queryWord);
+            int best = bound + 1;
+            for (String nameWord : nameWords) {
+                best = Math.min(best, prefixDistance(queryWord, nameWord, bound, rows));
+                if (best == 0) {
+                    break;
+                }
+            }
+            if (best > bound) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * Edits turning {@code query} into some prefix of {@code word}; insertions,
+     * deletions, substitutions and swaps of adjacent letters count one each
+     * @return The distance, or {@code bound + 1} once it is known to be larger
+     */
+    static int prefixDistance(String query, String word, int bound) {
+        return prefixDistance(query, word, bound, new int[3][0]);
+    }
+
+    /**
+     * @param rows Three scratch rows, grown (in place) as needed
+     */
+    private static int prefixDistance(String query, String word, int bound, int[][] rows) {
+        int m = query.length();
+        int n = Math.min(word.length(), m + bound); // Longer prefixes are over the bound anyway
+        if (m - word.length() > bound) {
+            return bound + 1; // The whole word is too short to reach the query
+        }
+        if (rows[0].length <= n) {
+            for (int r = 0; r < 3; r++) {
+                rows[r] = new int[n + 16];
+            }
+        }
+        int[] previous2 = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char q = query.charAt(i - 1);
+            for (int j = 1; j <= n; j++) {
+                char w = word.charAt(j - 1);
+                int cost = q == w ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && q == word.charAt(j - 2) && query.charAt(i - 2) == w) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = bound + 1;
+        for (int j = 0; j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    /**
+     * Edits allowed for a query word: none for 1-2 letters, one up to 5, then two
+     */
+    static int maxEdits(String word) {
+        return word.length() <= 2 ? 0 : word.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Lower-case letters and digits; anything else separates words
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean separate = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (separate && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(Character.toLowerCase(c));
+                separate = false;
+            } else {
+                separate = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Distinct trigrams of the words, each word padded in front only (prefixes keep all of theirs)
+     */
+    private static int[] trigrams(String[] words) {
+        int total = 0;
+        for (String word : words) {
+            total += word.length();
+        }
+        int[] trigrams = new int[total];
+        int count = 0;
+        for (String word : words) {
+            char a = ' ';
+            char b = ' ';
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                // Collisions only add candidates; verification drops them
+                trigrams[count++] = (a * 31 + b) * 31 + c;
+                a = b;
+                b = c;
+            }
+        }
+        Arrays.sort(trigrams, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[unique++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, unique);
+    }
+
+    private void kill(int doc) {
+        docById.remove(ids[doc]);
+        ids[doc] = -1;
+        names[doc] = null;
+        words[doc] = null;
+        deadCount++;
+        if (deadCount >= COMPACT_MIN_DEAD && deadCount * 2 >= docCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumber the live documents and rebuild the posting lists without the removed ones
+     */
+    private void compact() {
+        int[] oldIds = ids;
+        String[] oldNames = names;
+        int oldCount = docCount;
+        ids = new int[Math.max(64, docById.size() * 2)];
+        names = new String[ids.length];
+        words = new String[ids.length][];
+        docCount = 0;
+        deadCount = 0;
+        docById.clear();
+        postings.clear();
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldIds[doc] >= 0) {
+                put(oldIds[doc], oldNames[doc]);
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.ensa_meal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * IngredientIndex - "What can I cook with chicken + lemon + garlic?"
+ *
+ * Inverted index from ingredient words to the meals using them. Each posting
+ * list is a sorted int array of meal IDs, so a query is an intersection of a few
+ * arrays: the shortest list drives, the others are probed by binary search.
+ *
+ * Ingredients are indexed by word ("Chicken Breasts" -> chicken, breast); a
+ * query term of several words ("olive oil") needs all of them in the same meal.
+ * Meals with every term come first, then meals missing one term, and so on;
+ * ties go to the meal with fewer ingredients, i.e. the fewest extra purchases.
+ */
+public final class IngredientIndex {
+
+    private static final Set<String> IGNORED_WORDS = new HashSet<>(Arrays.asList(
+            "of", "and", "or", "the", "a", "fresh", "chopped", "large", "small", "to", "taste"));
+
+    /**
+     * One meal found by {@link #search}
+     */
+    public static final class Match {
+        public final int mealId;
+        public final int matchedTerms;
+
+        Match(int mealId, int matchedTerms) {
+            this.mealId = mealId;
+            this.matchedTerms = matchedTerms;
+        }
+    }
+
+    private final Map<String, int[]> postings;
+
+    private IngredientIndex(Map<String, int[]> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * Index words of an ingredient: lower-case, singular, without filler words
+     */
+    public static List<String> tokens(String ingredient) {
+        if (ingredient == null) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>(2);
+        for (String word : ingredient.toLowerCase(Locale.ROOT).split("[^\\p{L}]+")) {
+            if (word.length() < 2 || IGNORED_WORDS.contains(word)) {
+                continue;
+            }
+            String token = singular(word);
+            if (!tokens.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Terms of an ingredient query ("chicken + lemon, garlic"), each as its index words
+     * @return null if the query is not an ingredient query (no '+' or ',')
+     */
+    public static List<List<String>> parseQuery(String query) {
+        if (query == null || (query.indexOf('+') < 0 && query.indexOf(',') < 0)) {
+            return null;
+        }
+        List<List<String>> terms = new ArrayList<>();
+        for (String term : query.split("[+,]")) {
+            List<String> tokens = tokens(term);
+            if (!tokens.isEmpty()) {
+                terms.add(tokens);
+            }
+        }
+        return terms;
+    }
+
+    public int size() {
+        return postings.size();
+    }
+
+    /**
+     * Meals using the query's ingredients, best first
+     * @param ingredientCount Number of ingredients of a meal ID, for tie-breaking
+     */
+    public List<Match> search(List<List<String>> terms, int limit, IntUnaryOperator ingredientCount) {
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int[][] termPostings = new int[terms.size()][];
+        for (int t = 0; t < terms.size(); t++) {
+            termPostings[t] = termPostings(terms.get(t));
+        }
+
+        // Every posting list is sorted: count in how many lists each meal appears
+        Map<Integer, Integer> matched = new HashMap<>();
+        if (terms.size() == 1 || allPresent(termPostings)) {
+            for (int mealId : intersect(termPostings)) {
+                matched.put(mealId, terms.size());
+            }
+        }
+        if (matched.size() < limit && terms.size() > 1) {
+            for (int[] list : termPostings) {
+                for (int mealId : list) {
+                    Integer count = matched.get(mealId);
+                    if (count == null || count < terms.size()) {
+                        matched.put(mealId, count == null ? 1 : count + 1);
+                    }
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(matched.size());
+        for (Map.Entry<Integer, Integer> entry : matched.entrySet()) {
+            matches.add(new Match(entry.getKey(), entry.getValue()));
+        }
+        matches.sort((a, b) -> {
+            if (a.matchedTerms != b.matchedTerms) {
+                return Integer.compare(b.matchedTerms, a.matchedTerms);
+            }
+            int byIngredients = Integer.compare(ingredientCount.applyAsInt(a.mealId),
+                    ingredientCount.applyAsInt(b.mealId));
+            return byIngredients != 0 ? byIngredients : Integer.compare(a.mealId, b.mealId);
+        });
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Meals having every word of one term
+     */
+    private int[] termPostings(List<String> tokens) {
+        int[][] lists = new int[tokens.size()][];
+        for (int i = 0; i < tokens.size(); i++) {
+            int[] list = postings.get(tokens.get(i));
+            lists[i] = list != null ? list : new int[0];
+        }
+        return intersect(lists);
+    }
+
+    private static boolean allPresent(int[][] lists) {
+        for (int[] list : lists) {
+            if (list.length == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Intersection of sorted lists: walk the shortest, binary-search the others
+     */
+    static int[] intersect(int[][] lists) {
+        if (lists.length == 1) {
+            return lists[0];
+        }
+        int[][] sorted = lists.clone();
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.length, b.length));
+        int[] result = new int[sorted[0].length];
+        int[] from = new int[sorted.length]; // Search start per list; IDs only grow
+        int count = 0;
+        outer:
+        for (int mealId : sorted[0]) {
+            for (int l = 1; l < sorted.length; l++) {
+                int found = Arrays.binarySearch(sorted[l], from[l], sorted[l].length, mealId);
+                if (found < 0) {
+                    from[l] = -found - 1;
+                    continue outer;
+                }
+                from[l] = found + 1;
+            }
+            result[count++] = mealId;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y"; // berries -> berry
+        }
+        if (word.length() > 4 && word.endsWith("oes")) {
+            return word.substring(0, word.length() - 2); // tomatoes -> tomato
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    /**
+     * Collects (word, meal) postings, e.g. from the meal_ingredients table. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Map<String, int[]> lists = new HashMap<>();
+        private final Map<String, Integer> sizes = new HashMap<>();
+
+        public Builder add(String token, int mealId) {
+            int[] list = lists.get(token);
+            int size = sizes.getOrDefault(token, 0);
+            if (list == null) {
+                list = new int[4];
+            } else if (size == list.length) {
+                list = Arrays.copyOf(list, size * 2);
+            }
+            list[size] = mealId;
+            lists.put(token, list);
+            sizes.put(token, size + 1);
+            return this;
+        }
+
+        /**
+         * Index every word of a meal's ingredients
+         */
+        public Builder addMeal(int mealId, List<String> ingredients) {
+            for (String ingredient : ingredients) {
+                for (String token : tokens(ingredient)) {
+                    add(token, mealId);
+                }
+            }
+            return this;
+        }
+
+        public IngredientIndex build() {
+            Map<String, int[]> postings = new HashMap<>(lists.size() * 2);
+            for (Map.Entry<String, int[]> entry : lists.entrySet()) {
+                int[] list = Arrays.copyOf(entry.getValue(), sizes.get(entry.getKey()));
+                Arrays.sort(list);
+                // Drop duplicates (a meal listing "garlic" twice)
+                int unique = 0;
+                for (int i = 0; i < list.length; i++) {
+                    if (i == 0 || list[i] != list[i - 1]) {
+                        list[unique++] = list[i];
+                    }
+                }
+                postings.put(entry.getKey(), Arrays.copyOf(list, unique));
+            }
+            return new IngredientIndex(postings);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.ensa_meal;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MealCatalog - Immutable, column-oriented copy of every meal known locally
+ *
+ * Thousands of Plat objects cost a header and four Strings (each with its own
+ * array) per meal. Here every column is one primitive array indexed by row:
+ * - IDs as ints (TheMealDB IDs are numeric), rows sorted by ID
+ * - names, categories, areas, ingredients and image URLs as handles into one
+ *   UTF-8 string pool; equal strings are stored once ("Chicken", "Moroccan",
+ *   the images directory shared by every thumbnail URL)
+ * - instructions are not held at all: {@link #instructions} asks the
+ *   {@link InstructionsLoader}, so only the meals actually opened pay for them
+ *
+ * Scans work on the pool bytes directly: {@link #searchNames} matches names
+ * without decoding them, and categories, areas and ingredients compare as ints.
+ */
+public final class MealCatalog {
+
+    /**
+     * Source of the instructions column, e.g. the meal_details table
+     */
+    public interface InstructionsLoader {
+        String load(String mealId);
+    }
+
+    public static final int NONE = -1; // Handle of a missing value
+
+    private final int[] ids;
+    private final int[] names;
+    private final int[] imageDirs;
+    private final int[] imageFiles;
+    private final int[] categories;
+    private final int[] areas;
+    private final int[] ingredientStarts; // Row r's ingredients are [starts[r], starts[r + 1])
+    private final int[] ingredients;
+    private final byte[] pool;
+    private final int[] poolStarts; // Handle h is pool[poolStarts[h], poolStarts[h + 1])
+    private final InstructionsLoader instructionsLoader;
+
+    private MealCatalog(int[] ids, int[] names, int[] imageDirs, int[] imageFiles, int[] categories, int[] areas,
+                        int[] ingredientStarts, int[] ingredients, byte[] pool, int[] poolStarts,
+                        InstructionsLoader instructionsLoader) {
+        this.ids = ids;
+        this.names = names;
+        this.imageDirs = imageDirs;
+        this.imageFiles = imageFiles;
+        this.categories = categories;
+        this.areas = areas;
+        this.ingredientStarts = ingredientStarts;
+        this.ingredients = ingredients;
+        this.pool = pool;
+        this.poolStarts = poolStarts;
+        this.instructionsLoader = instructionsLoader;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Row of a meal ID, or -1 if the catalog does not have it
+     */
+    public int indexOf(int id) {
+        int row = Arrays.binarySearch(ids, id);
+        return row >= 0 ? row : -1;
+    }
+
+    public int indexOf(String id) {
+        try {
+            return indexOf(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public String name(int row) {
+        return string(names[row]);
+    }
+
+    public String imageUrl(int row) {
+        if (imageFiles[row] == NONE) {
+            return "";
+        }
+        return imageDirs[row] == NONE ? string(imageFiles[row]) : string(imageDirs[row]) + string(imageFiles[row]);
+    }
+
+    public String category(int row) {
+        return string(categories[row]);
+    }
+
+    public String area(int row) {
+        return string(areas[row]);
+    }
+
+    public int categoryHandle(int row) {
+        return categories[row];
+    }
+
+    public int areaHandle(int row) {
+        return areas[row];
+    }
+
+    public int ingredientCount(int row) {
+        return ingredientStarts[row + 1] - ingredientStarts[row];
+    }
+
+    public int ingredientHandle(int row, int i) {
+        return ingredients[ingredientStarts[row] + i];
+    }
+
+    public List<String> ingredients(int row) {
+        int count = ingredientCount(row);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        List<String> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(string(ingredientHandle(row, i)));
+        }
+        return list;
+    }
+
+    /**
+     * Instructions of a row, read through the loader: may block, not for the main thread
+     */
+    public String instructions(int row) {
+        String instructions = instructionsLoader != null ? instructionsLoader.load(String.valueOf(ids[row])) : null;
+        return instructions != null ? instructions : "No instructions available";
+    }
+
+    /**
+     * Full Plat of a row; loads its instructions (see {@link #instructions})
+     */
+    public Plat toPlat(int row) {
+        return new Plat(String.valueOf(ids[row]), name(row), imageUrl(row), instructions(row));
+    }
+
+    /**
+     * The pooled string behind a handle, null for {@link #NONE}
+     */
+    public String string(int handle) {
+        if (handle == NONE) {
+            return null;
+        }
+        return new String(pool, poolStarts[handle], poolStarts[handle + 1] - poolStarts[handle],
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Handle of a pooled string (exact match), {@link #NONE} if no column contains it.
+     * Resolve once per scan, then compare handles.
+     */
+    public int handleOf(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (int handle = 0; handle < poolStarts.length - 1; handle++) {
+            int start = poolStarts[handle];
+            if (poolStarts[handle + 1] - start == bytes.length && regionMatches(start, bytes, false)) {
+                return handle;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Rows whose name contains {@code query}, in ID order. Case is ignored for ASCII
+     * letters; other characters must match exactly.
+     * @param out Receives the matching rows
+     * @return Number of rows written to {@code out}, at most its length
+     */
+    public int searchNames(String query, int[] out) {
+        if (query == null || query.isEmpty()) {
+            int count = Math.min(out.length, ids.length);
+            for (int row = 0; row < count; row++) {
+                out[row] = row;
+            }
+            return count;
+        }
+        byte[] needle = query.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < needle.length; i++) {
+            needle[i] = lower(needle[i]);
+        }
+        int count = 0;
+        for (int row = 0; row < ids.length && count < out.length; row++) {
+            int handle = names[row];
+            if (handle != NONE && contains(poolStarts[handle], poolStarts[handle + 1], needle)) {
+                out[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Approximate heap used by the catalog's arrays, in bytes
+     */
+    public long sizeInBytes() {
+        long ints = ids.length + names.length + imageDirs.length + imageFiles.length + categories.length
+                + areas.length + ingredientStarts.length + ingredients.length + poolStarts.length;
+        return ints * 4 + pool.length + 11 * 16; // Plus one array header each
+    }
+
+    private boolean contains(int start, int end, byte[] needle) {
+        int last = end - needle.length;
+        for (int i = start; i <= last; i++) {
+            if (lower(pool[i]) == needle[0] && regionMatches(i, needle, true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionMatches(int offset, byte[] bytes, boolean ignoreCase) {
+        for (int i = 0; i < bytes.length; i++) {
+            byte b = pool[offset + i];
+            if ((ignoreCase ? lower(b) : b) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    /**
+     * Collects rows, then freezes them into a catalog. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> handles = new HashMap<>();
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        private int[] poolStarts = new int[64];
+        private final Map<Integer, int[]> rows = new HashMap<>(); // ID -> name, dir, file, category, area, ingredients...
+
+        /**
+         * Add a meal; the first row of an ID wins, and rows whose ID is not numeric are skipped
+         * @return Whether the row was added
+         */
+        public boolean add(String id, String name, String imageUrl, String category, String area,
+                           List<String> ingredients) {
+            int numericId;
+            try {
+                numericId = Integer.parseInt(id);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (rows.containsKey(numericId)) {
+                return false;
+            }
+            int count = ingredients != null ? ingredients.size() : 0;
+            int[] row = new int[5 + count];
+            row[0] = intern(name);
+            int slash = imageUrl != null ? imageUrl.lastIndexOf('/') : -1;
+            row[1] = slash >= 0 ? intern(imageUrl.substring(0, slash + 1)) : NONE;
+            row[2] = imageUrl == null || imageUrl.isEmpty() ? NONE : intern(imageUrl.substring(slash + 1));
+            row[3] = intern(category);
+            row[4] = intern(area);
+            for (int i = 0; i < count; i++) {
+                row[5 + i] = intern(ingredients.get(i));
+            }
+            rows.put(numericId, row);
+            return true;
+        }
+
+        public MealCatalog build(InstructionsLoader instructionsLoader) {
+            int size = rows.size();
+            int[] ids = new int[size];
+            int i = 0;
+            int ingredientTotal = 0;
+            for (Map.Entry<Integer, int[]> row : rows.entrySet()) {
+                ids[i++] = row.getKey();
+                ingredientTotal += row.getValue().length - 5;
+            }
+            Arrays.sort(ids);
+
+            int[] names = new int[size];
+            int[] imageDirs = new int[size];
+            int[] imageFiles = new int[size];
+            int[] categories = new int[size];
+            int[] areas = new int[size];
+            int[] ingredientStarts = new int[size + 1];
+            int[] ingredients = new int[ingredientTotal];
+            int next = 0;
+            for (int r = 0; r < size; r++) {
+                int[] row = rows.get(ids[r]);
+                names[r] = row[0];
+                imageDirs[r] = row[1];
+                imageFiles[r] = row[2];
+                categories[r] = row[3];
+                areas[r] = row[4];
+                ingredientStarts[r] = next;
+                System.arraycopy(row, 5, ingredients, next, row.length - 5);
+                next += row.length - 5;
+            }
+            ingredientStarts[size] = next;
+
+            int handleCount = handles.size();
+            int[] starts = Arrays.copyOf(poolStarts, handleCount + 1);
+            starts[handleCount] = pool.size();
+            return new MealCatalog(ids, names, imageDirs, imageFiles, categories, areas,
+                    ingredientStarts, ingredients, pool.toByteArray(), starts, instructionsLoader);
+        }
+
+        private int intern(String value) {
+            if (value == null || value.isEmpty()) {
+                return NONE;
+            }
+            Integer handle = handles.get(value);
+            if (handle == null) {
+                handle = handles.size();
+                handles.put(value, handle);
+                if (handle == poolStarts.length) {
+                    poolStarts = Arrays.copyOf(poolStarts, handle * 2);
+                }
+                poolStarts[handle] = pool.size();
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                pool.write(bytes, 0, bytes.length);
+            }
+            return handle;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ensa_meal;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MealDetail Model Class
+ * Full meal record from TheMealDB (search.php / lookup.php), including
+ * category, area and the strIngredientN / strMeasureN pairs
+ */
+public class MealDetail {
+
+    /**
+     * One ingredient line of a recipe
+     */
+    public static class Ingredient {
+        private final String name;
+        private final String measure;
+
+        public Ingredient(String name, String measure) {
+            this.name = name;
+            this.measure = measure;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMeasure() {
+            return measure;
+        }
+    }
+
+    private final String id;
+    private final String name;
+    private final String category;
+    private final String area;
+    private final String instructions;
+    private final String imageUrl;
+    private final List<Ingredient> ingredients;
+    private final long fetchedAt;
+
+    public MealDetail(String id, String name, String category, String area, String instructions,
+                      String imageUrl, List<Ingredient> ingredients, long fetchedAt) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.area = area;
+        this.instructions = instructions;
+        this.imageUrl = imageUrl;
+        this.ingredients = Collections.unmodifiableList(ingredients);
+        this.fetchedAt = fetchedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getArea() {
+        return area;
+    }
+
+    public String getInstructions() {
+        return instructions;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public List<Ingredient> getIngredients() {
+        return ingredients;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public Plat toPlat() {
+        return new Plat(id, name, imageUrl, instructions);
+    }
+}
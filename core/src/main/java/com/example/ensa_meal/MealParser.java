@@ -0,0 +1,111 @@
+package com.example.ensa_meal;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+
+/**
+ * MealParser - Turns TheMealDB JSON responses into Plat / MealDetail objects
+ * Shared by the live search response, the persisted startup snapshot and lookups
+ */
+public final class MealParser {
+
+    private static final int MAX_INGREDIENTS = 20; // strIngredient1..strIngredient20
+
+    private MealParser() {
+    }
+
+    /**
+     * Parse the "meals" array of a search.php or filter.php response
+     * (filter.php has no instructions: they get the placeholder)
+     * @param response JSON response from API
+     * @return Parsed meals, empty if the response has no "meals" array
+     */
+    public static ArrayList<Plat> parseMeals(JSONObject response) throws JSONException {
+        ArrayList<Plat> plats = new ArrayList<>();
+        if (!response.has("meals") || response.isNull("meals")) {
+            return plats;
+        }
+        JSONArray mealsArray = response.getJSONArray("meals");
+        for (int i = 0; i < mealsArray.length(); i++) {
+            JSONObject meal = mealsArray.getJSONObject(i);
+
+            // Extract data with null safety
+            String id = meal.optString("idMeal", "0");
+            String name = meal.optString("strMeal", "Unknown");
+            String imageUrl = meal.optString("strMealThumb", "");
+            String description = meal.optString("strInstructions", "No instructions available");
+
+            plats.add(new Plat(id, name, imageUrl, description));
+        }
+        return plats;
+    }
+
+    /**
+     * Parse full meal records from a search.php or lookup.php response
+     * @param response JSON response from API
+     * @param fetchedAt Time the response was received
+     * @return Parsed details, empty if the response has no "meals" array
+     */
+    public static ArrayList<MealDetail> parseDetails(JSONObject response, long fetchedAt) throws JSONException {
+        ArrayList<MealDetail> details = new ArrayList<>();
+        if (!response.has("meals") || response.isNull("meals")) {
+            return details;
+        }
+        JSONArray mealsArray = response.getJSONArray("meals");
+        for (int i = 0; i < mealsArray.length(); i++) {
+            JSONObject meal = mealsArray.getJSONObject(i);
+
+            ArrayList<MealDetail.Ingredient> ingredients = new ArrayList<>();
+            for (int n = 1; n <= MAX_INGREDIENTS; n++) {
+                String ingredient = meal.optString("strIngredient" + n, "").trim();
+                if (ingredient.isEmpty() || "null".equals(ingredient)) {
+                    continue;
+                }
+                String measure = meal.optString("strMeasure" + n, "").trim();
+                ingredients.add(new MealDetail.Ingredient(ingredient, "null".equals(measure) ? "" : measure));
+            }
+
+            details.add(new MealDetail(
+                    meal.optString("idMeal", "0"),
+                    meal.optString("strMeal", "Unknown"),
+                    optText(meal, "strCategory"),
+                    optText(meal, "strArea"),
+                    meal.optString("strInstructions", "No instructions available"),
+                    meal.optString("strMealThumb", ""),
+                    ingredients,
+                    fetchedAt));
+        }
+        return details;
+    }
+
+    /**
+     * Parse the names of a directory response: categories.php ("categories" /
+     * "strCategory") or list.php?a=list ("meals" / "strArea")
+     * @return Non-empty names in response order, empty if the array is missing
+     */
+    public static ArrayList<String> parseNames(JSONObject response, String arrayKey, String field)
+            throws JSONException {
+        ArrayList<String> names = new ArrayList<>();
+        if (!response.has(arrayKey) || response.isNull(arrayKey)) {
+            return names;
+        }
+        JSONArray array = response.getJSONArray(arrayKey);
+        for (int i = 0; i < array.length(); i++) {
+            String name = optText(array.getJSONObject(i), field).trim();
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Optional string field, with JSON null mapped to an empty string
+     */
+    private static String optText(JSONObject object, String key) {
+        return object.isNull(key) ? "" : object.optString(key, "");
+    }
+}
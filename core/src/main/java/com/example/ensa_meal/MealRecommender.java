@@ -0,0 +1,398 @@
+package com.example.ensa_meal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * MealRecommender - Local "what should I cook?" ranking
+ *
+ * Content-based: every meal is a sparse vector of features (category, area,
+ * ingredients, name words) weighted by how rare the feature is. The user's taste
+ * profile is the sum of their favorites' vectors, each weighted by
+ * - the rating (low ratings push similar meals down),
+ * - a few sentiment words in the comment,
+ * - how recently it was added (half-life {@link #RECENCY_HALF_LIFE_DAYS} days).
+ *
+ * Candidates are scored by cosine similarity to the profile, plus a boost for
+ * features named in the question ("chicken", "italian", "dessert"). Favorites
+ * compete too, ranked by their own rating and freshness.
+ *
+ * Build once per data change; {@link #recommend} only walks the candidates'
+ * few features, so a query over thousands of meals takes a millisecond or two.
+ */
+public final class MealRecommender {
+
+    private static final double RECENCY_HALF_LIFE_DAYS = 30;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float AREA_WEIGHT = 1.5f;
+    private static final float INGREDIENT_WEIGHT = 1f;
+    private static final float NAME_WEIGHT = 0.5f;
+    private static final float QUESTION_BOOST = 0.5f;
+    private static final float UNRATED_PREFERENCE = 0.5f;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final String[] FEATURE_PREFIXES = {"c:", "a:", "i:", "n:"};
+
+    private static final Set<String> POSITIVE_WORDS = new HashSet<>(Arrays.asList(
+            "love", "loved", "great", "delicious", "best", "amazing", "perfect", "favorite", "yummy", "excellent"));
+    private static final Set<String> NEGATIVE_WORDS = new HashSet<>(Arrays.asList(
+            "bland", "dry", "salty", "hate", "meh", "bad", "boring", "greasy", "never", "too"));
+    private static final Set<String> INTENT_WORDS = new HashSet<>(Arrays.asList(
+            "cook", "make", "eat", "suggest", "recommend", "recommendation", "idea", "ideas",
+            "dinner", "lunch", "breakfast", "tonight", "hungry"));
+
+    /**
+     * A meal that can be recommended, from the local meal cache
+     */
+    public static final class Meal {
+        public final String id;
+        public final String name;
+        public final String category;
+        public final String area;
+        public final List<String> ingredients;
+
+        public Meal(String id, String name, String category, String area, List<String> ingredients) {
+            this.id = id;
+            this.name = name;
+            this.category = category;
+            this.area = area;
+            this.ingredients = ingredients;
+        }
+    }
+
+    /**
+     * A favorite: the user's signal about a meal
+     */
+    public static final class Taste {
+        public final String mealId;
+        public final String mealName;
+        public final float rating; // 0 = not rated, else 1..5
+        public final String comment;
+        public final long addedAt;
+
+        public Taste(String mealId, String mealName, float rating, String comment, long addedAt) {
+            this.mealId = mealId;
+            this.mealName = mealName;
+            this.rating = rating;
+            this.comment = comment;
+            this.addedAt = addedAt;
+        }
+    }
+
+    /**
+     * One ranked suggestion with a short human-readable reason
+     */
+    public static final class Recommendation {
+        public final Meal meal;
+        public final float score;
+        public final boolean favorite;
+        public final String reason;
+
+        Recommendation(Meal meal, float score, boolean favorite, String reason) {
+            this.meal = meal;
+            this.score = score;
+            this.favorite = favorite;
+            this.reason = reason;
+        }
+    }
+
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private final List<Meal> meals = new ArrayList<>();
+    private final List<int[]> featureIds = new ArrayList<>();
+    private final List<float[]> featureWeights = new ArrayList<>();
+    private final Map<String, Integer> mealIndex = new HashMap<>();
+    private final Map<String, Taste> tastes = new HashMap<>();
+    private final Map<String, Float> tastePreference = new HashMap<>(); // mealId -> preference * recency
+    private final float[] tasteWeights; // Per meal index, 0 if not a favorite
+    private final boolean[] isFavorite;
+    private float[] profile;
+    private double profileNorm;
+
+    /**
+     * @param catalog Meals known locally (favorites without cached details are added by name)
+     * @param favorites The user's favorites
+     * @param now Reference time for recency
+     */
+    public MealRecommender(List<Meal> catalog, List<Taste> favorites, long now) {
+        for (Meal meal : catalog) {
+            if (!mealIndex.containsKey(meal.id)) {
+                mealIndex.put(meal.id, meals.size());
+                meals.add(meal);
+            }
+        }
+        for (Taste taste : favorites) {
+            tastes.put(taste.mealId, taste);
+            if (!mealIndex.containsKey(taste.mealId)) {
+                mealIndex.put(taste.mealId, meals.size());
+                meals.add(new Meal(taste.mealId, taste.mealName, null, null, Collections.emptyList()));
+            }
+        }
+
+        // Features and document frequencies
+        List<Map<String, Float>> raw = new ArrayList<>(meals.size());
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (Meal meal : meals) {
+            Map<String, Float> features = features(meal);
+            raw.add(features);
+            for (String feature : features.keySet()) {
+                Integer df = documentFrequency.get(feature);
+                documentFrequency.put(feature, df == null ? 1 : df + 1);
+            }
+        }
+        for (Map<String, Float> features : raw) {
+            int[] ids = new int[features.size()];
+            float[] weights = new float[features.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> feature : features.entrySet()) {
+                Integer id = vocabulary.get(feature.getKey());
+                if (id == null) {
+                    id = vocabulary.size();
+                    vocabulary.put(feature.getKey(), id);
+                }
+                double idf = Math.log(1 + (double) meals.size() / documentFrequency.get(feature.getKey()));
+                ids[i] = id;
+                weights[i] = (float) (feature.getValue() * idf);
+                i++;
+            }
+            normalize(weights);
+            featureIds.add(ids);
+            featureWeights.add(weights);
+        }
+
+        // Taste profile
+        profile = new float[vocabulary.size()];
+        tasteWeights = new float[meals.size()];
+        isFavorite = new boolean[meals.size()];
+        for (Taste taste : favorites) {
+            float weight = preference(taste) * recency(taste.addedAt, now);
+            tastePreference.put(taste.mealId, weight);
+            int index = mealIndex.get(taste.mealId);
+            tasteWeights[index] = weight;
+            isFavorite[index] = true;
+            int[] ids = featureIds.get(index);
+            float[] weights = featureWeights.get(index);
+            for (int i = 0; i < ids.length; i++) {
+                profile[ids[i]] += weight * weights[i];
+            }
+        }
+        double sum = 0;
+        for (float value : profile) {
+            sum += value * value;
+        }
+        profileNorm = Math.sqrt(sum);
+    }
+
+    public int size() {
+        return meals.size();
+    }
+
+    /**
+     * Does this question ask what to cook?
+     */
+    public static boolean isRecommendationQuestion(String question) {
+        for (String word : words(question)) {
+            if (INTENT_WORDS.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Best {@code k} meals for {@code question}, best first
+     */
+    public List<Recommendation> recommend(String question, int k) {
+        boolean[] asked = new boolean[vocabulary.size()];
+        boolean anyAsked = false;
+        for (String word : words(question)) {
+            if (INTENT_WORDS.contains(word)) {
+                continue;
+            }
+            for (String prefix : FEATURE_PREFIXES) {
+                Integer id = vocabulary.get(prefix + word);
+                if (id != null) {
+                    asked[id] = true;
+                    anyAsked = true;
+                }
+            }
+        }
+
+        // Bounded min-heap of the best k, worst on top
+        PriorityQueue<Recommendation> best = new PriorityQueue<>(k + 1, (a, b) -> Float.compare(a.score, b.score));
+        for (int index = 0; index < meals.size(); index++) {
+            int[] ids = featureIds.get(index);
+            float[] weights = featureWeights.get(index);
+
+            float similarity = 0;
+            float boost = 0;
+            for (int i = 0; i < ids.length; i++) {
+                similarity += profile[ids[i]] * weights[i];
+                if (asked[ids[i]]) {
+                    boost += QUESTION_BOOST;
+                }
+            }
+            if (anyAsked && boost == 0) {
+                continue; // The question names something this meal does not have
+            }
+            if (profileNorm > 0) {
+                similarity /= profileNorm;
+            }
+
+            float own = tasteWeights[index];
+            boolean favorite = isFavorite[index];
+            if (favorite && own <= 0) {
+                continue; // Rated low: do not suggest it again
+            }
+            float score = similarity + boost + own;
+            if (score <= 0 || (best.size() == k && score <= best.peek().score)) {
+                continue;
+            }
+            best.add(new Recommendation(meals.get(index), score, favorite, null));
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+
+        List<Recommendation> ranked = new ArrayList<>(best);
+        Collections.sort(ranked, (a, b) -> Float.compare(b.score, a.score));
+        List<Recommendation> top = new ArrayList<>(ranked.size());
+        for (Recommendation r : ranked) {
+            top.add(new Recommendation(r.meal, r.score, r.favorite, reason(r)));
+        }
+        return top;
+    }
+
+    /**
+     * Why a meal was picked: its own rating, or the closest well-liked favorite
+     */
+    private String reason(Recommendation recommendation) {
+        Meal meal = recommendation.meal;
+        Taste own = tastes.get(meal.id);
+        if (own != null) {
+            return own.rating > 0 ? "you rated it " + Math.round(own.rating) + "/5" : "one of your favorites";
+        }
+        int index = mealIndex.get(meal.id);
+        String closest = null;
+        float best = 0;
+        for (Taste taste : tastes.values()) {
+            Float preference = tastePreference.get(taste.mealId);
+            if (preference == null || preference <= 0) {
+                continue;
+            }
+            float similarity = dot(index, mealIndex.get(taste.mealId));
+            if (similarity > best) {
+                best = similarity;
+                closest = taste.mealName;
+            }
+        }
+        if (closest != null) {
+            return "like " + closest;
+        }
+        return meal.category != null ? meal.category : "matches your question";
+    }
+
+    private float dot(int a, int b) {
+        int[] idsA = featureIds.get(a);
+        float[] weightsA = featureWeights.get(a);
+        int[] idsB = featureIds.get(b);
+        float[] weightsB = featureWeights.get(b);
+        float sum = 0;
+        for (int i = 0; i < idsA.length; i++) {
+            for (int j = 0; j < idsB.length; j++) {
+                if (idsA[i] == idsB[j]) {
+                    sum += weightsA[i] * weightsB[j];
+                    break;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * -1 (disliked) .. 1 (loved), from the rating and the comment
+     */
+    static float preference(Taste taste) {
+        float preference = taste.rating > 0 ? (taste.rating - 2.5f) / 2.5f : UNRATED_PREFERENCE;
+        for (String word : words(taste.comment)) {
+            if (POSITIVE_WORDS.contains(word)) {
+                preference += 0.25f;
+            } else if (NEGATIVE_WORDS.contains(word)) {
+                preference -= 0.25f;
+            }
+        }
+        return Math.max(-1f, Math.min(1f, preference));
+    }
+
+    static float recency(long addedAt, long now) {
+        double days = Math.max(0, now - addedAt) / (double) DAY_MS;
+        return (float) Math.pow(0.5, days / RECENCY_HALF_LIFE_DAYS);
+    }
+
+    private static Map<String, Float> features(Meal meal) {
+        Map<String, Float> features = new HashMap<>();
+        if (meal.category != null && !meal.category.isEmpty()) {
+            features.put("c:" + meal.category.toLowerCase(Locale.ROOT), CATEGORY_WEIGHT);
+        }
+        if (meal.area != null && !meal.area.isEmpty()) {
+            features.put("a:" + meal.area.toLowerCase(Locale.ROOT), AREA_WEIGHT);
+        }
+        for (String ingredient : meal.ingredients) {
+            // "Chicken Breast" counts as both the ingredient and its words
+            for (String word : words(ingredient)) {
+                features.put("i:" + word, INGREDIENT_WEIGHT);
+            }
+        }
+        for (String word : words(meal.name)) {
+            features.put("n:" + word, NAME_WEIGHT);
+        }
+        return features;
+    }
+
+    private static void normalize(float[] weights) {
+        double sum = 0;
+        for (float weight : weights) {
+            sum += weight * weight;
+        }
+        if (sum > 0) {
+            float norm = (float) Math.sqrt(sum);
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= norm;
+            }
+        }
+    }
+
+    /**
+     * Lower-cased words of two or more letters, trailing plural "s" dropped
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetter(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                String word = lower.substring(start, i);
+                if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+                    word = word.substring(0, word.length() - 1);
+                }
+                if (word.length() > 1) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
@@ -1,11 +1,9 @@
 package com.example.ensa_meal;
 
-import java.io.Serializable;
-
 /**
  * Plat (Meal Category) Model Class
  * Represents a meal category from TheMealDB API
- * Implements Serializable to allow passing between activities via Intent
+ * Screens pass only the ID between activities and resolve the Plat via MealCache
  *
  * Data Structure:
  * - id: Category ID from API (idCategory)
@@ -13,9 +11,7 @@ import java.io.Serializable;
  * - imageURL: Thumbnail image URL (strCategoryThumb)
  * - instructions: Category description (strCategoryDescription)
  */
-public class Plat implements Serializable {
-    private static final long serialVersionUID = 1L; // Version control for Serializable
-
+public class Plat {
     private String id;
     private String name;
     private String imageURL;
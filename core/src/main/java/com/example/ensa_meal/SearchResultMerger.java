@@ -0,0 +1,88 @@
+package com.example.ensa_meal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * SearchResultMerger - One query's results, built from several sources as they arrive
+ *
+ * - Meals are de-duplicated by ID (idMeal)
+ * - A meal never moves once it is in the list: new meals are appended, a meal
+ *   seen again is updated in place (only by a source that may replace data)
+ * - Each merge reports what changed, so the list can animate just those rows
+ */
+public final class SearchResultMerger {
+
+    /**
+     * What one merge did to the list
+     */
+    public static final class Change {
+        public final int previousSize;
+        public final int[] changedPositions; // Updated in place, ascending
+        public final int insertedCount; // Appended after previousSize
+
+        Change(int previousSize, int[] changedPositions, int insertedCount) {
+            this.previousSize = previousSize;
+            this.changedPositions = changedPositions;
+            this.insertedCount = insertedCount;
+        }
+
+        public boolean isEmpty() {
+            return changedPositions.length == 0 && insertedCount == 0;
+        }
+    }
+
+    private final ArrayList<Plat> results = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+
+    /**
+     * Merge one source's meals, in that source's order
+     * @param replace Whether this source's data wins over a meal already listed
+     *                (true for the network, false for local copies)
+     */
+    public Change merge(List<Plat> meals, boolean replace) {
+        int previousSize = results.size();
+        int[] changed = new int[Math.min(previousSize, meals.size())];
+        int changedCount = 0;
+        Set<String> seen = new HashSet<>();
+        for (Plat meal : meals) {
+            if (!seen.add(meal.getId())) {
+                continue; // First copy in the batch wins
+            }
+            Integer position = positions.get(meal.getId());
+            if (position == null) {
+                positions.put(meal.getId(), results.size());
+                results.add(meal);
+            } else if (replace && position < previousSize && !sameContent(results.get(position), meal)) {
+                results.set(position, meal);
+                changed[changedCount++] = position;
+            }
+        }
+        int[] changedPositions = Arrays.copyOf(changed, changedCount);
+        Arrays.sort(changedPositions);
+        return new Change(previousSize, changedPositions, results.size() - previousSize);
+    }
+
+    /**
+     * Copy of the merged list
+     */
+    public ArrayList<Plat> results() {
+        return new ArrayList<>(results);
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    private static boolean sameContent(Plat a, Plat b) {
+        return Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getImageURL(), b.getImageURL())
+                && Objects.equals(a.getInstructions(), b.getInstructions());
+    }
+}
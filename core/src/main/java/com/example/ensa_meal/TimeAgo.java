@@ -0,0 +1,33 @@
+package com.example.ensa_meal;
+
+/**
+ * TimeAgo - "3 days ago" style labels for timestamps
+ */
+public final class TimeAgo {
+
+    private TimeAgo() {
+    }
+
+    /**
+     * @param timestamp Time of the event, in ms since the epoch
+     * @param now Current time, in ms since the epoch
+     */
+    public static String format(long timestamp, long now) {
+        long diff = now - timestamp;
+
+        long seconds = diff / 1000;
+        long minutes = seconds / 60;
+        long hours = minutes / 60;
+        long days = hours / 24;
+
+        if (days > 0) {
+            return days + " day" + (days > 1 ? "s" : "") + " ago";
+        } else if (hours > 0) {
+            return hours + " hour" + (hours > 1 ? "s" : "") + " ago";
+        } else if (minutes > 0) {
+            return minutes + " min" + (minutes > 1 ? "s" : "") + " ago";
+        } else {
+            return "Just now";
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ensa_meal.chat;
+
+import java.util.List;
+
+/**
+ * ChefPrompt - System prompt of the AI chat
+ *
+ * The fixed parts of the prompt are compile-time constants; only the favorites
+ * section changes between requests.
+ */
+public final class ChefPrompt {
+
+    // COSTAR Framework Prompt (Optimized)
+    private static final String HEADER = "# CONTEXT\n" +
+            "You are Chef, a cooking assistant in Ensa_Meal app. You help users decide meals and provide recipes.\n" +
+            "USER'S FAVORITES: ";
+
+    private static final String BODY = "\n\n" +
+
+            "# OBJECTIVE\n" +
+            "Give decisive meal recommendations and clear recipes. Max 1-2 questions before deciding. Use favorites when relevant. Match user's language.\n\n" +
+
+            "# STYLE & TONE\n" +
+            "Friendly, confident friend. Say 'Make this' not 'you could try'. No jargon. Be decisive.\n\n" +
+
+            "# AUDIENCE\n" +
+            "Home cooks (any skill). Languages: English/French/Arabic/Darija (use Latin letters for Darija). Assume basic ingredients available.\n\n" +
+
+            "# RESPONSE FORMAT\n\n" +
+
+            "FORMATTING:\n" +
+            "- Line breaks between ideas (never one paragraph)\n" +
+            "- Numbered lists for steps\n" +
+            "- Bullets for ingredients\n" +
+            "- Keep lines short\n\n" +
+
+            "PATTERNS:\n\n" +
+
+            "For 'what to cook?':\n" +
+            "- Have favorites? Suggest ONE\n" +
+            "- No favorites: ask 'Something in mind, or should I suggest?'\n" +
+            "- If suggest: 'What sounds good: light (salad), hearty (tajine), quick (pasta), comforting (soup)?'\n" +
+            "- Max 1-2 questions, then DECIDE\n\n" +
+
+            "For suggestions: meal name + why it fits + time + 'Want recipe?'\n\n" +
+
+            "For recipes:\n" +
+            "Ingredients: (bullets)\n" +
+            "Steps: (numbered)\n" +
+            "Total time:\n\n" +
+
+            "# EXAMPLE\n\n" +
+            "User: What should I cook?\n" +
+            "Chef: Something in mind, or want me to suggest?\n\n" +
+            "User: Suggest\n" +
+            "Chef: What sounds good:\n" +
+            "- Light (salad)\n" +
+            "- Hearty (tajine)\n" +
+            "- Quick (pasta)\n" +
+            "- Comforting (soup)\n\n" +
+            "User: Quick\n" +
+            "Chef: Make Garlic Shrimp Pasta.\n\n" +
+            "15 minutes, tastes restaurant-quality.\n\n" +
+            "Want the recipe?";
+
+    private ChefPrompt() {
+    }
+
+    /**
+     * Full system prompt around an already rendered favorites section
+     */
+    public static String build(String favoritesContext) {
+        return HEADER + favoritesContext + BODY;
+    }
+
+    /**
+     * Favorites section: one line per favorite with the user's comment, and a note
+     * when only part of the list is included
+     */
+    public static String buildFavoritesContext(List<FavoritesRanker.Entry> favorites, int total) {
+        if (favorites == null || favorites.isEmpty()) {
+            return "None saved yet";
+        }
+
+        StringBuilder context = new StringBuilder();
+        if (favorites.size() < total) {
+            context.append("(").append(favorites.size()).append(" of ").append(total)
+                    .append(", most relevant to the question)\n");
+        }
+        for (FavoritesRanker.Entry fav : favorites) {
+            context.append("- ").append(fav.name);
+            if (fav.comment != null && !fav.comment.isEmpty()) {
+                context.append(" (").append(fav.comment).append(")");
+            }
+            context.append("\n");
+        }
+        return context.toString();
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.ensa_meal.chat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FavoritesRanker - Picks the favorites that matter for a question
+ *
+ * BM25 over each favorite's name and comment (name terms count twice), with the
+ * user's rating as a small boost. When the question matches fewer than K
+ * favorites, the remaining slots go to the best-rated, most recent ones so the
+ * assistant still sees the user's taste.
+ *
+ * The index is built once per favorites list; ranking only touches the posting
+ * lists of the question's terms.
+ */
+public final class FavoritesRanker {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 2;
+    private static final float RATING_BOOST = 0.1f; // Per star, applied to matching favorites
+
+    // Words that say nothing about which meal the user means
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "any", "are", "at", "be", "can", "could", "do", "for", "from", "have",
+            "how", "i", "in", "is", "it", "me", "my", "of", "on", "or", "should", "something", "the",
+            "to", "today", "tonight", "want", "what", "which", "with", "would", "you",
+            "cook", "eat", "make", "meal", "recipe", "suggest"));
+
+    /**
+     * One favorite as seen by the ranker
+     */
+    public static final class Entry {
+        public final String name;
+        public final String comment;
+        public final float rating;
+        public final long addedAt;
+
+        public Entry(String name, String comment, float rating, long addedAt) {
+            this.name = name;
+            this.comment = comment;
+            this.rating = rating;
+            this.addedAt = addedAt;
+        }
+    }
+
+    private final List<Entry> entries;
+    private final Map<String, int[][]> postings = new HashMap<>(); // term -> {doc indices, term frequencies}
+    private final int[] docLengths;
+    private final float averageLength;
+    private final List<Entry> byPreference; // Best rated, then newest
+
+    public FavoritesRanker(List<Entry> entries) {
+        this.entries = new ArrayList<>(entries);
+        this.docLengths = new int[entries.size()];
+
+        Map<String, List<int[]>> building = new HashMap<>();
+        long totalLength = 0;
+        for (int doc = 0; doc < entries.size(); doc++) {
+            Entry entry = entries.get(doc);
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = addTerms(frequencies, entry.name, NAME_WEIGHT)
+                    + addTerms(frequencies, entry.comment, 1);
+            docLengths[doc] = length;
+            totalLength += length;
+            for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+                List<int[]> list = building.get(term.getKey());
+                if (list == null) {
+                    list = new ArrayList<>();
+                    building.put(term.getKey(), list);
+                }
+                list.add(new int[]{doc, term.getValue()});
+            }
+        }
+        for (Map.Entry<String, List<int[]>> term : building.entrySet()) {
+            List<int[]> list = term.getValue();
+            int[][] posting = new int[2][list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                posting[0][i] = list.get(i)[0];
+                posting[1][i] = list.get(i)[1];
+            }
+            postings.put(term.getKey(), posting);
+        }
+        averageLength = entries.isEmpty() ? 0 : (float) totalLength / entries.size();
+
+        byPreference = new ArrayList<>(entries);
+        Collections.sort(byPreference, (a, b) -> {
+            int byRating = Float.compare(b.rating, a.rating);
+            return byRating != 0 ? byRating : Long.compare(b.addedAt, a.addedAt);
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Up to {@code k} favorites for {@code question}, most relevant first
+     */
+    public List<Entry> topK(String question, int k) {
+        int limit = Math.min(k, entries.size());
+        Set<Entry> picked = new LinkedHashSet<>();
+        if (limit == 0) {
+            return new ArrayList<>(picked);
+        }
+
+        float[] scores = score(question);
+        if (scores != null) {
+            Integer[] order = new Integer[entries.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Float.compare(scores[b], scores[a]));
+            for (int i = 0; i < order.length && picked.size() < limit && scores[order[i]] > 0; i++) {
+                picked.add(entries.get(order[i]));
+            }
+        }
+
+        // Fill the rest with what the user likes most
+        for (int i = 0; i < byPreference.size() && picked.size() < limit; i++) {
+            picked.add(byPreference.get(i));
+        }
+        return new ArrayList<>(picked);
+    }
+
+    /**
+     * BM25 score per favorite, or null if no question term appears in any favorite
+     */
+    private float[] score(String question) {
+        Set<String> terms = new HashSet<>();
+        tokenize(question, terms);
+        float[] scores = null;
+        int n = entries.size();
+        for (String term : terms) {
+            int[][] posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            if (scores == null) {
+                scores = new float[n];
+            }
+            int df = posting[0].length;
+            float idf = (float) Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < df; i++) {
+                int doc = posting[0][i];
+                int tf = posting[1][i];
+                float norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+        if (scores != null) {
+            for (int doc = 0; doc < n; doc++) {
+                if (scores[doc] > 0) {
+                    scores[doc] *= 1 + RATING_BOOST * entries.get(doc).rating;
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, terms);
+        for (String term : terms) {
+            Integer count = frequencies.get(term);
+            frequencies.put(term, (count == null ? 0 : count) + weight);
+        }
+        return terms.size() * weight;
+    }
+
+    /**
+     * Lower-cased letter/digit runs of two or more characters, minus stop words.
+     * A trailing plural "s" is dropped so "tajines" matches "tajine".
+     */
+    static void tokenize(String text, Collection<String> out) {
+        if (text == null) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = lower.substring(start, i);
+                if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+                    term = term.substring(0, term.length() - 1);
+                }
+                if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                    out.add(term);
+                }
+                start = -1;
+            }
+        }
+    }
+}
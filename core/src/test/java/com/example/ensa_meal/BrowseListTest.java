@@ -0,0 +1,53 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BrowseList: cache keys, endpoints and freshness of the browse lists.
+ */
+public class BrowseListTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long HOUR = 60 * 60_000L;
+
+    @Test
+    public void keysRoundTrip() {
+        BrowseList list = BrowseList.fromKey(BrowseList.area("Italian").key());
+        assertEquals("a:Italian", list.key());
+        assertEquals(BrowseList.AREA, list.kind);
+        assertEquals("Italian", list.name);
+        assertTrue(BrowseList.fromKey("c:").isDirectory());
+        assertNull(BrowseList.fromKey("x:Italian"));
+        assertNull(BrowseList.fromKey("Italian"));
+    }
+
+    @Test
+    public void urlsPointAtTheBrowseEndpoints() {
+        String api = "https://www.themealdb.com/api/json/v1/1/";
+        assertEquals(api + "categories.php", BrowseList.directory(BrowseList.CATEGORY).url());
+        assertEquals(api + "list.php?a=list", BrowseList.directory(BrowseList.AREA).url());
+        assertEquals(api + "filter.php?c=Seafood", BrowseList.category("Seafood").url());
+        assertEquals(api + "filter.php?a=Costa+Rican", BrowseList.area("Costa Rican").url());
+    }
+
+    @Test
+    public void mealListsGoStaleAfterADay() {
+        BrowseList list = BrowseList.category("Beef");
+        assertTrue(list.isStale(0, NOW));
+        assertFalse(list.isStale(NOW - 23 * HOUR, NOW));
+        assertTrue(list.isStale(NOW - 24 * HOUR, NOW));
+        assertTrue(list.isStale(NOW + HOUR, NOW)); // Clock went back
+    }
+
+    @Test
+    public void directoriesStayFreshForAWeek() {
+        BrowseList directory = BrowseList.directory(BrowseList.CATEGORY);
+        assertFalse(directory.isStale(NOW - 6 * 24 * HOUR, NOW));
+        assertTrue(directory.isStale(NOW - 7 * 24 * HOUR, NOW));
+    }
+}
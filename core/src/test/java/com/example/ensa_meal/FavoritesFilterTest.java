@@ -0,0 +1,68 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FavoritesFilter: same matches as the old lower-case-everything loop, in list order.
+ */
+public class FavoritesFilterTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+            "Chicken Tajine", "Lamb Tagine", "Lemon Chicken", "Spaghetti Carbonara", "Tiramisu");
+
+    @Test
+    public void matchesIgnoringCaseInOrder() {
+        assertEquals(Arrays.asList("Chicken Tajine", "Lemon Chicken"), filter("CHICK"));
+        assertEquals(Arrays.asList("Lamb Tagine"), filter("b tag"));
+        assertEquals(Arrays.asList("Tiramisu"), filter("misu"));
+    }
+
+    @Test
+    public void emptyQueryKeepsEverything() {
+        assertEquals(NAMES, filter(""));
+        assertEquals(NAMES, filter(null));
+    }
+
+    @Test
+    public void noMatchLeavesOutputEmpty() {
+        assertEquals(new ArrayList<String>(), filter("couscous"));
+    }
+
+    @Test
+    public void containsIgnoreCaseHandlesEdges() {
+        assertTrue(FavoritesFilter.containsIgnoreCase("Tajine", "tajine"));
+        assertTrue(FavoritesFilter.containsIgnoreCase("Tajine", "E"));
+        assertTrue(FavoritesFilter.containsIgnoreCase("Tajine", ""));
+        assertFalse(FavoritesFilter.containsIgnoreCase("Taj", "Tajine"));
+        assertFalse(FavoritesFilter.containsIgnoreCase("", "a"));
+    }
+
+    @Test
+    public void agreesWithLowerCaseContains() {
+        String[] queries = {"a", "an", "ken", "CAR", "ti ", "x"};
+        for (String query : queries) {
+            List<String> expected = new ArrayList<>();
+            for (String name : NAMES) {
+                if (name.toLowerCase().contains(query.toLowerCase())) {
+                    expected.add(name);
+                }
+            }
+            assertEquals(query, expected, filter(query));
+        }
+    }
+
+    private static List<String> filter(String query) {
+        List<String> out = new ArrayList<>(Arrays.asList("stale"));
+        FavoritesFilter.filter(NAMES, Function.identity(), query, out);
+        return out;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FavoritesQuery: the SQL of pages and facet counts.
+ */
+public class FavoritesQueryTest {
+
+    @Test
+    public void firstPageByDateIsNewestFirst() {
+        FavoritesQuery query = new FavoritesQuery.Builder().build();
+        assertEquals("SELECT * FROM favorites ORDER BY added_timestamp DESC, meal_id DESC LIMIT 50",
+                query.pageSql(null));
+        assertEquals(0, query.pageArgs(null).length);
+    }
+
+    @Test
+    public void nextPageStartsAfterTheLastRow() {
+        FavoritesQuery query = new FavoritesQuery.Builder().sort(FavoritesQuery.Sort.RATING).pageSize(20).build();
+        FavoritesQuery.After after = new FavoritesQuery.After(4f, "52772");
+        assertEquals("SELECT * FROM favorites WHERE (user_rating, meal_id) < (?, ?) "
+                + "ORDER BY user_rating DESC, meal_id DESC LIMIT 20", query.pageSql(after));
+        assertEquals(Arrays.asList(4f, "52772"), Arrays.asList(query.pageArgs(after)));
+
+        FavoritesQuery byName = query.toBuilder().sort(FavoritesQuery.Sort.NAME).build();
+        assertEquals("SELECT * FROM favorites WHERE (name_key, meal_id) > (?, ?) "
+                + "ORDER BY name_key ASC, meal_id ASC LIMIT 20", byName.pageSql(after));
+    }
+
+    @Test
+    public void filtersComeBeforeTheKeyset() {
+        FavoritesQuery query = new FavoritesQuery.Builder()
+                .nameQuery(" 100%_pie ")
+                .minRating(3)
+                .withComment(true)
+                .build();
+        FavoritesQuery.After after = new FavoritesQuery.After(1700000000000L, "1");
+        assertEquals("SELECT * FROM favorites WHERE meal_name LIKE ? ESCAPE '\\' AND user_rating >= ? "
+                + "AND user_comment IS NOT NULL AND user_comment != '' "
+                + "AND (added_timestamp, meal_id) < (?, ?) "
+                + "ORDER BY added_timestamp DESC, meal_id DESC LIMIT 50", query.pageSql(after));
+        assertEquals(Arrays.asList("%100\\%\\_pie%", 3f, 1700000000000L, "1"),
+                Arrays.asList(query.pageArgs(after)));
+    }
+
+    @Test
+    public void facetsCountEveryFilterValueUnderTheNameQuery() {
+        FavoritesQuery query = new FavoritesQuery.Builder().nameQuery("curry").minRating(4).withComment(true).build();
+        assertEquals("SELECT COUNT(*) AS total, "
+                + "COALESCE(SUM(user_comment IS NOT NULL AND user_comment != ''), 0) AS with_comment, "
+                + "COALESCE(SUM(user_rating >= 3), 0) AS rated_3, COALESCE(SUM(user_rating >= 4), 0) AS rated_4, "
+                + "COALESCE(SUM(user_rating >= 5), 0) AS rated_5 "
+                + "FROM favorites WHERE meal_name LIKE ? ESCAPE '\\'", query.facetsSql());
+        assertEquals(Arrays.asList("%curry%"), Arrays.asList(query.facetsArgs()));
+    }
+
+    @Test
+    public void nameKeyLowerCasesAsciiOnly() {
+        assertEquals("cr\u00c8me br\u00fbl\u00e9e", FavoritesQuery.nameKey("Cr\u00c8me Br\u00fbl\u00e9e"));
+        assertEquals("", FavoritesQuery.nameKey(null));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FuzzyIndex: typo tolerance, ranking and incremental updates.
+ */
+public class FuzzyIndexTest {
+
+    private static FuzzyIndex index() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.put(1, "Chicken Handi");
+        index.put(2, "Chick-Fil-A Sandwich");
+        index.put(3, "Kentucky Fried Chicken");
+        index.put(4, "Beef Wellington");
+        index.put(5, "Lasagne");
+        index.put(6, "Spicy Arrabiata Penne");
+        return index;
+    }
+
+    private static List<Integer> search(FuzzyIndex index, String query) {
+        List<Integer> ids = new ArrayList<>();
+        for (FuzzyIndex.Match match : index.search(query, 10)) {
+            ids.add(match.id);
+        }
+        return ids;
+    }
+
+    @Test
+    public void typosStillFindTheMeal() {
+        FuzzyIndex index = index();
+        assertEquals(Arrays.asList(1, 3), search(index, "chiken"));
+        assertEquals(Arrays.asList(5), search(index, "lasagna"));
+        assertEquals(Arrays.asList(4), search(index, "welingtn"));
+        assertEquals(Arrays.asList(6), search(index, "arabiatta"));
+    }
+
+    @Test
+    public void adjacentSwapIsOneEdit() {
+        assertEquals(1, FuzzyIndex.prefixDistance("chikcen", "chicken", 2));
+        assertEquals(2, FuzzyIndex.prefixDistance("hcikcen", "chicken", 2));
+    }
+
+    @Test
+    public void queryWordMayBeAPrefix() {
+        assertEquals(0, FuzzyIndex.prefixDistance("well", "wellington", 1));
+        assertEquals(1, FuzzyIndex.prefixDistance("welk", "wellington", 1));
+        // All three start with "chick": shortest name first
+        assertEquals(Arrays.asList(1, 2, 3), search(index(), "chick"));
+    }
+
+    @Test
+    public void editsAreBoundedByQueryLength() {
+        assertEquals(0, FuzzyIndex.maxEdits("pi"));
+        assertEquals(1, FuzzyIndex.maxEdits("beef"));
+        assertEquals(2, FuzzyIndex.maxEdits("chicken"));
+        assertEquals(2, FuzzyIndex.prefixDistance("lamb", "beef", 1));
+        assertTrue(search(index(), "lamb").isEmpty());
+        assertTrue(search(index(), "zz").isEmpty());
+    }
+
+    @Test
+    public void everyQueryWordMustMatch() {
+        FuzzyIndex index = index();
+        assertEquals(Arrays.asList(3), search(index, "fried chiken"));
+        assertEquals(Arrays.asList(3), search(index, "chiken kentuky"));
+        assertTrue(search(index, "chiken lasagne").isEmpty());
+    }
+
+    @Test
+    public void updatesAreIncremental() {
+        FuzzyIndex index = index();
+        assertFalse(index.put(5, "Lasagne"));
+        assertTrue(index.put(5, "Vegetable Lasagne"));
+        assertEquals(Arrays.asList(5), search(index, "vegtable"));
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(Arrays.asList(3), search(index, "chiken"));
+        assertEquals(1, index.retain(id -> id != 4));
+        assertTrue(search(index, "wellington").isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void compactionKeepsResults() {
+        FuzzyIndex index = new FuzzyIndex();
+        for (int round = 0; round < 5; round++) {
+            for (int id = 0; id < 100; id++) {
+                index.put(id, "Meal " + id + " version " + round);
+            }
+        }
+        index.put(1000, "Chicken Handi");
+        assertEquals(101, index.size());
+        assertEquals(Arrays.asList(1000), search(index, "chiken handy"));
+        assertEquals(Arrays.asList(42), search(index, "meal 42 version 4"));
+    }
+}
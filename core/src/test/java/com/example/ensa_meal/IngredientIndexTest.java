@@ -0,0 +1,87 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * IngredientIndex: tokenizing, query parsing, intersection and ranking.
+ */
+public class IngredientIndexTest {
+
+    private static final Map<Integer, List<String>> MEALS = new HashMap<>();
+
+    static {
+        MEALS.put(1, Arrays.asList("Chicken Breasts", "Lemon", "Garlic Clove", "Olive Oil", "Thyme", "Salt"));
+        MEALS.put(2, Arrays.asList("Chicken", "Lemon", "Garlic"));
+        MEALS.put(3, Arrays.asList("Chicken Thighs", "Garlic", "Soy Sauce", "Honey"));
+        MEALS.put(4, Arrays.asList("Lemon", "Sugar", "Eggs", "Butter"));
+        MEALS.put(5, Arrays.asList("Beef", "Tomatoes", "Onion", "Oil"));
+    }
+
+    private static IngredientIndex index() {
+        IngredientIndex.Builder builder = new IngredientIndex.Builder();
+        for (Map.Entry<Integer, List<String>> meal : MEALS.entrySet()) {
+            builder.addMeal(meal.getKey(), meal.getValue());
+        }
+        return builder.build();
+    }
+
+    private static List<Integer> search(String query, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        for (IngredientIndex.Match match : index().search(IngredientIndex.parseQuery(query), limit,
+                id -> MEALS.get(id).size())) {
+            ids.add(match.mealId);
+        }
+        return ids;
+    }
+
+    @Test
+    public void tokensAreLowerCaseSingularWords() {
+        assertEquals(Arrays.asList("chicken", "breast"), IngredientIndex.tokens("Chicken Breasts"));
+        assertEquals(Arrays.asList("tomato"), IngredientIndex.tokens("Chopped Tomatoes"));
+        assertEquals(Arrays.asList("berry"), IngredientIndex.tokens("berries"));
+        assertEquals(Arrays.asList("bass"), IngredientIndex.tokens("Bass"));
+    }
+
+    @Test
+    public void onlyPlusOrCommaQueriesAreIngredientQueries() {
+        assertNull(IngredientIndex.parseQuery("chicken tajine"));
+        assertEquals(3, IngredientIndex.parseQuery("chicken + lemon, garlic").size());
+        assertEquals(Arrays.asList("olive", "oil"), IngredientIndex.parseQuery("olive oil +").get(0));
+    }
+
+    @Test
+    public void mealsWithEveryIngredientComeFirstFewestIngredientsFirst() {
+        // 2 and 1 have all three (2 needs fewer extras), then 3 (chicken, garlic), then 4 (lemon)
+        assertEquals(Arrays.asList(2, 1, 3, 4), search("chicken + lemon + garlic", 10));
+        assertEquals(Arrays.asList(2, 1), search("chicken + lemon + garlic", 2));
+    }
+
+    @Test
+    public void multiWordTermNeedsAllItsWords() {
+        // 5 has oil but no olive: it only matches "onion"; both match one term, 5 has fewer ingredients
+        assertEquals(Arrays.asList(5, 1), search("olive oil, onion", 10));
+        assertEquals(Arrays.asList(3), search("soy sauce + honey", 10));
+    }
+
+    @Test
+    public void unknownIngredientStillRanksTheOthers() {
+        assertEquals(Arrays.asList(2, 3, 1), search("garlic + saffron", 10));
+    }
+
+    @Test
+    public void intersectWalksShortestList() {
+        int[] result = IngredientIndex.intersect(new int[][]{{1, 3, 5, 7, 9, 11}, {3, 9}, {2, 3, 4, 9, 10}});
+        assertEquals(2, result.length);
+        assertEquals(3, result[0]);
+        assertEquals(9, result[1]);
+    }
+}
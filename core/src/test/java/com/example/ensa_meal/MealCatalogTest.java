@@ -0,0 +1,100 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * MealCatalog: columns round-trip, pooling, lookups and name scans.
+ */
+public class MealCatalogTest {
+
+    private static final String IMAGES = "https://www.themealdb.com/images/media/meals/";
+
+    private static MealCatalog catalog() {
+        MealCatalog.Builder builder = new MealCatalog.Builder();
+        builder.add("52772", "Teriyaki Chicken Casserole", IMAGES + "wvpsxx1468256321.jpg", "Chicken", "Japanese",
+                Arrays.asList("soy sauce", "water", "brown sugar"));
+        builder.add("52795", "Chicken Handi", IMAGES + "wyxwsp1486979827.jpg", "Chicken", "Indian",
+                Arrays.asList("Chicken", "onion", "tomatoes"));
+        builder.add("52771", "Spicy Arrabiata Penne", IMAGES + "ustsqw1468250014.jpg", "Vegetarian", "Italian",
+                Arrays.asList("penne rigate", "olive oil"));
+        builder.add("53000", "Cr\u00e8me Br\u00fbl\u00e9e", "", null, "French", Collections.emptyList());
+        return builder.build(id -> "52772".equals(id) ? "Preheat oven to 350." : null);
+    }
+
+    @Test
+    public void rowsAreSortedByIdAndRoundTrip() {
+        MealCatalog catalog = catalog();
+        assertEquals(4, catalog.size());
+        assertEquals(52771, catalog.id(0));
+        assertEquals(53000, catalog.id(3));
+
+        int row = catalog.indexOf("52795");
+        assertEquals("Chicken Handi", catalog.name(row));
+        assertEquals(IMAGES + "wyxwsp1486979827.jpg", catalog.imageUrl(row));
+        assertEquals("Chicken", catalog.category(row));
+        assertEquals("Indian", catalog.area(row));
+        assertEquals(Arrays.asList("Chicken", "onion", "tomatoes"), catalog.ingredients(row));
+
+        int dessert = catalog.indexOf(53000);
+        assertEquals("Cr\u00e8me Br\u00fbl\u00e9e", catalog.name(dessert));
+        assertEquals("", catalog.imageUrl(dessert));
+        assertNull(catalog.category(dessert));
+        assertEquals(0, catalog.ingredientCount(dessert));
+    }
+
+    @Test
+    public void equalStringsShareOneHandle() {
+        MealCatalog catalog = catalog();
+        int chicken = catalog.handleOf("Chicken");
+        assertEquals(chicken, catalog.categoryHandle(catalog.indexOf(52772)));
+        assertEquals(chicken, catalog.categoryHandle(catalog.indexOf(52795)));
+        assertEquals(chicken, catalog.ingredientHandle(catalog.indexOf(52795), 0));
+        assertEquals(MealCatalog.NONE, catalog.handleOf("Dessert"));
+    }
+
+    @Test
+    public void instructionsAreLoadedOnDemand() {
+        MealCatalog catalog = catalog();
+        Plat plat = catalog.toPlat(catalog.indexOf(52772));
+        assertEquals("52772", plat.getId());
+        assertEquals("Preheat oven to 350.", plat.getInstructions());
+        assertEquals("No instructions available", catalog.instructions(catalog.indexOf(52771)));
+    }
+
+    @Test
+    public void searchNamesIgnoresAsciiCase() {
+        MealCatalog catalog = catalog();
+        int[] out = new int[10];
+        int count = catalog.searchNames("CHICKEN", out);
+        assertEquals(2, count);
+        assertEquals(52772, catalog.id(out[0]));
+        assertEquals(52795, catalog.id(out[1]));
+
+        assertEquals(1, catalog.searchNames("br\u00fbl\u00e9e", out));
+        assertEquals(53000, catalog.id(out[0]));
+        assertEquals(0, catalog.searchNames("tagine", out));
+        assertEquals(4, catalog.searchNames("", out));
+        assertEquals(1, catalog.searchNames("chicken", new int[1]));
+    }
+
+    @Test
+    public void duplicateAndNonNumericIdsAreSkipped() {
+        MealCatalog.Builder builder = new MealCatalog.Builder();
+        assertTrue(builder.add("1", "First", null, null, null, null));
+        assertFalse(builder.add("1", "Again", null, null, null, null));
+        assertFalse(builder.add("abc", "Bad", null, null, null, null));
+        MealCatalog catalog = builder.build(null);
+        assertEquals(1, catalog.size());
+        assertEquals("First", catalog.name(0));
+        assertEquals(-1, catalog.indexOf("abc"));
+        assertEquals(-1, catalog.indexOf(2));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * MealRecommender: taste profile, question filters, dislikes and speed at scale.
+ */
+public class MealRecommenderTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final MealRecommender.Meal TAJINE = meal("1", "Chicken Tajine", "Chicken", "Moroccan",
+            "Chicken", "Preserved Lemon", "Olives", "Onion");
+    private static final MealRecommender.Meal LAMB_TAGINE = meal("2", "Lamb Tagine", "Lamb", "Moroccan",
+            "Lamb", "Apricot", "Onion", "Cinnamon");
+    private static final MealRecommender.Meal LEMON_CHICKEN = meal("3", "Lemon Chicken", "Chicken", "Greek",
+            "Chicken", "Lemon", "Garlic", "Oregano");
+    private static final MealRecommender.Meal CARBONARA = meal("4", "Spaghetti Carbonara", "Pasta", "Italian",
+            "Spaghetti", "Egg", "Pancetta", "Parmesan");
+    private static final MealRecommender.Meal TIRAMISU = meal("5", "Tiramisu", "Dessert", "Italian",
+            "Mascarpone", "Coffee", "Egg", "Sugar");
+    private static final MealRecommender.Meal COUSCOUS = meal("6", "Vegetable Couscous", "Vegetarian", "Moroccan",
+            "Couscous", "Carrot", "Chickpea", "Cinnamon");
+
+    private static final List<MealRecommender.Meal> CATALOG = Arrays.asList(
+            TAJINE, LAMB_TAGINE, LEMON_CHICKEN, CARBONARA, TIRAMISU, COUSCOUS);
+
+    @Test
+    public void recommendsMealsLikeWellRatedFavorites() {
+        MealRecommender recommender = new MealRecommender(CATALOG, Arrays.asList(
+                new MealRecommender.Taste("1", "Chicken Tajine", 5, "Loved it", NOW - DAY)), NOW);
+
+        List<MealRecommender.Recommendation> top = recommender.recommend("What should I cook tonight?", 3);
+        assertEquals("1", top.get(0).meal.id); // The favorite itself
+        assertTrue(top.get(0).favorite);
+        // Then meals sharing area or main ingredient, not the Italian ones
+        List<String> next = Arrays.asList(top.get(1).meal.id, top.get(2).meal.id);
+        assertTrue(next.toString(), next.contains("2") || next.contains("3"));
+        assertFalse(next.contains("4"));
+        assertEquals("like Chicken Tajine", top.get(1).reason);
+    }
+
+    @Test
+    public void questionNarrowsTheCandidates() {
+        MealRecommender recommender = new MealRecommender(CATALOG, Arrays.asList(
+                new MealRecommender.Taste("1", "Chicken Tajine", 5, null, NOW)), NOW);
+
+        List<MealRecommender.Recommendation> top = recommender.recommend("Suggest an italian dessert", 5);
+        assertEquals(2, top.size());
+        assertEquals("5", top.get(0).meal.id); // Matches both words
+        assertEquals("4", top.get(1).meal.id);
+    }
+
+    @Test
+    public void lowRatingsPushSimilarMealsDown() {
+        MealRecommender recommender = new MealRecommender(CATALOG, Arrays.asList(
+                new MealRecommender.Taste("4", "Spaghetti Carbonara", 1, "Too greasy", NOW),
+                new MealRecommender.Taste("6", "Vegetable Couscous", 4, null, NOW)), NOW);
+
+        List<MealRecommender.Recommendation> top = recommender.recommend("dinner ideas", 6);
+        for (MealRecommender.Recommendation recommendation : top) {
+            assertFalse("disliked favorite suggested", recommendation.meal.id.equals("4"));
+            assertFalse("meal like the disliked one suggested", recommendation.meal.id.equals("5")
+                    && top.indexOf(recommendation) == 0);
+        }
+        assertEquals("6", top.get(0).meal.id);
+    }
+
+    @Test
+    public void recentFavoritesWeighMore() {
+        assertEquals(1f, MealRecommender.recency(NOW, NOW), 1e-6);
+        assertEquals(0.5f, MealRecommender.recency(NOW - 30 * DAY, NOW), 1e-3);
+        MealRecommender recommender = new MealRecommender(CATALOG, Arrays.asList(
+                new MealRecommender.Taste("4", "Spaghetti Carbonara", 5, null, NOW - 365 * DAY),
+                new MealRecommender.Taste("2", "Lamb Tagine", 5, null, NOW - DAY)), NOW);
+        assertEquals("2", recommender.recommend("what to eat", 1).get(0).meal.id);
+    }
+
+    @Test
+    public void detectsRecommendationQuestions() {
+        assertTrue(MealRecommender.isRecommendationQuestion("What should I cook?"));
+        assertTrue(MealRecommender.isRecommendationQuestion("any dinner ideas"));
+        assertFalse(MealRecommender.isRecommendationQuestion("How long do I boil an egg"));
+    }
+
+    @Test
+    public void answersInMillisecondsAtScale() {
+        String[] areas = {"Moroccan", "Italian", "Greek", "Indian", "Mexican", "French", "Japanese"};
+        String[] categories = {"Chicken", "Beef", "Pasta", "Dessert", "Seafood", "Vegetarian", "Lamb"};
+        List<MealRecommender.Meal> catalog = new ArrayList<>();
+        List<MealRecommender.Taste> favorites = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            List<String> ingredients = new ArrayList<>();
+            for (int j = 0; j < 10; j++) {
+                ingredients.add("Ingredient " + ((i * 7 + j * 13) % 300));
+            }
+            catalog.add(new MealRecommender.Meal(String.valueOf(i), "Meal " + i,
+                    categories[i % categories.length], areas[i % areas.length], ingredients));
+            if (i % 10 == 0) {
+                favorites.add(new MealRecommender.Taste(String.valueOf(i), "Meal " + i, 1 + i % 5, null, NOW - i * DAY / 10));
+            }
+        }
+        MealRecommender recommender = new MealRecommender(catalog, favorites, NOW);
+        for (int i = 0; i < 200; i++) {
+            recommender.recommend("what should I cook", 5); // Warm up
+        }
+
+        long start = System.nanoTime();
+        List<MealRecommender.Recommendation> top = recommender.recommend("chicken dinner", 5);
+        long micros = (System.nanoTime() - start) / 1000;
+        assertEquals(5, top.size());
+        assertTrue("took " + micros + " us", micros < 50_000);
+    }
+
+    private static MealRecommender.Meal meal(String id, String name, String category, String area, String... ingredients) {
+        return new MealRecommender.Meal(id, name, category, area, Arrays.asList(ingredients));
+    }
+}
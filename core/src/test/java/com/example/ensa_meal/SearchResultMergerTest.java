@@ -0,0 +1,80 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SearchResultMerger: de-duplication by ID, stable positions, reported changes.
+ */
+public class SearchResultMergerTest {
+
+    private static Plat meal(String id, String name) {
+        return new Plat(id, name, "https://img/" + id + ".jpg", "Cook it.");
+    }
+
+    @Test
+    public void networkIsAppendedAfterLocalWithoutDuplicates() {
+        SearchResultMerger merger = new SearchResultMerger();
+        merger.merge(Arrays.asList(meal("3", "Chicken Tajine"), meal("1", "Lemon Chicken")), false);
+
+        SearchResultMerger.Change change = merger.merge(Arrays.asList(
+                meal("2", "Chicken Handi"), meal("1", "Lemon Chicken"), meal("4", "Chicken Pie")), true);
+
+        assertEquals(Arrays.asList("3", "1", "2", "4"), ids(merger.results()));
+        assertEquals(2, change.previousSize);
+        assertEquals(2, change.insertedCount);
+        assertEquals(0, change.changedPositions.length);
+    }
+
+    @Test
+    public void networkUpdatesLocalCopiesInPlace() {
+        SearchResultMerger merger = new SearchResultMerger();
+        merger.merge(Arrays.asList(meal("3", "Chicken Tajine"), meal("1", "Lemon Chicken")), false);
+
+        SearchResultMerger.Change change = merger.merge(Arrays.asList(meal("1", "Greek Lemon Chicken")), true);
+
+        assertEquals(Arrays.asList("3", "1"), ids(merger.results()));
+        assertEquals("Greek Lemon Chicken", merger.results().get(1).getName());
+        assertEquals(1, change.changedPositions.length);
+        assertEquals(1, change.changedPositions[0]);
+        assertEquals(0, change.insertedCount);
+    }
+
+    @Test
+    public void lateLocalResultsNeverOverwriteNetworkData() {
+        SearchResultMerger merger = new SearchResultMerger();
+        merger.merge(Arrays.asList(meal("1", "Greek Lemon Chicken")), true);
+
+        SearchResultMerger.Change change = merger.merge(Arrays.asList(meal("1", "Lemon Chicken"), meal("5", "Fav")), false);
+
+        assertEquals("Greek Lemon Chicken", merger.results().get(0).getName());
+        assertEquals(Arrays.asList("1", "5"), ids(merger.results()));
+        assertEquals(1, change.insertedCount);
+    }
+
+    @Test
+    public void duplicatesWithinOneBatchAreDropped() {
+        SearchResultMerger merger = new SearchResultMerger();
+        merger.merge(Arrays.asList(meal("1", "A")), false);
+        SearchResultMerger.Change change = merger.merge(Arrays.asList(meal("1", "B"), meal("1", "B again"), meal("2", "C")), true);
+        assertEquals(2, merger.size());
+        assertEquals("B", merger.results().get(0).getName());
+        assertEquals(1, change.changedPositions.length);
+        assertEquals(1, change.insertedCount);
+        assertTrue(merger.merge(new ArrayList<>(), true).isEmpty());
+    }
+
+    private static List<String> ids(List<Plat> meals) {
+        List<String> ids = new ArrayList<>();
+        for (Plat meal : meals) {
+            ids.add(meal.getId());
+        }
+        return ids;
+    }
+}
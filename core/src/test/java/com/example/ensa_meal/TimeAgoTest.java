@@ -0,0 +1,30 @@
+package com.example.ensa_meal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TimeAgo: the labels shown on favorites rows.
+ */
+public class TimeAgoTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    public void formatsEachUnit() {
+        assertEquals("Just now", TimeAgo.format(NOW - 59_000, NOW));
+        assertEquals("1 min ago", TimeAgo.format(NOW - MINUTE, NOW));
+        assertEquals("5 mins ago", TimeAgo.format(NOW - 5 * MINUTE, NOW));
+        assertEquals("1 hour ago", TimeAgo.format(NOW - 60 * MINUTE, NOW));
+        assertEquals("23 hours ago", TimeAgo.format(NOW - 23 * 60 * MINUTE, NOW));
+        assertEquals("1 day ago", TimeAgo.format(NOW - 24 * 60 * MINUTE, NOW));
+        assertEquals("3 days ago", TimeAgo.format(NOW - 3 * 24 * 60 * MINUTE, NOW));
+    }
+
+    @Test
+    public void futureTimestampIsJustNow() {
+        assertEquals("Just now", TimeAgo.format(NOW + MINUTE, NOW));
+    }
+}